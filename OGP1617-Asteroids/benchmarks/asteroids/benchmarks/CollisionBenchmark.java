@@ -0,0 +1,100 @@
+package asteroids.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import asteroids.model.Asteroid;
+import asteroids.model.Entity;
+import asteroids.model.World;
+
+/**
+ * Benchmarks of the resolution of collisions and of the prediction of the collision between two entities.
+ *
+ * @version 2.0
+ * @author Bernardo Saniz, Elien Vlaeyen
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CollisionBenchmark {
+
+	/**
+	 * A world in which pairs of asteroids are about to collide, all at the same moment.
+	 */
+	@State(Scope.Thread)
+	public static class ContactScene {
+
+		@Param({"1", "100", "10000"})
+		public int pairs;
+
+		private World world;
+
+		private Entity[] entities;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			this.world = Scenes.contacts(this.pairs);
+			this.entities = this.world.getEntityList().toArray(new Entity[0]);
+		}
+
+		/**
+		 * Restores the velocities of the colliding pairs and finds their collisions again, since every call to
+		 * doCollisions makes them bounce apart.
+		 */
+		@Setup(Level.Invocation)
+		public void findContacts() {
+			double spacing = Scenes.Layout.SPARSE.getSpacing();
+			for (Entity entity : this.entities)
+				entity.setSpeed((entity.getXPosition() % spacing < spacing / 2) ? Scenes.speed : -Scenes.speed, 0);
+			this.world.getTimeNextCollision();
+		}
+	}
+
+	private Entity first;
+
+	private Entity approaching;
+
+	private Entity receding;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		World world = new World(1000, 1000);
+		this.first = new Asteroid(100, 100, Scenes.speed, 0, Scenes.radius);
+		this.approaching = new Asteroid(500, 110, -Scenes.speed, 0, Scenes.radius);
+		this.receding = new Asteroid(100, 500, 0, Scenes.speed, Scenes.radius);
+		world.addEntity(this.first);
+		world.addEntity(this.approaching);
+		world.addEntity(this.receding);
+	}
+
+	@Benchmark
+	public World doCollisions(ContactScene scene) {
+		scene.world.doCollisions(null);
+		return scene.world;
+	}
+
+	@Benchmark
+	public double getTimeToCollisionApproaching() {
+		return this.first.getTimeToCollision(this.approaching);
+	}
+
+	@Benchmark
+	public double getTimeToCollisionReceding() {
+		return this.first.getTimeToCollision(this.receding);
+	}
+}
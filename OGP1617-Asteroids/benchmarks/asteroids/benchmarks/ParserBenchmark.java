@@ -0,0 +1,75 @@
+package asteroids.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import asteroids.model.Program;
+import asteroids.model.ProgramFactory;
+import asteroids.part3.programs.internal.ParseOutcome;
+import asteroids.part3.programs.internal.ProgramParser;
+import asteroids.util.internal.ResourceUtils;
+
+/**
+ * Benchmarks of the parsing of the programs bundled with the game, one program per operation, so that the
+ * throughput is reported in programs per second. A single parser creates a new lexer and parser for every program
+ * and always uses full LL prediction; a batch parser reuses them and tries SLL prediction first.
+ *
+ * @version 3.0
+ * @author Bernardo Saniz, Elien Vlaeyen
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+
+	/**
+	 * The names of the bundled programs
+	 */
+	private static final String[] names = {
+			"program.txt", "program_assignment.txt", "program_simple.txt", "syntax_test.txt" };
+
+	@Param({"SINGLE", "BATCH"})
+	public String mode;
+
+	private String[] sources;
+
+	private ProgramParser<?, ?, ?, Program> parser;
+
+	private int next = 0;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		this.sources = new String[names.length];
+		for (int i = 0; i < names.length; i++)
+			try (InputStream stream = ResourceUtils.openResource("asteroids/resources/programs/" + names[i])) {
+				this.sources[i] = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+			}
+		ProgramFactory<Object, Object, Object, Object> factory = new ProgramFactory<Object, Object, Object, Object>();
+		this.parser = this.mode.equals("BATCH") ? ProgramParser.createBatch(factory) : ProgramParser.create(factory);
+	}
+
+	@Benchmark
+	public ParseOutcome<Program> parsePrograms() {
+		String source = this.sources[this.next];
+		this.next = (this.next + 1) % this.sources.length;
+		return this.parser.parseString(source);
+	}
+}
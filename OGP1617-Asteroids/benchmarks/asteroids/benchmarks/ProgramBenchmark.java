@@ -0,0 +1,119 @@
+package asteroids.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import asteroids.bytecode.BytecodeProgramFactory;
+import asteroids.model.Program;
+import asteroids.model.ProgramFactory;
+import asteroids.model.Ship;
+import asteroids.model.World;
+import asteroids.part3.programs.IProgramFactory;
+import asteroids.part3.programs.internal.ProgramParser;
+import asteroids.statements.BreakException;
+
+/**
+ * Benchmarks of the execution of the programs of ships, interpreted or assembled into bytecode. Every ship runs a
+ * program that does some arithmetic and calls a function in a loop between two actions, so that a frame of the
+ * game mostly measures the execution of expressions.
+ *
+ * @version 3.0
+ * @author Bernardo Saniz, Elien Vlaeyen
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProgramBenchmark {
+
+	/**
+	 * The duration of one frame of the game
+	 */
+	private static final double frame = 1.0 / 60;
+
+	/**
+	 * The program run by every ship
+	 */
+	public static final String program =
+			"def distance { " +
+			"  return sqrt(($1 + -$3) * ($1 + -$3) + ($2 + -$4) * ($2 + -$4)); " +
+			"} " +
+			"while 0.0 < 1.0 { " +
+			"  i := 0.0; " +
+			"  total := 0.0; " +
+			"  while i < 100.0 { " +
+			"    total := total + distance(getx self, gety self, i, i); " +
+			"    i := i + 1.0; " +
+			"  } " +
+			"  skip; " +
+			"}";
+
+	/**
+	 * An enumeration of the ways in which programs are executed.
+	 */
+	public enum Engine {
+
+		INTERPRETER {
+			@Override
+			public IProgramFactory<?, ?, ?, Program> getFactory() {
+				return new ProgramFactory<Object, Object, Object, Object>();
+			}
+		},
+
+		BYTECODE {
+			@Override
+			public IProgramFactory<?, ?, ?, Program> getFactory() {
+				return new BytecodeProgramFactory<Object, Object, Object, Object>();
+			}
+		};
+
+		/**
+		 * Returns a factory of the programs executed this way.
+		 */
+		public abstract IProgramFactory<?, ?, ?, Program> getFactory();
+	}
+
+	@Param({"1", "100"})
+	public int count;
+
+	@Param({"INTERPRETER", "BYTECODE"})
+	public Engine engine;
+
+	private final List<Ship> ships = new ArrayList<Ship>();
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		World world = new World(1000 * this.count, 1000);
+		for (int i = 0; i < this.count; i++) {
+			Ship ship = new Ship(500 + 1000 * i, 500, 0, 0, 50, 0, 0);
+			world.addEntity(ship);
+			ship.setProgram(ProgramParser.parseProgramFromString(program, this.engine.getFactory()));
+			this.ships.add(ship);
+		}
+	}
+
+	@Benchmark
+	public int executePrograms() throws BreakException {
+		int suspended = 0;
+		for (Ship ship : this.ships)
+			if (ship.doProgram(frame) == null)
+				suspended++;
+		return suspended;
+	}
+}
@@ -0,0 +1,154 @@
+package asteroids.benchmarks;
+
+import java.util.Random;
+
+import asteroids.model.Asteroid;
+import asteroids.model.Bullet;
+import asteroids.model.Entity;
+import asteroids.model.Planetoid;
+import asteroids.model.Ship;
+import asteroids.model.World;
+
+/**
+ * A class of factory methods for the worlds used by the benchmarks. Every scene is built from a fixed seed, so that
+ * the same parameters always give the same world.
+ *
+ * @version 2.0
+ * @author Bernardo Saniz, Elien Vlaeyen
+ */
+public final class Scenes {
+
+	private Scenes() {
+	}
+
+	/**
+	 * The seed from which all scenes are built
+	 */
+	public static final long seed = 20170321L;
+
+	/**
+	 * The radius of the asteroids in the scenes
+	 */
+	public static final double radius = 10;
+
+	/**
+	 * The largest speed in either direction of the entities in the scenes
+	 */
+	public static final double speed = 50;
+
+	/**
+	 * An enumeration of the layouts of the entities in a scene.
+	 */
+	public enum Layout {
+
+		/**
+		 * Entities far apart, so that collisions with the boundaries are about as frequent as collisions between entities
+		 */
+		SPARSE(40 * radius),
+
+		/**
+		 * Entities packed close together, so that most collisions are between entities
+		 */
+		DENSE(3 * radius);
+
+		private Layout(double spacing) {
+			this.spacing = spacing;
+		}
+
+		/**
+		 * The distance between the centers of the cells in which the entities are placed
+		 */
+		private final double spacing;
+
+		/**
+		 * Returns the distance between the centers of the cells in which the entities are placed.
+		 */
+		public double getSpacing() {
+			return this.spacing;
+		}
+	}
+
+	/**
+	 * Returns a world with the given number of asteroids in the given layout. Each asteroid is placed at a random
+	 * position within its own cell of a square grid, so that no asteroids overlap, and gets a random velocity.
+	 *
+	 * @param count
+	 *  The number of asteroids
+	 * @param layout
+	 *  The layout of the asteroids
+	 */
+	public static World asteroids(int count, Layout layout) {
+		Random random = new Random(seed + 31 * count + layout.ordinal());
+		int columns = (int) Math.ceil(Math.sqrt(count));
+		double spacing = layout.getSpacing();
+		World world = new World(columns * spacing, columns * spacing);
+		double jitter = spacing / 2 - 1.1 * radius;
+		for (int i = 0; i < count; i++) {
+			double x = (i % columns + 0.5) * spacing + (2 * random.nextDouble() - 1) * jitter;
+			double y = (i / columns + 0.5) * spacing + (2 * random.nextDouble() - 1) * jitter;
+			double xvel = (2 * random.nextDouble() - 1) * speed;
+			double yvel = (2 * random.nextDouble() - 1) * speed;
+			world.addEntity(new Asteroid(x, y, xvel, yvel, radius));
+		}
+		return world;
+	}
+
+	/**
+	 * Returns a world with the given number of entities of mixed kinds in a sparse layout: one in ten entities is a
+	 * ship, one in ten is a bullet, one in ten is a planetoid and the others are asteroids.
+	 *
+	 * @param count
+	 *  The number of entities
+	 */
+	public static World mixed(int count) {
+		Random random = new Random(seed + 17 * count);
+		int columns = (int) Math.ceil(Math.sqrt(count));
+		double spacing = Layout.SPARSE.getSpacing();
+		World world = new World(columns * spacing, columns * spacing);
+		double jitter = spacing / 2 - 1.1 * radius;
+		for (int i = 0; i < count; i++) {
+			double x = (i % columns + 0.5) * spacing + (2 * random.nextDouble() - 1) * jitter;
+			double y = (i / columns + 0.5) * spacing + (2 * random.nextDouble() - 1) * jitter;
+			double xvel = (2 * random.nextDouble() - 1) * speed;
+			double yvel = (2 * random.nextDouble() - 1) * speed;
+			Entity entity;
+			switch (i % 10) {
+			case 0:
+				entity = new Ship(x, y, xvel, yvel, radius, 0, 0);
+				break;
+			case 1:
+				entity = new Bullet(x, y, xvel, yvel, radius / 2);
+				break;
+			case 2:
+				entity = new Planetoid(x, y, xvel, yvel, radius, 0);
+				break;
+			default:
+				entity = new Asteroid(x, y, xvel, yvel, radius);
+			}
+			world.addEntity(entity);
+		}
+		return world;
+	}
+
+	/**
+	 * Returns a world with the given number of pairs of asteroids. The asteroids of each pair move straight towards
+	 * each other and all pairs collide at the same moment, a fraction of a second from now.
+	 *
+	 * @param pairs
+	 *  The number of pairs of asteroids
+	 */
+	public static World contacts(int pairs) {
+		int columns = (int) Math.ceil(Math.sqrt(pairs));
+		double spacing = Layout.SPARSE.getSpacing();
+		World world = new World(columns * spacing, columns * spacing);
+		// A power of two, so that every pair has exactly the same gap and all collisions happen at the same time.
+		double gap = 0.125;
+		for (int i = 0; i < pairs; i++) {
+			double x = (i % columns + 0.5) * spacing;
+			double y = (i / columns + 0.5) * spacing;
+			world.addEntity(new Asteroid(x - radius - gap / 2, y, speed, 0, radius));
+			world.addEntity(new Asteroid(x + radius + gap / 2, y, -speed, 0, radius));
+		}
+		return world;
+	}
+}
@@ -0,0 +1,62 @@
+package asteroids.benchmarks;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import asteroids.model.Asteroid;
+import asteroids.model.Entity;
+import asteroids.model.Ship;
+import asteroids.model.World;
+
+/**
+ * Benchmarks of the lookup of the entities of one kind in a world, as done by the facade on every frame.
+ *
+ * @version 2.0
+ * @author Bernardo Saniz, Elien Vlaeyen
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpecificListBenchmark {
+
+	@Param({"10", "100", "1000", "10000"})
+	public int count;
+
+	private World world;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.world = Scenes.mixed(this.count);
+	}
+
+	@Benchmark
+	public Set<Ship> getShips() {
+		return this.world.getSpecificList(Ship.class);
+	}
+
+	@Benchmark
+	public Set<Asteroid> getAsteroids() {
+		return this.world.getSpecificList(Asteroid.class);
+	}
+
+	@Benchmark
+	public Set<Entity> getEntities() {
+		return this.world.getSpecificList(Entity.class);
+	}
+}
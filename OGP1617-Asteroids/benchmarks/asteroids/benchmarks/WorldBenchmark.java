@@ -0,0 +1,63 @@
+package asteroids.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import asteroids.model.World;
+
+/**
+ * Benchmarks of the evolution of worlds of asteroids and of the search for their next collision.
+ * The world of each trial is built again from the same seed, so successive runs measure the same scenes.
+ *
+ * @version 2.0
+ * @author Bernardo Saniz, Elien Vlaeyen
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WorldBenchmark {
+
+	/**
+	 * The duration of one frame of the game
+	 */
+	private static final double frame = 1.0 / 60;
+
+	@Param({"10", "100", "1000", "10000"})
+	public int count;
+
+	@Param({"SPARSE", "DENSE"})
+	public Scenes.Layout layout;
+
+	private World world;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.world = Scenes.asteroids(this.count, this.layout);
+	}
+
+	@Benchmark
+	public World evolve() {
+		this.world.evolve(frame, null);
+		return this.world;
+	}
+
+	@Benchmark
+	public double getTimeNextCollision() {
+		return this.world.getTimeNextCollision();
+	}
+}
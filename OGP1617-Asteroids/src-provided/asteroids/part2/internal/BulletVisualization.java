@@ -14,17 +14,18 @@ public class BulletVisualization<F extends IFacade> extends Visualization<F, Bul
 	}
 
 	@Override
-	public void draw(DrawContext<F> ctx) {
+	public EntityState capture(F facade) throws ModelException {
+		double[] xy = facade.getBulletPosition(getObject());
+		return new EntityState(xy[0], xy[1], facade.getBulletRadius(getObject()));
+	}
+
+	@Override
+	public void draw(DrawContext<F> ctx, EntityState state) {
 		Graphics2D g2d = ctx.getGraphics();
-		try {
-			F facade = ctx.getFacade();
-			double radius = facade.getBulletRadius(getObject());
-			double x = ctx.worldToScreenX(facade.getBulletPosition(getObject())[0]);
-			double y = ctx.worldToScreenY(facade.getBulletPosition(getObject())[1]);
-			g2d.setColor(getColor());
-			g2d.drawOval((int) (x - radius), (int) (y - radius), (int) (2 * radius), (int) (2 * radius));
-		} catch (ModelException e) {
-			ctx.handleError(e);
-		}
+		double radius = state.getRadius();
+		double x = ctx.worldToScreenX(state.getX());
+		double y = ctx.worldToScreenY(state.getY());
+		g2d.setColor(getColor());
+		g2d.drawOval((int) (x - radius), (int) (y - radius), (int) (2 * radius), (int) (2 * radius));
 	}
 }
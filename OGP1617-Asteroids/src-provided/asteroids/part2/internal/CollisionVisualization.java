@@ -4,6 +4,8 @@ import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.Stroke;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import java.util.function.Supplier;
 
@@ -27,7 +29,6 @@ public class CollisionVisualization<F extends IFacade> extends Visualization<F,
 		if (!showCollisions.get()) {
 			return;
 		}
-		Graphics2D g2d = ctx.getGraphics();
 
 		try {
 			F facade = ctx.getFacade();
@@ -64,77 +65,78 @@ public class CollisionVisualization<F extends IFacade> extends Visualization<F,
 					e.printStackTrace();
 				}
 			}
+			// collect circles and lines, as {x, y, x_Collision, y_Collision, radius}
+			List<double[]> paths = new ArrayList<>();
 			try {
-				// draw circles
 				dt = min_dt;
 				double[] xy = facade.getShipPosition(selected);
 				double x = xy[0], y = xy[1];
 				double[] vxy = facade.getShipVelocity(selected);
 				double vx = vxy[0], vy = vxy[1];
-
-				double x1_Collision = x + dt * vx;
-				double y1_Collision = y + dt * vy;
-				int radius1 = (int) facade.getShipRadius(selected);
-				float[] dashPattern = { 10, 5 };
-				g2d.setColor(Color.LIGHT_GRAY);
-				Stroke oldStroke = g2d.getStroke();
-				try {
-					g2d.setStroke(new BasicStroke(1, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10, dashPattern, 0));
-					g2d.drawOval((int) Math.round(ctx.worldToScreenX(x1_Collision) - radius1),
-							(int) Math.round(ctx.worldToScreenY(y1_Collision) - radius1), 2 * radius1, 2 * radius1);
-					g2d.drawLine((int) Math.round(ctx.worldToScreenX(x)), (int) Math.round(ctx.worldToScreenY(y)),
-							(int) Math.round(ctx.worldToScreenX(x1_Collision)),
-							(int) Math.round(ctx.worldToScreenY(y1_Collision)));
-
-					Object first = min_ship;
-					if (first != null) {
-						double[] first_xy = getPosition(facade, first);
-						if (first_xy != null) {
-							double first_x = first_xy[0], first_y = first_xy[1];
-							double[] first_vxy = getVelocity(facade, first);
-							double first_vx = first_vxy[0], first_vy = first_vxy[1];
-
-							double x2_Collision = first_x + dt * first_vx;
-							double y2_Collision = first_y + dt * first_vy;
-
-							int radius2 = (int) getRadius(facade, first);
-							g2d.drawOval((int) Math.round(ctx.worldToScreenX(x2_Collision) - radius2),
-									(int) Math.round(ctx.worldToScreenY(y2_Collision) - radius2), 2 * radius2,
-									2 * radius2);
-							g2d.drawLine((int) Math.round(ctx.worldToScreenX(first_x)),
-									(int) Math.round(ctx.worldToScreenY(first_y)),
-									(int) Math.round(ctx.worldToScreenX(x2_Collision)),
-									(int) Math.round(ctx.worldToScreenY(y2_Collision)));
-						}
+				paths.add(new double[] { x, y, x + dt * vx, y + dt * vy, (int) facade.getShipRadius(selected) });
+
+				Object first = min_ship;
+				if (first != null) {
+					double[] first_xy = getPosition(facade, first);
+					if (first_xy != null) {
+						double first_x = first_xy[0], first_y = first_xy[1];
+						double[] first_vxy = getVelocity(facade, first);
+						double first_vx = first_vxy[0], first_vy = first_vxy[1];
+						paths.add(new double[] { first_x, first_y, first_x + dt * first_vx, first_y + dt * first_vy,
+								(int) getRadius(facade, first) });
 					}
-				} finally {
-					g2d.setStroke(oldStroke);
 				}
 			} catch (ModelException e) {
 				e.printStackTrace();
 			}
-			// draw cross
+			// collect crosses
+			List<double[]> crosses = new ArrayList<>();
 			for (Object entity : ships) {
 				try {
 					if (!(entity instanceof Ship) || !(facade.overlap(selected, (Ship) entity))) {
 						double[] colPos = facade.getPositionCollisionEntity(selected, entity);
 						if (colPos != null) {
-							int x = (int) Math.round(ctx.worldToScreenX(colPos[0]));
-							int y = (int) Math.round(ctx.worldToScreenY(colPos[1]));
-							g2d.setColor(Color.WHITE);
-							g2d.drawLine(x - 5, y, x + 5, y);
-							g2d.drawLine(x, y - 5, x, y + 5);
+							crosses.add(colPos);
 						}
 					}
 				} catch (ModelException e) {
 					e.printStackTrace();
 				}
 			}
+			ctx.draw(c -> drawCollisions(c, paths, crosses));
 		} catch (ModelException e) {
 			e.printStackTrace();
 		}
 	}
 
+	private static void drawCollisions(DrawContext<?> ctx, List<double[]> paths, List<double[]> crosses) {
+		Graphics2D g2d = ctx.getGraphics();
+		// draw circles
+		float[] dashPattern = { 10, 5 };
+		g2d.setColor(Color.LIGHT_GRAY);
+		Stroke oldStroke = g2d.getStroke();
+		try {
+			g2d.setStroke(new BasicStroke(1, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10, dashPattern, 0));
+			for (double[] path : paths) {
+				int radius = (int) path[4];
+				g2d.drawOval((int) Math.round(ctx.worldToScreenX(path[2]) - radius),
+						(int) Math.round(ctx.worldToScreenY(path[3]) - radius), 2 * radius, 2 * radius);
+				g2d.drawLine((int) Math.round(ctx.worldToScreenX(path[0])), (int) Math.round(ctx.worldToScreenY(path[1])),
+						(int) Math.round(ctx.worldToScreenX(path[2])), (int) Math.round(ctx.worldToScreenY(path[3])));
+			}
+		} finally {
+			g2d.setStroke(oldStroke);
+		}
+		// draw cross
+		g2d.setColor(Color.WHITE);
+		for (double[] colPos : crosses) {
+			int x = (int) Math.round(ctx.worldToScreenX(colPos[0]));
+			int y = (int) Math.round(ctx.worldToScreenY(colPos[1]));
+			g2d.drawLine(x - 5, y, x + 5, y);
+			g2d.drawLine(x, y - 5, x, y + 5);
+		}
+	}
+
 	protected double[] getPosition(F facade, Object object) throws ModelException {
 		if (object instanceof Ship) {
 			return facade.getShipPosition((Ship) object);
@@ -15,4 +15,20 @@ public interface DrawContext<F> {
 	public double worldToScreenY(double y);
 
 	public void handleError(ModelException e);
+
+	/**
+	 * Draws the given drawable in this context. The drawable must not call the
+	 * facade, since contexts that record frames draw it later.
+	 */
+	public default void draw(Drawable<DrawContext<F>> drawable) {
+		drawable.draw(this);
+	}
+
+	/**
+	 * Draws the object of the given visualization in the given state in this
+	 * context.
+	 */
+	public default <T> void draw(Visualization<F, T> visualization, EntityState state) {
+		visualization.draw(this, state);
+	}
 }
@@ -0,0 +1,56 @@
+package asteroids.part2.internal;
+
+/**
+ * Immutable state of an entity at one moment, as far as it is needed to draw
+ * the entity: the position of its center and its radius in world coordinates,
+ * its orientation and whether its thruster is active.
+ */
+public final class EntityState {
+
+	private final double x, y, radius, orientation;
+	private final boolean thrusterActive;
+
+	public EntityState(double x, double y, double radius, double orientation, boolean thrusterActive) {
+		this.x = x;
+		this.y = y;
+		this.radius = radius;
+		this.orientation = orientation;
+		this.thrusterActive = thrusterActive;
+	}
+
+	public EntityState(double x, double y, double radius) {
+		this(x, y, radius, 0, false);
+	}
+
+	public double getX() {
+		return x;
+	}
+
+	public double getY() {
+		return y;
+	}
+
+	public double getRadius() {
+		return radius;
+	}
+
+	public double getOrientation() {
+		return orientation;
+	}
+
+	public boolean isThrusterActive() {
+		return thrusterActive;
+	}
+
+	/**
+	 * Returns the state between this state and the given next state, at the
+	 * given fraction (between 0 and 1) of the way. The orientation turns along
+	 * the shortest arc.
+	 */
+	public EntityState interpolate(EntityState next, double alpha) {
+		double turn = Math.IEEEremainder(next.orientation - orientation, 2 * Math.PI);
+		return new EntityState(x + alpha * (next.x - x), y + alpha * (next.y - y),
+				radius + alpha * (next.radius - radius), orientation + alpha * turn,
+				(alpha < 0.5) ? thrusterActive : next.thrusterActive);
+	}
+}
@@ -9,13 +9,25 @@ public class Explosion implements Drawable<DrawContext<?>> {
 
 	private static final double INITIAL_TIME_LEFT = 1.2;
 	private double timeLeft = INITIAL_TIME_LEFT;
-	private int x, y;
+	private double x, y;
 
 	private static final Image explosions = ResourceUtils.loadImage("asteroids/resources/explosions.png");
 
+	/**
+	 * Create a new explosion at the given position in world coordinates.
+	 */
 	public Explosion(double x, double y) {
-		this.x = (int) x;
-		this.y = (int) y;
+		this.x = x;
+		this.y = y;
+	}
+
+	/**
+	 * Returns a new explosion at the same place and moment as this one.
+	 */
+	public Explosion copy() {
+		Explosion result = new Explosion(x, y);
+		result.timeLeft = timeLeft;
+		return result;
 	}
 
 	public boolean evolve(double dt) {
@@ -36,6 +48,8 @@ public class Explosion implements Drawable<DrawContext<?>> {
 		int column = imageNumber % NB_FRAMES_VERTICAL;
 		int sx = column * FRAME_WIDTH;
 		int sy = row * FRAME_HEIGHT;
+		int x = (int) ctx.worldToScreenX(this.x);
+		int y = (int) ctx.worldToScreenY(this.y);
 		g2d.drawImage(explosions, x - FRAME_WIDTH / 2, y - FRAME_WIDTH / 2, x + FRAME_WIDTH / 2, y + FRAME_WIDTH / 2,
 				sx, sy, sx + FRAME_WIDTH, sy + FRAME_HEIGHT, null);
 	}
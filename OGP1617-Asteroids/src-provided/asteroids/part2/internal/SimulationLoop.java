@@ -0,0 +1,138 @@
+package asteroids.part2.internal;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.DoubleConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Game loop that runs a simulation on its own thread with a fixed time step.
+ *
+ * Elapsed wall-clock time is accumulated and consumed in steps of exactly the
+ * time step, so the simulation does not depend on how often it is woken up. A
+ * backlog of more than {@link #MAX_BACKLOG} seconds, after a long pause, is
+ * dropped rather than caught up with. After the steps of every iteration, a
+ * snapshot is captured and published together with the previous one; readers
+ * get both without locking, and can interpolate between them with
+ * {@link Frame#getAlpha()}, which makes them draw one step behind the
+ * simulation.
+ */
+public class SimulationLoop<S> {
+
+	public static final double MAX_BACKLOG = 0.25;
+
+	private final double timeStep;
+	private final DoubleConsumer step;
+	private final Supplier<S> capture;
+	private final AtomicReference<Frame<S>> frame = new AtomicReference<>();
+	private volatile boolean running = false;
+	private Thread thread;
+
+	/**
+	 * Create a new loop that calls the given step with the given time step,
+	 * and then captures a snapshot with the given supplier.
+	 */
+	public SimulationLoop(double timeStep, DoubleConsumer step, Supplier<S> capture) {
+		if (!(timeStep > 0))
+			throw new IllegalArgumentException("Time step must be positive");
+		this.timeStep = timeStep;
+		this.step = step;
+		this.capture = capture;
+	}
+
+	public double getTimeStep() {
+		return timeStep;
+	}
+
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * Returns the last published frame, or null if no frame has been published
+	 * yet.
+	 */
+	public Frame<S> getFrame() {
+		return frame.get();
+	}
+
+	public synchronized void start() {
+		if (running)
+			return;
+		running = true;
+		thread = new Thread(this::run, "simulation");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Stops the loop after its current step. May be called from the loop
+	 * itself.
+	 */
+	public synchronized void stop() {
+		running = false;
+		if (thread != null && thread != Thread.currentThread())
+			LockSupport.unpark(thread);
+		thread = null;
+	}
+
+	private void run() {
+		publish();
+		double accumulator = 0;
+		long previous = System.nanoTime();
+		while (running) {
+			long now = System.nanoTime();
+			accumulator = Math.min(accumulator + (now - previous) / 1e9, MAX_BACKLOG);
+			previous = now;
+			boolean stepped = false;
+			while (running && accumulator >= timeStep) {
+				step.accept(timeStep);
+				accumulator -= timeStep;
+				stepped = true;
+			}
+			if (stepped)
+				publish();
+			LockSupport.parkNanos((long) ((timeStep - accumulator) * 1e9));
+		}
+	}
+
+	private void publish() {
+		S current = capture.get();
+		Frame<S> last = frame.get();
+		frame.set(new Frame<>((last == null) ? current : last.getCurrent(), current, System.nanoTime(), timeStep));
+	}
+
+	/**
+	 * Two consecutive snapshots of a simulation, and the moment at which the
+	 * last one was published.
+	 */
+	public static class Frame<S> {
+
+		private final S previous, current;
+		private final long publishedNanos;
+		private final double timeStep;
+
+		private Frame(S previous, S current, long publishedNanos, double timeStep) {
+			this.previous = previous;
+			this.current = current;
+			this.publishedNanos = publishedNanos;
+			this.timeStep = timeStep;
+		}
+
+		public S getPrevious() {
+			return previous;
+		}
+
+		public S getCurrent() {
+			return current;
+		}
+
+		/**
+		 * Returns the fraction of a time step that has passed since this frame
+		 * was published, at most 1.
+		 */
+		public double getAlpha() {
+			return Math.min(1, (System.nanoTime() - publishedNanos) / (timeStep * 1e9));
+		}
+	}
+}
@@ -0,0 +1,163 @@
+package asteroids.part2.internal;
+
+import java.awt.Graphics2D;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import asteroids.util.ModelException;
+
+/**
+ * Immutable frame of a game, recorded by drawing the game into a
+ * {@link Recorder}, to be drawn later, possibly on another thread.
+ *
+ * A snapshot holds the states captured by the visualizations of the entities,
+ * and drawables that do not depend on the model anymore, in the order in which
+ * they were drawn. Drawing a snapshot never calls the facade.
+ */
+public class Snapshot<F> {
+
+	private final List<Object> entries;
+	private final Map<Visualization<F, ?>, EntityState> states;
+
+	private Snapshot(List<Object> entries, Map<Visualization<F, ?>, EntityState> states) {
+		this.entries = Collections.unmodifiableList(entries);
+		this.states = Collections.unmodifiableMap(states);
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Returns the states of the entities in this snapshot.
+	 */
+	public Collection<EntityState> getStates() {
+		return states.values();
+	}
+
+	/**
+	 * Returns the state of the given object in this snapshot, or null if it is
+	 * not in this snapshot.
+	 */
+	public EntityState getState(Object object) {
+		for (Map.Entry<Visualization<F, ?>, EntityState> entry : states.entrySet()) {
+			if (entry.getKey().getObject() == object) {
+				return entry.getValue();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns whether this snapshot holds drawables other than the states of
+	 * entities, whose extent is not known.
+	 */
+	public boolean hasDrawables() {
+		return entries.size() > states.size();
+	}
+
+	/**
+	 * Draws this snapshot in the given context.
+	 */
+	public void draw(DrawContext<F> ctx) {
+		draw(ctx, this, 1);
+	}
+
+	/**
+	 * Draws this snapshot in the given context, with the entities at the given
+	 * fraction (between 0 and 1) of the way from their state in the given
+	 * previous snapshot to their state in this snapshot. Entities that are not
+	 * in the previous snapshot are drawn in their state in this snapshot.
+	 */
+	public void draw(DrawContext<F> ctx, Snapshot<F> previous, double alpha) {
+		draw(ctx, previous, alpha, state -> true);
+	}
+
+	/**
+	 * Draws this snapshot like {@link #draw(DrawContext, Snapshot, double)},
+	 * but only the entities whose interpolated state satisfies the given
+	 * predicate. Drawables other than the states of entities are always drawn.
+	 */
+	@SuppressWarnings("unchecked")
+	public void draw(DrawContext<F> ctx, Snapshot<F> previous, double alpha, Predicate<EntityState> visible) {
+		for (Object entry : entries) {
+			if (entry instanceof Visualization) {
+				Visualization<F, ?> visualization = (Visualization<F, ?>) entry;
+				EntityState state = states.get(visualization);
+				EntityState before = (previous == null) ? null : previous.states.get(visualization);
+				if (before != null) {
+					state = before.interpolate(state, alpha);
+				}
+				if (visible.test(state)) {
+					visualization.draw(ctx, state);
+				}
+			} else {
+				((Drawable<DrawContext<F>>) entry).draw(ctx);
+			}
+		}
+	}
+
+	/**
+	 * Context that records what is drawn in it into a snapshot. It has no
+	 * graphics and no screen coordinates: visualizations must capture the state
+	 * they need from the facade and draw it later.
+	 */
+	public static class Recorder<F> implements DrawContext<F> {
+
+		private final F facade;
+		private final Consumer<ModelException> errorHandler;
+		private final List<Object> entries = new ArrayList<>();
+		private final Map<Visualization<F, ?>, EntityState> states = new HashMap<>();
+
+		public Recorder(F facade, Consumer<ModelException> errorHandler) {
+			this.facade = facade;
+			this.errorHandler = errorHandler;
+		}
+
+		@Override
+		public Graphics2D getGraphics() {
+			throw new UnsupportedOperationException("A recorder has no graphics");
+		}
+
+		@Override
+		public F getFacade() {
+			return facade;
+		}
+
+		@Override
+		public double worldToScreenX(double x) {
+			throw new UnsupportedOperationException("A recorder has no screen");
+		}
+
+		@Override
+		public double worldToScreenY(double y) {
+			throw new UnsupportedOperationException("A recorder has no screen");
+		}
+
+		@Override
+		public void handleError(ModelException e) {
+			errorHandler.accept(e);
+		}
+
+		@Override
+		public void draw(Drawable<DrawContext<F>> drawable) {
+			entries.add(drawable);
+		}
+
+		@Override
+		public <T> void draw(Visualization<F, T> visualization, EntityState state) {
+			if (states.put(visualization, state) == null)
+				entries.add(visualization);
+		}
+
+		public Snapshot<F> getSnapshot() {
+			return new Snapshot<>(new ArrayList<>(entries), new HashMap<>(states));
+		}
+	}
+}
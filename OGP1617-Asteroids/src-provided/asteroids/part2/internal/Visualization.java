@@ -3,6 +3,8 @@ package asteroids.part2.internal;
 import java.awt.Color;
 import java.awt.Image;
 
+import asteroids.util.ModelException;
+
 public abstract class Visualization<F, T> implements Drawable<DrawContext<F>> {
 	private final Color color;
 	private final T object;
@@ -27,4 +29,35 @@ public abstract class Visualization<F, T> implements Drawable<DrawContext<F>> {
 	public Image getImage() {
 		return image;
 	}
+
+	/**
+	 * Returns the current state of the object of this visualization, read
+	 * through the given facade, or null if the object is not to be drawn.
+	 */
+	public EntityState capture(F facade) throws ModelException {
+		return null;
+	}
+
+	/**
+	 * Draws the object of this visualization in the given state, without
+	 * calling the facade.
+	 */
+	public void draw(DrawContext<F> ctx, EntityState state) {
+	}
+
+	/**
+	 * Captures the current state of the object of this visualization and draws
+	 * it in the given context.
+	 */
+	@Override
+	public void draw(DrawContext<F> ctx) {
+		try {
+			EntityState state = capture(ctx.getFacade());
+			if (state != null) {
+				ctx.draw(this, state);
+			}
+		} catch (ModelException e) {
+			ctx.handleError(e);
+		}
+	}
 }
@@ -4,21 +4,25 @@ import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Image;
+import java.awt.Rectangle;
 import java.awt.RenderingHints;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
 import javax.swing.Timer;
 
 import asteroids.model.Bullet;
@@ -29,27 +33,46 @@ import asteroids.part2.facade.IFacade;
 import asteroids.util.ModelException;
 import asteroids.util.internal.InternalUtils;
 import asteroids.util.internal.ResourceUtils;
+import asteroids.util.internal.SpriteCache;
 
 @SuppressWarnings("serial")
 public class WorldView2<F extends IFacade> extends JPanel implements KeyListener, ActionListener, CollisionListener {
 
-	private static final int TIMER_DELAY = 1000 / 30;
+	private static final int TIMER_DELAY = 1000 / 60;
+
+	/**
+	 * The time step of the simulation, in seconds
+	 */
+	private static final double TIME_STEP = 1.0 / 60;
+
+	/**
+	 * The time in which the player turns by the angle of a key press, in seconds
+	 */
+	private static final double TURN_TIME = 1.0 / 30;
 
 	private AsteroidsFrame2<F> game;
 	private F facade;
 	private World world;
 	private Ship player;
-	private double deltaAngle = Double.NaN;
-	private boolean thrusterChange = false;
-	private boolean fire;
+	private volatile double deltaAngle = Double.NaN;
+	private volatile boolean thrusterChange = false;
+	private volatile boolean fire;
 	private Timer timer;
-	private long timeAfterLastEvolve;
+	private SimulationLoop<Snapshot<F>> simulation;
 	private Image background;
-	private String msg = null;
+	private volatile String msg = null;
 	private Map<Object, Visualization<F, ?>> visualizations = new HashMap<>();
+	private Set<Object> drawnObjects = new HashSet<>();
+	private boolean errorWhileDrawing = false;
 	private Set<Explosion> explosions = new HashSet<>();
+	private double worldWidth, worldHeight;
+	private double cameraX = 0, cameraY = 0;
+	private SimulationLoop.Frame<Snapshot<F>> paintedFrame;
+	private double paintedAlpha;
+	private double paintedCameraX = Double.NaN, paintedCameraY = Double.NaN;
+	private List<Rectangle> dirtyRegions = new ArrayList<>();
 
-	private boolean showCollisions = false;
+	private volatile boolean showCollisions = false;
 
 	public WorldView2(AsteroidsFrame2<F> game, World world, Ship player, Set<Ship> enemies) throws ModelException {
 		this.game = game;
@@ -57,6 +80,10 @@ public class WorldView2<F extends IFacade> extends JPanel implements KeyListener
 		this.world = world;
 		this.player = player;
 		this.timer = new Timer(TIMER_DELAY, this);
+		this.simulation = new SimulationLoop<>(TIME_STEP, this::step, this::capture);
+		double[] worldSize = facade.getWorldSize(world);
+		this.worldWidth = worldSize[0];
+		this.worldHeight = worldSize[1];
 		setBackground(Color.BLACK);
 		background = ResourceUtils.loadImage("asteroids/resources/game-background.jpg")
 				.getScaledInstance(game.getWidth(), game.getHeight(), Image.SCALE_DEFAULT);
@@ -81,8 +108,7 @@ public class WorldView2<F extends IFacade> extends JPanel implements KeyListener
 		} catch (ModelException e) {
 			handleError(e);
 		}
-		Image image = ResourceUtils.loadImage("asteroids/resources/sphere.png").getScaledInstance(size, size,
-				Image.SCALE_DEFAULT);
+		Image image = SpriteCache.getDefault().getSprite("asteroids/resources/sphere.png", size);
 		return new ShipVisualization<>(Color.GREEN, enemy, image);
 	}
 
@@ -97,8 +123,7 @@ public class WorldView2<F extends IFacade> extends JPanel implements KeyListener
 		} catch (ModelException e) {
 			handleError(e);
 		}
-		Image image = ResourceUtils.loadImage("asteroids/resources/sphere.png").getScaledInstance(size, size,
-				Image.SCALE_DEFAULT);
+		Image image = SpriteCache.getDefault().getSprite("asteroids/resources/sphere.png", size);
 		assert image != null : "No player image!";
 		return new CompositeVisualization<>(player, //
 				new ShipVisualization<>(Color.WHITE, player, image),
@@ -134,11 +159,132 @@ public class WorldView2<F extends IFacade> extends JPanel implements KeyListener
 		g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 		g2d.drawImage(background, 0, 0, null);
 		g2d.setColor(Color.WHITE);
-		DrawContext<F> ctx = createDrawContext(g2d);
-		drawObjects(ctx);
+		SimulationLoop.Frame<Snapshot<F>> frame = simulation.getFrame();
+		if (frame != null) {
+			double alpha = frame.getAlpha();
+			moveCamera(frame, alpha);
+			Rectangle clip = g2d.getClipBounds();
+			Rectangle visible = (clip != null) ? clip : new Rectangle(0, 0, getWidth(), getHeight());
+			frame.getCurrent().draw(createDrawContext(g2d), frame.getPrevious(), alpha,
+					state -> getScreenBounds(state).intersects(visible));
+			paintedFrame = frame;
+			paintedAlpha = alpha;
+			paintedCameraX = cameraX;
+			paintedCameraY = cameraY;
+		}
 		drawMessage(g2d);
 	}
 
+	/**
+	 * Centers the camera on the player, at the given fraction of the way
+	 * between the two snapshots of the given frame, without showing anything
+	 * outside the world. The camera stays where it is if the player is not in
+	 * the world.
+	 */
+	private void moveCamera(SimulationLoop.Frame<Snapshot<F>> frame, double alpha) {
+		EntityState state = getPlayerState(frame, alpha);
+		if (state != null) {
+			cameraX = getCameraPosition(state.getX(), getWidth(), worldWidth);
+			cameraY = getCameraPosition(state.getY(), getHeight(), worldHeight);
+		}
+	}
+
+	private EntityState getPlayerState(SimulationLoop.Frame<Snapshot<F>> frame, double alpha) {
+		EntityState current = frame.getCurrent().getState(player);
+		EntityState previous = frame.getPrevious().getState(player);
+		if (current == null || previous == null) {
+			return current;
+		}
+		return previous.interpolate(current, alpha);
+	}
+
+	private static double getCameraPosition(double center, double viewSize, double worldSize) {
+		return Math.max(0, Math.min(center - viewSize / 2, worldSize - viewSize));
+	}
+
+	/**
+	 * Returns the region of the screen in which an entity in the given state
+	 * is drawn, including its direction line and the flame of its thruster.
+	 */
+	private Rectangle getScreenBounds(EntityState state) {
+		double x = state.getX() - cameraX;
+		double y = getHeight() - (state.getY() - cameraY);
+		double margin = state.getRadius() * 4 / 3 + 2;
+		int left = (int) Math.floor(x - margin), top = (int) Math.floor(y - margin);
+		return new Rectangle(left, top, (int) Math.ceil(x + margin) - left + 1, (int) Math.ceil(y + margin) - top + 1);
+	}
+
+	/**
+	 * Repaints the regions of the screen that change since the last paint. The
+	 * entities move between their states in the two snapshots of the latest
+	 * frame, so only those regions, and the regions repainted for the previous
+	 * frame, are dirty. Everything is repainted when the camera moves or when
+	 * the frame holds drawables whose extent is not known.
+	 */
+	private void repaintDirtyRegions() {
+		SimulationLoop.Frame<Snapshot<F>> frame = simulation.getFrame();
+		if (frame == null) {
+			return;
+		}
+		if (frame == paintedFrame && paintedAlpha >= 1) {
+			return;
+		}
+		double previousCameraX = cameraX, previousCameraY = cameraY;
+		moveCamera(frame, 0);
+		double startX = cameraX, startY = cameraY;
+		moveCamera(frame, 1);
+		boolean cameraMoves = startX != cameraX || startY != cameraY || cameraX != paintedCameraX
+				|| cameraY != paintedCameraY;
+		cameraX = previousCameraX;
+		cameraY = previousCameraY;
+		if (cameraMoves || msg != null || frame.getCurrent().hasDrawables() || frame.getPrevious().hasDrawables()) {
+			dirtyRegions.clear();
+			repaint();
+			return;
+		}
+		List<Rectangle> regions = new ArrayList<>();
+		for (EntityState state : frame.getPrevious().getStates()) {
+			regions.add(getScreenBounds(state));
+		}
+		for (EntityState state : frame.getCurrent().getStates()) {
+			regions.add(getScreenBounds(state));
+		}
+		for (Rectangle region : dirtyRegions) {
+			repaint(region);
+		}
+		for (Rectangle region : regions) {
+			repaint(region);
+		}
+		dirtyRegions = regions;
+	}
+
+	/**
+	 * Records the objects in the world into a snapshot, on the simulation
+	 * thread.
+	 */
+	private Snapshot<F> capture() {
+		Snapshot.Recorder<F> ctx = new Snapshot.Recorder<>(facade, this::handleError);
+		errorWhileDrawing = false;
+		drawObjects(ctx);
+		evictVisualizations();
+		return ctx.getSnapshot();
+	}
+
+	/**
+	 * Drops the visualizations of the objects that were not drawn in the last
+	 * frame, since they have left the world. The visualization of the player
+	 * is always kept. Nothing is dropped if drawing the frame failed, since
+	 * objects may then have been skipped.
+	 */
+	private void evictVisualizations() {
+		if (!errorWhileDrawing) {
+			if (player != null)
+				drawnObjects.add(player);
+			visualizations.keySet().retainAll(drawnObjects);
+		}
+		drawnObjects.clear();
+	}
+
 	private DrawContext<F> createDrawContext(Graphics2D g2d) {
 		return new DrawContext<F>() {
 
@@ -149,12 +295,12 @@ public class WorldView2<F extends IFacade> extends JPanel implements KeyListener
 
 			@Override
 			public double worldToScreenY(double y) {
-				return getHeight() - y;
+				return getHeight() - (y - cameraY);
 			}
 
 			@Override
 			public double worldToScreenX(double x) {
-				return x;
+				return x - cameraX;
 			}
 
 			@Override
@@ -183,7 +329,7 @@ public class WorldView2<F extends IFacade> extends JPanel implements KeyListener
 		drawShips(ctx);
 		drawBullets(ctx);
 		for (Explosion explosion : explosions) {
-			explosion.draw(ctx);
+			ctx.draw(explosion.copy()::draw);
 		}
 	}
 
@@ -226,6 +372,7 @@ public class WorldView2<F extends IFacade> extends JPanel implements KeyListener
 	}
 
 	protected void handleError(ModelException e) {
+		errorWhileDrawing = true;
 		game.handleError(e);
 	}
 
@@ -240,6 +387,7 @@ public class WorldView2<F extends IFacade> extends JPanel implements KeyListener
 		case KeyEvent.VK_ESCAPE:
 			System.out.println("exiting...");
 			timer.stop();
+			simulation.stop();
 			// game.showMenu();
 			System.exit(0);
 			break;
@@ -278,22 +426,24 @@ public class WorldView2<F extends IFacade> extends JPanel implements KeyListener
 
 	@Override
 	public void actionPerformed(ActionEvent e) {
-		long now = System.currentTimeMillis();
-		long millisSinceLastEvolve = now - timeAfterLastEvolve;
-		timeAfterLastEvolve = now;
+		repaintDirtyRegions();
+	}
 
-		doActions();
+	/**
+	 * Advances the game by the given time, on the simulation thread.
+	 */
+	private void step(double dt) {
+		doActions(dt);
 
-		evolveWorld(millisSinceLastEvolve);
+		evolveWorld(dt);
 
-		updateExplosions(millisSinceLastEvolve);
+		updateExplosions(dt);
 
 		checkGameOver();
-		repaint();
 	}
 
-	private void doActions() {
-		doTurn();
+	private void doActions(double dt) {
+		doTurn(dt);
 		doThrust();
 		doFire();
 	}
@@ -341,8 +491,8 @@ public class WorldView2<F extends IFacade> extends JPanel implements KeyListener
 		}
 	}
 
-	private void doTurn() {
-		double deltaAngle = this.deltaAngle;
+	private void doTurn(double dt) {
+		double deltaAngle = this.deltaAngle * dt / TURN_TIME;
 		if (!Double.isNaN(deltaAngle)) {
 			try {
 				if (deltaAngle != 0) {
@@ -355,19 +505,18 @@ public class WorldView2<F extends IFacade> extends JPanel implements KeyListener
 		}
 	}
 
-	private void evolveWorld(long millisSinceLastEvolve) {
+	private void evolveWorld(double dt) {
 		try {
-			millisSinceLastEvolve = Math.max(5, millisSinceLastEvolve);
-			facade.evolve(world, millisSinceLastEvolve / 1000., this);
+			facade.evolve(world, dt, this);
 		} catch (ModelException exc) {
 			handleError(exc);
 		}
 	}
 
-	private void updateExplosions(long millisSinceLastEvolve) {
+	private void updateExplosions(double dt) {
 		Iterator<Explosion> iter = explosions.iterator();
 		while (iter.hasNext()) {
-			boolean done = iter.next().evolve(millisSinceLastEvolve / 1000.);
+			boolean done = iter.next().evolve(dt);
 			if (done)
 				iter.remove();
 		}
@@ -388,13 +537,17 @@ public class WorldView2<F extends IFacade> extends JPanel implements KeyListener
 	}
 
 	protected void gameOver(String string) {
-		timer.stop();
+		simulation.stop();
 		msg = string;
+		SwingUtilities.invokeLater(() -> {
+			timer.stop();
+			repaint();
+		});
 	}
 
 	public void startGame() {
 		game.getSound().loop("game-theme");
-		timeAfterLastEvolve = System.currentTimeMillis();
+		simulation.start();
 		timer.start();
 	}
 
@@ -405,14 +558,10 @@ public class WorldView2<F extends IFacade> extends JPanel implements KeyListener
 
 	@Override
 	public void objectCollision(Object entity1, Object entity2, double x, double y) {
-		try {
-			if ((entity1 instanceof Bullet && !(entity2 instanceof Bullet))
-					|| (entity2 instanceof Bullet && !(entity1 instanceof Bullet))) {
-				game.getSound().play("explosion");
-				explosions.add(new Explosion(x, facade.getWorldSize(world)[1] - y));
-			}
-		} catch (ModelException exc) {
-			handleError(exc);
+		if ((entity1 instanceof Bullet && !(entity2 instanceof Bullet))
+				|| (entity2 instanceof Bullet && !(entity1 instanceof Bullet))) {
+			game.getSound().play("explosion");
+			explosions.add(new Explosion(x, y));
 		}
 	}
 
@@ -430,6 +579,7 @@ public class WorldView2<F extends IFacade> extends JPanel implements KeyListener
 
 	@SuppressWarnings("unchecked")
 	protected <T> Visualization<F, T> getOrCreateVisualization(T object, Function<T, Visualization<F, T>> creator) {
+		drawnObjects.add(object);
 		if (!visualizations.containsKey(object)) {
 			visualizations.put(object, creator.apply(object));
 		}
@@ -6,8 +6,8 @@ import java.awt.Image;
 import java.awt.geom.AffineTransform;
 
 import asteroids.model.Asteroid;
-import asteroids.model.World;
 import asteroids.part2.internal.DrawContext;
+import asteroids.part2.internal.EntityState;
 import asteroids.part2.internal.Visualization;
 import asteroids.part3.facade.IFacade;
 import asteroids.util.ModelException;
@@ -19,30 +19,28 @@ public class AsteroidVisualization extends Visualization<IFacade, Asteroid> {
 	}
 
 	@Override
-	public void draw(DrawContext<IFacade> ctx) {
-		IFacade facade = ctx.getFacade();
+	public EntityState capture(IFacade facade) throws ModelException {
+		if (facade.getAsteroidWorld(getObject()) == null) {
+			return null;
+		}
+		double[] xy = facade.getAsteroidPosition(getObject());
+		return new EntityState(xy[0], xy[1], facade.getAsteroidRadius(getObject()));
+	}
 
+	@Override
+	public void draw(DrawContext<IFacade> ctx, EntityState state) {
 		Graphics2D g2d = ctx.getGraphics();
-
-		try {
-			World world = facade.getAsteroidWorld(getObject());
-			if (world != null) {
-				double radius = facade.getAsteroidRadius(getObject());
-				double[] xy = facade.getAsteroidPosition(getObject());
-				xy[1] = facade.getWorldSize(world)[1] - xy[1];
-				double x = xy[0], y = xy[1];
-				if (getImage() == null) {
-					g2d.setColor(getColor());
-					g2d.drawOval((int) (x - radius), (int) (y - radius), (int) (2 * radius), (int) (2 * radius));
-				} else {
-					AffineTransform T = AffineTransform.getScaleInstance(2 * radius / getImage().getWidth(null),
-							2 * radius / getImage().getHeight(null));
-					T.preConcatenate(AffineTransform.getTranslateInstance(x - radius, y - radius));
-					g2d.drawImage(this.getImage(), T, null);
-				}
-			}
-		} catch (ModelException e) {
-			ctx.handleError(e);
+		double radius = state.getRadius();
+		double x = ctx.worldToScreenX(state.getX());
+		double y = ctx.worldToScreenY(state.getY());
+		if (getImage() == null) {
+			g2d.setColor(getColor());
+			g2d.drawOval((int) (x - radius), (int) (y - radius), (int) (2 * radius), (int) (2 * radius));
+		} else {
+			AffineTransform T = AffineTransform.getScaleInstance(2 * radius / getImage().getWidth(null),
+					2 * radius / getImage().getHeight(null));
+			T.preConcatenate(AffineTransform.getTranslateInstance(x - radius, y - radius));
+			g2d.drawImage(this.getImage(), T, null);
 		}
 	}
 }
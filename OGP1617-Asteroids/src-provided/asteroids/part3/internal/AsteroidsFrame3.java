@@ -19,9 +19,8 @@ import asteroids.part2.internal.FileSoundManager;
 import asteroids.part2.internal.NullSound;
 import asteroids.part2.internal.Sound;
 import asteroids.part3.facade.IFacade;
-import asteroids.part3.programs.IProgramFactory;
+import asteroids.part3.programs.ProgramCache;
 import asteroids.part3.programs.internal.ParseOutcome;
-import asteroids.part3.programs.internal.ProgramParser;
 import asteroids.util.ModelException;
 
 @SuppressWarnings("serial")
@@ -29,6 +28,8 @@ public class AsteroidsFrame3 extends AsteroidsFrame2<IFacade> {
 
 	private URL aiProgramUrl;
 
+	private ProgramCache<Program> programCache;
+
 	public AsteroidsFrame3(IFacade facade, int width, int height, boolean undecorated, Sound sound, URL aiProgramUrl) {
 		super(facade, width, height, undecorated, sound);
 		if (aiProgramUrl == null) {
@@ -151,10 +152,12 @@ public class AsteroidsFrame3 extends AsteroidsFrame2<IFacade> {
 		}
 
 		try {
-			ParseOutcome<? extends Program> parseOutcome;
+			ParseOutcome<Program> parseOutcome;
 			try {
-				IProgramFactory<?, ?, ?, ? extends Program> programFactory = facade.createProgramFactory();
-				parseOutcome = ProgramParser.create(programFactory).parseFile(aiProgramUrl);
+				if (programCache == null) {
+					programCache = new ProgramCache<>(facade.createProgramFactory(), Program::instantiate, 16);
+				}
+				parseOutcome = programCache.parseFile(aiProgramUrl);
 			} catch (IOException e) {
 				System.err.println(e.getMessage());
 				getSound().play("load-error");
@@ -0,0 +1,271 @@
+package asteroids.part3.internal;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import javax.imageio.ImageIO;
+
+import asteroids.model.Asteroid;
+import asteroids.model.Bullet;
+import asteroids.model.Planetoid;
+import asteroids.model.Ship;
+import asteroids.model.World;
+import asteroids.part2.internal.BulletVisualization;
+import asteroids.part2.internal.DrawContext;
+import asteroids.part2.internal.ShipVisualization;
+import asteroids.part2.internal.Visualization;
+import asteroids.part3.facade.IFacade;
+import asteroids.util.ModelException;
+import asteroids.util.internal.ResourceUtils;
+import asteroids.util.internal.SpriteCache;
+
+/**
+ * Renders a world into an image, without a window, using the same
+ * visualizations as {@link WorldView3}.
+ *
+ * The whole world is scaled to the size of the image, so a small image gives a
+ * thumbnail of a large world. The image is reused for every frame: the image
+ * returned by {@link #render()} is overwritten by the next frame.
+ *
+ * Frames can be exported as a sequence of PNG files or as a stream of raw RGB
+ * bytes (3 bytes per pixel, row by row), advancing the world by a fixed time
+ * step between frames. Before every step, the programs of the ships in the
+ * world are executed for that time step.
+ *
+ * Nothing in this class needs a screen, so it can run with
+ * <code>-Djava.awt.headless=true</code>. A renderer is not thread-safe.
+ */
+public class OffscreenRenderer {
+
+	private static final Color[] SHIP_COLORS = { Color.RED, Color.GREEN, Color.CYAN, Color.MAGENTA, Color.ORANGE,
+			Color.YELLOW };
+
+	private final IFacade facade;
+	private final World world;
+	private final double worldWidth, worldHeight;
+	private final BufferedImage image;
+	private final BufferedImage background;
+	private final Map<Object, Visualization<IFacade, ?>> visualizations = new HashMap<>();
+	private final Set<Object> drawnObjects = new HashSet<>();
+	private int shipCount = 0;
+	private byte[] rgb;
+	private ModelException error;
+
+	public OffscreenRenderer(IFacade facade, World world, int width, int height) throws ModelException {
+		if (facade == null || world == null)
+			throw new NullPointerException();
+		if (width < 1 || height < 1)
+			throw new IllegalArgumentException("Image size must be positive");
+		this.facade = facade;
+		this.world = world;
+		double[] size = facade.getWorldSize(world);
+		this.worldWidth = size[0];
+		this.worldHeight = size[1];
+		this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		this.background = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g2d = background.createGraphics();
+		g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		g2d.drawImage(ResourceUtils.loadImage("asteroids/resources/game-background.jpg"), 0, 0, width, height, null);
+		g2d.dispose();
+	}
+
+	public World getWorld() {
+		return world;
+	}
+
+	/**
+	 * Draws the current state of the world and returns the image it was drawn
+	 * in.
+	 */
+	public BufferedImage render() throws ModelException {
+		error = null;
+		boolean complete = false;
+		Graphics2D g2d = image.createGraphics();
+		try {
+			g2d.drawImage(background, 0, 0, null);
+			g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+			g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			g2d.scale(image.getWidth() / worldWidth, image.getHeight() / worldHeight);
+			g2d.setColor(Color.WHITE);
+			DrawContext<IFacade> ctx = createDrawContext(g2d);
+			for (Ship ship : facade.getWorldShips(world))
+				getOrCreateVisualization(ship, this::createShipVisualization).draw(ctx);
+			for (Bullet bullet : facade.getWorldBullets(world))
+				getOrCreateVisualization(bullet, this::createBulletVisualization).draw(ctx);
+			for (Asteroid asteroid : facade.getWorldAsteroids(world))
+				getOrCreateVisualization(asteroid, this::createAsteroidVisualization).draw(ctx);
+			for (Planetoid planetoid : facade.getWorldPlanetoids(world))
+				getOrCreateVisualization(planetoid, this::createPlanetoidVisualization).draw(ctx);
+			complete = true;
+		} finally {
+			g2d.dispose();
+			// Only a complete frame tells which visualizations are no longer needed.
+			if (complete)
+				visualizations.keySet().retainAll(drawnObjects);
+			drawnObjects.clear();
+		}
+		if (error != null)
+			throw error;
+		return image;
+	}
+
+	/**
+	 * Executes the programs of the ships in the world for the given time, and
+	 * then evolves the world for that time.
+	 */
+	public void step(double dt) throws ModelException {
+		for (Ship ship : facade.getWorldShips(world))
+			if (facade.getShipProgram(ship) != null)
+				facade.executeProgram(ship, dt);
+		facade.evolve(world, dt, null);
+	}
+
+	/**
+	 * Renders the given number of frames, with the given time step between
+	 * them, into PNG files named prefix00000.png, prefix00001.png, ... in the
+	 * given directory.
+	 */
+	public void writePngSequence(Path directory, String prefix, int frames, double dt)
+			throws IOException, ModelException {
+		Files.createDirectories(directory);
+		for (int frame = 0; frame < frames; frame++) {
+			if (frame > 0)
+				step(dt);
+			Path file = directory.resolve(String.format("%s%05d.png", prefix, frame));
+			if (!ImageIO.write(render(), "png", file.toFile()))
+				throw new IOException("No PNG writer available");
+		}
+	}
+
+	/**
+	 * Renders the given number of frames, with the given time step between
+	 * them, to the given stream as raw RGB bytes. The stream is not closed.
+	 */
+	public void writeRgbStream(OutputStream out, int frames, double dt) throws IOException, ModelException {
+		for (int frame = 0; frame < frames; frame++) {
+			if (frame > 0)
+				step(dt);
+			out.write(toRgb(render()));
+		}
+		out.flush();
+	}
+
+	private byte[] toRgb(BufferedImage image) {
+		int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+		if (rgb == null)
+			rgb = new byte[3 * pixels.length];
+		for (int i = 0, j = 0; i < pixels.length; i++) {
+			int pixel = pixels[i];
+			rgb[j++] = (byte) (pixel >> 16);
+			rgb[j++] = (byte) (pixel >> 8);
+			rgb[j++] = (byte) pixel;
+		}
+		return rgb;
+	}
+
+	private DrawContext<IFacade> createDrawContext(Graphics2D g2d) {
+		return new DrawContext<IFacade>() {
+
+			@Override
+			public Graphics2D getGraphics() {
+				return g2d;
+			}
+
+			@Override
+			public IFacade getFacade() {
+				return facade;
+			}
+
+			@Override
+			public double worldToScreenX(double x) {
+				return x;
+			}
+
+			@Override
+			public double worldToScreenY(double y) {
+				return worldHeight - y;
+			}
+
+			@Override
+			public void handleError(ModelException e) {
+				if (error == null)
+					error = e;
+			}
+		};
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> Visualization<IFacade, T> getOrCreateVisualization(T object,
+			Function<T, Visualization<IFacade, T>> creator) {
+		drawnObjects.add(object);
+		if (!visualizations.containsKey(object)) {
+			visualizations.put(object, creator.apply(object));
+		}
+		return (Visualization<IFacade, T>) visualizations.get(object);
+	}
+
+	private Visualization<IFacade, Ship> createShipVisualization(Ship ship) {
+		Color color = SHIP_COLORS[shipCount++ % SHIP_COLORS.length];
+		double radius = 1;
+		try {
+			radius = facade.getShipRadius(ship);
+		} catch (ModelException e) {
+			error = e;
+		}
+		return new ShipVisualization<>(color, ship, getSprite("asteroids/resources/sphere.png", radius));
+	}
+
+	private Visualization<IFacade, Bullet> createBulletVisualization(Bullet bullet) {
+		Color color = Color.RED;
+		try {
+			Visualization<IFacade, ?> source = visualizations.get(facade.getBulletSource(bullet));
+			if (source != null)
+				color = source.getColor();
+		} catch (ModelException e) {
+			error = e;
+		}
+		return new BulletVisualization<>(color, bullet);
+	}
+
+	private Visualization<IFacade, Asteroid> createAsteroidVisualization(Asteroid asteroid) {
+		double radius = 1;
+		try {
+			radius = facade.getAsteroidRadius(asteroid);
+		} catch (ModelException e) {
+			error = e;
+		}
+		return new AsteroidVisualization(asteroid, getSprite("asteroids/resources/asteroid1.png", radius));
+	}
+
+	private Visualization<IFacade, Planetoid> createPlanetoidVisualization(Planetoid planetoid) {
+		double radius = 1;
+		try {
+			radius = facade.getPlanetoidRadius(planetoid);
+		} catch (ModelException e) {
+			error = e;
+		}
+		return new PlanetoidVisualization(planetoid, getSprite("asteroids/resources/deathstar.png", radius));
+	}
+
+	/**
+	 * Returns the sprite with the given name at the size in the image of an
+	 * entity with the given radius.
+	 */
+	private Image getSprite(String filename, double radius) {
+		int size = (int) Math.ceil(2 * radius * image.getWidth() / worldWidth);
+		return SpriteCache.getDefault().getSprite(filename, Math.max(1, size));
+	}
+}
@@ -13,7 +13,7 @@ import asteroids.part2.internal.Visualization;
 import asteroids.part2.internal.WorldView2;
 import asteroids.part3.facade.IFacade;
 import asteroids.util.ModelException;
-import asteroids.util.internal.ResourceUtils;
+import asteroids.util.internal.SpriteCache;
 
 @SuppressWarnings("serial")
 public class WorldView3 extends WorldView2<IFacade> {
@@ -79,8 +79,7 @@ public class WorldView3 extends WorldView2<IFacade> {
 		} catch (ModelException e) {
 			handleError(e);
 		}
-		Image image = ResourceUtils.loadImage("asteroids/resources/asteroid1.png").getScaledInstance(size, size,
-				Image.SCALE_DEFAULT);
+		Image image = SpriteCache.getDefault().getSprite("asteroids/resources/asteroid1.png", size);
 		return new AsteroidVisualization(asteroid, image);
 	}
 	
@@ -103,8 +102,7 @@ public class WorldView3 extends WorldView2<IFacade> {
 		} catch (ModelException e) {
 			handleError(e);
 		}
-		Image image = ResourceUtils.loadImage("asteroids/resources/deathstar.png").getScaledInstance(size, size,
-				Image.SCALE_DEFAULT);
+		Image image = SpriteCache.getDefault().getSprite("asteroids/resources/deathstar.png", size);
 		return new PlanetoidVisualization(planetoid, image);
 	}
 
@@ -0,0 +1,161 @@
+package asteroids.part3.programs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+import asteroids.part3.programs.internal.ParseOutcome;
+import asteroids.part3.programs.internal.ProgramParser;
+import asteroids.util.internal.ResourceUtils;
+
+/**
+ * Cache of parsed Asteroids programs, keyed by the SHA-256 hash of their
+ * source text.
+ *
+ * The first time a source is seen, it is parsed with a {@link ProgramParser}
+ * and the resulting program is kept as a template. The template itself is
+ * never handed out: every lookup returns a fresh instance created from the
+ * template by the given instantiator, so that every ship gets its own program
+ * state while the parsed and compiled code is shared.
+ *
+ * Failed parses are not cached. When the cache is full, the least recently
+ * used template is evicted.
+ *
+ * <pre>
+ * <code>
+ * ProgramCache&lt;Program&gt; cache = new ProgramCache&lt;&gt;(factory, Program::instantiate, 16);
+ * ParseOutcome&lt;Program&gt; outcome = cache.parseFile(url);
+ * </code>
+ * </pre>
+ *
+ * This class is thread-safe.
+ *
+ * @param P
+ *            The type of Program
+ */
+public class ProgramCache<P> {
+
+	private final IProgramFactory<?, ?, ?, ? extends P> factory;
+
+	private final UnaryOperator<P> instantiator;
+
+	private final int capacity;
+
+	private final Map<String, P> templates;
+
+	private long hits = 0, misses = 0;
+
+	/**
+	 * Create a new cache holding at most the given number of templates.
+	 *
+	 * @param factory
+	 *            The factory used to parse programs
+	 * @param instantiator
+	 *            Creates a new instance of a template
+	 * @param capacity
+	 *            The maximum number of templates in the cache
+	 */
+	public ProgramCache(IProgramFactory<?, ?, ?, ? extends P> factory, UnaryOperator<P> instantiator, int capacity) {
+		if (factory == null || instantiator == null)
+			throw new NullPointerException();
+		if (capacity < 1)
+			throw new IllegalArgumentException("Capacity must be positive");
+		this.factory = factory;
+		this.instantiator = instantiator;
+		this.capacity = capacity;
+		this.templates = new LinkedHashMap<String, P>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, P> eldest) {
+				return size() > ProgramCache.this.capacity;
+			}
+		};
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public synchronized int size() {
+		return templates.size();
+	}
+
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	public synchronized void clear() {
+		templates.clear();
+	}
+
+	/**
+	 * Returns a new instance of the program with the given source text, or the
+	 * parse errors if the text could not be parsed.
+	 */
+	public ParseOutcome<P> parseString(String text) {
+		String key = hash(text);
+		P template = lookup(key);
+		if (template == null) {
+			ParseOutcome<? extends P> outcome = ProgramParser.create(factory).parseString(text);
+			if (outcome.isFail())
+				return ParseOutcome.failure(outcome.getFailValue());
+			template = store(key, outcome.getSuccessValue());
+		}
+		return ParseOutcome.success(instantiator.apply(template));
+	}
+
+	/**
+	 * Returns a new instance of the program in the file with the given URL, or
+	 * the parse errors if the file could not be parsed.
+	 */
+	public ParseOutcome<P> parseFile(URL url) throws IOException {
+		try (InputStream stream = ResourceUtils.openResource(url)) {
+			return parseString(new String(stream.readAllBytes(), StandardCharsets.UTF_8));
+		}
+	}
+
+	/**
+	 * Returns a new instance of the program in the file with the given name,
+	 * or the parse errors if the file could not be parsed.
+	 */
+	public ParseOutcome<P> parseFile(String filename) throws IOException {
+		return parseFile(ResourceUtils.toURL(filename));
+	}
+
+	private synchronized P lookup(String key) {
+		P template = templates.get(key);
+		if (template != null)
+			hits++;
+		else
+			misses++;
+		return template;
+	}
+
+	private synchronized P store(String key, P template) {
+		P present = templates.putIfAbsent(key, template);
+		return (present != null) ? present : template;
+	}
+
+	private static String hash(String text) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+			StringBuilder result = new StringBuilder(2 * digest.length);
+			for (byte b : digest)
+				result.append(String.format("%02x", b));
+			return result.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
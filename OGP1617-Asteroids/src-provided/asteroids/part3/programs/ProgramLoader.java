@@ -0,0 +1,164 @@
+package asteroids.part3.programs;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import asteroids.part3.programs.internal.ParseOutcome;
+import asteroids.part3.programs.internal.ProgramParser;
+
+/**
+ * Thread-safe loader that parses many program files in parallel.
+ *
+ * Every worker thread of the loader has its own batch
+ * {@link ProgramParser}, and with it its own lexer and parser; the ATN and
+ * DFA caches of the generated parser are static and shared by all of them.
+ * The factory must be safe to use from several threads at once.
+ *
+ * <pre>
+ * <code>
+ * try (ProgramLoader&lt;Program&gt; loader = new ProgramLoader&lt;&gt;(factory, 4)) {
+ *     loader.loadDirectory(Paths.get("programs")).forEach(result -&gt; ...);
+ * }
+ * </code>
+ * </pre>
+ *
+ * Results are streamed in the order in which the files are parsed, not in the
+ * order of the files. Files that cannot be read result in a failed
+ * outcome with the error message of the exception.
+ *
+ * @param P
+ *            The type of Program
+ */
+public class ProgramLoader<P> implements AutoCloseable {
+
+	private final ExecutorService executor;
+
+	private final ThreadLocal<ProgramParser<?, ?, ?, ? extends P>> parsers;
+
+	/**
+	 * Create a new loader with the given number of worker threads.
+	 *
+	 * @param factory
+	 *            The factory used to parse programs
+	 * @param threads
+	 *            The number of worker threads
+	 */
+	public ProgramLoader(IProgramFactory<?, ?, ?, ? extends P> factory, int threads) {
+		if (factory == null)
+			throw new NullPointerException();
+		if (threads < 1)
+			throw new IllegalArgumentException("Number of threads must be positive");
+		this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "program-loader");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.parsers = ThreadLocal.withInitial(() -> ProgramParser.createBatch(factory));
+	}
+
+	/**
+	 * Parses the files with the given paths in parallel, and returns the
+	 * results as they complete.
+	 */
+	public Stream<Result<P>> load(List<Path> paths) {
+		CompletionService<Result<P>> completion = new ExecutorCompletionService<>(executor);
+		for (Path path : paths) {
+			completion.submit(() -> parse(path));
+		}
+		return Stream.generate(() -> take(completion)).limit(paths.size());
+	}
+
+	/**
+	 * Parses the regular files in the given directory in parallel, and returns
+	 * the results as they complete.
+	 */
+	public Stream<Result<P>> loadDirectory(Path directory) throws IOException {
+		List<Path> paths;
+		try (Stream<Path> files = Files.list(directory)) {
+			paths = files.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+		}
+		return load(paths);
+	}
+
+	private Result<P> parse(Path path) {
+		long start = System.nanoTime();
+		ParseOutcome<P> outcome;
+		try {
+			String text = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+			ParseOutcome<? extends P> parsed = parsers.get().parseString(text);
+			outcome = parsed.isSuccess() ? ParseOutcome.success(parsed.getSuccessValue())
+					: ParseOutcome.failure(parsed.getFailValue());
+		} catch (IOException e) {
+			outcome = ParseOutcome.failure(Collections.singletonList(e.toString()));
+		}
+		return new Result<>(path, outcome, System.nanoTime() - start);
+	}
+
+	private static <P> Result<P> take(CompletionService<Result<P>> completion) {
+		try {
+			return completion.take().get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while loading programs", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * Stops the worker threads of this loader.
+	 */
+	@Override
+	public void close() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * The result of parsing one file.
+	 */
+	public static class Result<P> {
+
+		private final Path path;
+
+		private final ParseOutcome<P> outcome;
+
+		private final long latency;
+
+		private Result(Path path, ParseOutcome<P> outcome, long latency) {
+			this.path = path;
+			this.outcome = outcome;
+			this.latency = latency;
+		}
+
+		public Path getPath() {
+			return path;
+		}
+
+		public ParseOutcome<P> getOutcome() {
+			return outcome;
+		}
+
+		/**
+		 * Returns the time it took to read and parse the file, in nanoseconds.
+		 */
+		public long getLatency() {
+			return latency;
+		}
+
+		@Override
+		public String toString() {
+			return path + " (" + latency / 1000 + " us): " + outcome;
+		}
+	}
+}
@@ -6,12 +6,16 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import org.antlr.v4.runtime.BailErrorStrategy;
 import org.antlr.v4.runtime.BaseErrorListener;
 import org.antlr.v4.runtime.CharStream;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
 import org.antlr.v4.runtime.RecognitionException;
 import org.antlr.v4.runtime.Recognizer;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 
 import asteroids.model.Program;
 import asteroids.part3.programs.IProgramFactory;
@@ -58,6 +62,14 @@ import asteroids.util.internal.ResourceUtils;
  * false and <code>parser.getErrors()</code> can be used to retrieve the list of
  * errors during parsing.
  * 
+ * To parse many programs in a row, create a parser in batch mode with
+ * {@link #createBatch(IProgramFactory)}. A batch parser reuses its lexer and
+ * parser for every program, and first parses with SLL prediction, bailing out
+ * at the first syntax error; only programs that fail this way are parsed again
+ * with full LL prediction, which reports the errors. The DFA cache of the
+ * generated parser is static, so it is shared by all parsers and warms up over
+ * a batch. A parser is not thread-safe, in batch mode or not.
+ * 
  *
  * @param E
  *            The type of expressions
@@ -74,8 +86,33 @@ public class ProgramParser<E, S, F, P> {
 
 	private final List<String> errors = new ArrayList<>();
 
+	private final BaseErrorListener errorListener = new BaseErrorListener() {
+		@Override
+		public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line,
+				int charPositionInLine, String msg, RecognitionException e) {
+			errors.add(msg + " (" + line + ", " + charPositionInLine + ")");
+		}
+	};
+
+	private final boolean batch;
+
+	private AsteroidsProgramLexer lexer;
+
+	private CommonTokenStream tokens;
+
+	private AsteroidsProgramParser parser;
+
 	protected ProgramParser(IProgramFactory<E, S, F, P> factory) {
+		this(factory, false);
+	}
+
+	protected ProgramParser(IProgramFactory<E, S, F, P> factory, boolean batch) {
 		this.factory = factory;
+		this.batch = batch;
+	}
+
+	public boolean isBatch() {
+		return batch;
 	}
 
 	public IProgramFactory<E, S, F, P> getFactory() {
@@ -132,18 +169,9 @@ public class ProgramParser<E, S, F, P> {
 	protected ParseOutcome<P> parse(CharStream input) {
 		reset();
 
-		AsteroidsProgramLexer lexer = new AsteroidsProgramLexer(input);
-		AsteroidsProgramParser parser = new AsteroidsProgramParser(new CommonTokenStream(lexer));
-		parser.addErrorListener(new BaseErrorListener() {
-			@Override
-			public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line,
-					int charPositionInLine, String msg, RecognitionException e) {
-				errors.add(msg + " (" + line + ", " + charPositionInLine + ")");
-			}
-		});
 		ParserVisitor<E, S, F, P> visitor = new ParserVisitor<>(factory);
 		try {
-			visitor.visitProgram(parser.program());
+			visitor.visitProgram(batch ? parseBatch(input) : parseSingle(input));
 			if (errors.isEmpty()) {
 			  assert visitor.getMain() != null;
 				P program = factory.createProgram(visitor.getFunctions(),visitor.getMain());
@@ -156,7 +184,39 @@ public class ProgramParser<E, S, F, P> {
 			e.printStackTrace();
 			errors.add(e.toString());
 		}
-		return ParseOutcome.failure(errors);
+		return ParseOutcome.failure(new ArrayList<>(errors));
+	}
+
+	private AsteroidsProgramParser.ProgramContext parseSingle(CharStream input) {
+		AsteroidsProgramLexer lexer = new AsteroidsProgramLexer(input);
+		AsteroidsProgramParser parser = new AsteroidsProgramParser(new CommonTokenStream(lexer));
+		parser.addErrorListener(errorListener);
+		return parser.program();
+	}
+
+	private AsteroidsProgramParser.ProgramContext parseBatch(CharStream input) {
+		if (lexer == null) {
+			lexer = new AsteroidsProgramLexer(input);
+			tokens = new CommonTokenStream(lexer);
+			parser = new AsteroidsProgramParser(tokens);
+		} else {
+			lexer.setInputStream(input);
+			tokens.setTokenSource(lexer);
+			parser.setTokenStream(tokens);
+		}
+		parser.removeErrorListeners();
+		parser.setErrorHandler(new BailErrorStrategy());
+		parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+		try {
+			return parser.program();
+		} catch (ParseCancellationException e) {
+			tokens.seek(0);
+			parser.reset();
+			parser.addErrorListener(errorListener);
+			parser.setErrorHandler(new DefaultErrorStrategy());
+			parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+			return parser.program();
+		}
 	}
 
 	protected void reset() {
@@ -177,6 +237,16 @@ public class ProgramParser<E, S, F, P> {
 		return new ProgramParser<>(factory);
 	}
 
+	/**
+	 * Create a new parser in batch mode from the given factory.
+	 * 
+	 * @param factory
+	 * @return
+	 */
+	public static <E, S, T, P> ProgramParser<E, S, T, P> createBatch(IProgramFactory<E, S, T, P> factory) {
+		return new ProgramParser<>(factory, true);
+	}
+
 	/**
 	 * Parse program text using the given factory.
 	 * 
@@ -0,0 +1,147 @@
+package asteroids.util.internal;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of the images of sprites, shared by all views.
+ *
+ * Every image resource is decoded only once. Scaled variants are created for
+ * size buckets rather than for exact sizes: a requested size is rounded up to
+ * the next of four steps per doubling, so that entities of nearly the same
+ * size share one variant. Variants are drawn once into images compatible with
+ * the screen, if there is one, so that drawing them is cheap; views are
+ * expected to scale them to the exact size of the entity when drawing them.
+ *
+ * The number of scaled variants is bounded; the least recently used variant is
+ * evicted first. This class is thread-safe.
+ */
+public class SpriteCache {
+
+	private static final SpriteCache DEFAULT = new SpriteCache(64);
+
+	/**
+	 * Returns the cache shared by all views.
+	 */
+	public static SpriteCache getDefault() {
+		return DEFAULT;
+	}
+
+	private final int capacity;
+
+	private final Map<String, BufferedImage> originals = new HashMap<>();
+
+	private final Map<String, BufferedImage> variants;
+
+	public SpriteCache(int capacity) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("Capacity must be positive");
+		this.capacity = capacity;
+		this.variants = new LinkedHashMap<String, BufferedImage>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, BufferedImage> eldest) {
+				return size() > SpriteCache.this.capacity;
+			}
+		};
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public synchronized int size() {
+		return variants.size();
+	}
+
+	/**
+	 * Returns the image resource with the given name, scaled to the bucket of
+	 * the given size. The image is square if the resource is square.
+	 */
+	public synchronized BufferedImage getSprite(String filename, int size) {
+		int bucket = getBucket(size);
+		String key = filename + "@" + bucket;
+		BufferedImage variant = variants.get(key);
+		if (variant == null) {
+			variant = scale(getOriginal(filename), bucket);
+			variants.put(key, variant);
+		}
+		return variant;
+	}
+
+	/**
+	 * Returns the size of the bucket to which the given size belongs: the
+	 * smallest size of at least 8 pixels, and at least the given size, that is
+	 * a multiple of a quarter of the largest power of two not above it.
+	 */
+	public static int getBucket(int size) {
+		if (size <= 8)
+			return 8;
+		int step = Integer.highestOneBit(size) / 4;
+		return (size + step - 1) / step * step;
+	}
+
+	private BufferedImage getOriginal(String filename) {
+		BufferedImage original = originals.get(filename);
+		if (original == null) {
+			original = toBufferedImage(ResourceUtils.loadImage(filename));
+			originals.put(filename, original);
+		}
+		return original;
+	}
+
+	private static BufferedImage toBufferedImage(Image image) {
+		if (image instanceof BufferedImage)
+			return (BufferedImage) image;
+		BufferedImage result = new BufferedImage(image.getWidth(null), image.getHeight(null),
+				BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g2d = result.createGraphics();
+		g2d.drawImage(image, 0, 0, null);
+		g2d.dispose();
+		return result;
+	}
+
+	/**
+	 * Scales the given image to the given width, keeping its aspect ratio, by
+	 * halving it while it is more than twice as large, so that downscaling with
+	 * bilinear interpolation does not skip pixels.
+	 */
+	private static BufferedImage scale(BufferedImage image, int width) {
+		int height = Math.max(1, (int) Math.round((double) width * image.getHeight() / image.getWidth()));
+		BufferedImage current = image;
+		while (current.getWidth() / 2 >= width && current.getHeight() / 2 >= height) {
+			current = draw(current, current.getWidth() / 2, current.getHeight() / 2, false);
+		}
+		return draw(current, width, height, true);
+	}
+
+	private static BufferedImage draw(BufferedImage image, int width, int height, boolean compatible) {
+		BufferedImage result = compatible ? createCompatibleImage(width, height)
+				: new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g2d = result.createGraphics();
+		g2d.setComposite(AlphaComposite.Src);
+		g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		g2d.drawImage(image, 0, 0, width, height, null);
+		g2d.dispose();
+		return result;
+	}
+
+	private static BufferedImage createCompatibleImage(int width, int height) {
+		if (!GraphicsEnvironment.isHeadless()) {
+			GraphicsConfiguration configuration = GraphicsEnvironment.getLocalGraphicsEnvironment()
+					.getDefaultScreenDevice().getDefaultConfiguration();
+			return configuration.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+		}
+		return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+	}
+}
@@ -0,0 +1,418 @@
+package asteroids.bytecode;
+
+import static asteroids.bytecode.Opcodes.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import asteroids.expressions.*;
+import asteroids.model.Function;
+import asteroids.statements.*;
+
+/**
+ * A class of assemblers, translating the main statement and the functions of a program into bytecode.
+ * Only programs that are well typed are assembled, so the shape of the program is not checked again; values whose
+ * type is only known while the program runs are still checked by the machine.
+ *
+ * @version 3.0
+ * @author Bernardo Saniz, Elien Vlaeyen
+ */
+public class Assembler {
+
+	/**
+	 * Initializes this assembler for a program with the given functions.
+	 *
+	 * @param functions
+	 *  The functions of the program, mapped to their names
+	 */
+	public Assembler(Map<String, Function> functions) {
+		this.functions = new ArrayList<Function>(functions.values());
+		for (int i = 0; i < this.functions.size(); i++)
+			this.functionindices.put(this.functions.get(i).getName(), i);
+	}
+
+	/**
+	 * The functions of the program
+	 */
+	private final List<Function> functions;
+
+	/**
+	 * The indices of the functions of the program, mapped to their names
+	 */
+	private final Map<String, Integer> functionindices = new HashMap<String, Integer>();
+
+	/**
+	 * The indices of the global variables, mapped to their names
+	 */
+	private final Map<String, Integer> globals = new HashMap<String, Integer>();
+
+	/**
+	 * The indices of the local variables of the function being assembled, null for the main statement
+	 */
+	private Map<String, Integer> locals;
+
+	private int[] code = new int[64];
+
+	private int size = 0;
+
+	private double[] constants = new double[8];
+
+	private int nbconstants = 0;
+
+	private final List<EntityExpression<?>> entities = new ArrayList<EntityExpression<?>>();
+
+	private final List<Integer> statements = new ArrayList<Integer>();
+
+	private final Map<Integer, Integer> breaktargets = new HashMap<Integer, Integer>();
+
+	/**
+	 * The number of values on the operand stack at the current instruction, and the largest such number so far
+	 */
+	private int depth, maxdepth;
+
+	/**
+	 * The loops around the current instruction, innermost first
+	 */
+	private final Deque<Loop> loops = new ArrayDeque<Loop>();
+
+	/**
+	 * A class of loops being assembled, collecting the instructions that continue after the loop.
+	 */
+	private static class Loop {
+
+		/**
+		 * The operands of the JUMP instructions of the break statements of this loop
+		 */
+		private final List<Integer> breaks = new ArrayList<Integer>();
+
+		/**
+		 * The CALL instructions in this loop
+		 */
+		private final List<Integer> calls = new ArrayList<Integer>();
+
+	}
+
+	/**
+	 * Returns the bytecode of a program with the given main statement and the functions of this assembler.
+	 *
+	 * @param main
+	 *  The main statement of the program
+	 */
+	public Bytecode assemble(Statement main) {
+		int nbfunctions = this.functions.size();
+		int[] entries = new int[nbfunctions];
+		int[] nblocals = new int[nbfunctions];
+		int[] depths = new int[nbfunctions + 1];
+		this.locals = null;
+		this.depth = this.maxdepth = 0;
+		this.statement(main);
+		this.emit(HALT, 0);
+		depths[nbfunctions] = this.maxdepth;
+		for (int i = 0; i < nbfunctions; i++) {
+			this.locals = new HashMap<String, Integer>();
+			this.depth = this.maxdepth = 0;
+			entries[i] = this.size;
+			this.body(this.functions.get(i).getBody());
+			nblocals[i] = this.locals.size();
+			depths[i] = this.maxdepth;
+		}
+		int[] targets = new int[this.size];
+		Arrays.fill(targets, -1);
+		for (Map.Entry<Integer, Integer> entry : this.breaktargets.entrySet())
+			targets[entry.getKey()] = entry.getValue();
+		int[] starts = new int[this.statements.size()];
+		for (int i = 0; i < starts.length; i++)
+			starts[i] = this.statements.get(i);
+		return new Bytecode(Arrays.copyOf(this.code, this.size), Arrays.copyOf(this.constants, this.nbconstants),
+				this.entities.toArray(new EntityExpression<?>[this.entities.size()]),
+				entries, nblocals, depths,
+				this.globals.size(), targets, starts);
+	}
+
+	private boolean isInFunction() {
+		return this.locals != null;
+	}
+
+	private int emit(int value) {
+		if (this.size == this.code.length)
+			this.code = Arrays.copyOf(this.code, 2 * this.size);
+		this.code[this.size] = value;
+		return this.size++;
+	}
+
+	/**
+	 * Adds an instruction with the given opcode, which changes the number of values on the operand stack by the
+	 * given effect, and returns its index.
+	 */
+	private int emit(int opcode, int effect) {
+		this.depth += effect;
+		this.maxdepth = Math.max(this.maxdepth, this.depth);
+		return this.emit(opcode);
+	}
+
+	private int global(String name) {
+		Integer index = this.globals.get(name);
+		if (index == null) {
+			index = this.globals.size();
+			this.globals.put(name, index);
+		}
+		return index;
+	}
+
+	private int local(String name) {
+		Integer index = this.locals.get(name);
+		if (index == null) {
+			index = this.locals.size();
+			this.locals.put(name, index);
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the index of the entity expression of the same class as the given expression, adding the given
+	 * expression if there is none yet. Expressions of the same class find the same entity, so they share a slot in
+	 * the query cache of the program.
+	 */
+	private int entity(EntityExpression<?> expression) {
+		for (int i = 0; i < this.entities.size(); i++)
+			if (this.entities.get(i).getClass() == expression.getClass())
+				return i;
+		this.entities.add(expression);
+		return this.entities.size() - 1;
+	}
+
+	private void expression(Expression<?> expression) {
+		if (expression instanceof DoubleLiteralExpression) {
+			if (this.nbconstants == this.constants.length)
+				this.constants = Arrays.copyOf(this.constants, 2 * this.nbconstants);
+			this.constants[this.nbconstants] = ((DoubleLiteralExpression)expression).getValue();
+			this.emit(CONST, 1);
+			this.emit(this.nbconstants++);
+		}
+		else if (expression instanceof NullExpression)
+			this.emit(NULL, 1);
+		else if (expression instanceof ThisExpression)
+			this.emit(SELF, 1);
+		else if (expression instanceof EntityExpression) {
+			this.emit(ENTITY, 1);
+			this.emit(this.entity((EntityExpression<?>)expression));
+		}
+		else if (expression instanceof DirectionExpression)
+			this.emit(DIRECTION, 1);
+		else if (expression instanceof GetterExpression)
+			this.getter((GetterExpression<?>)expression);
+		else if (expression instanceof AdditionExpression) {
+			AdditionExpression<?> addition = (AdditionExpression<?>)expression;
+			this.binary(addition.getLeftEx(), addition.getRightEx(), ADD);
+		}
+		else if (expression instanceof MultiplicationExpression) {
+			MultiplicationExpression<?> multiplication = (MultiplicationExpression<?>)expression;
+			this.binary(multiplication.getLeftEx(), multiplication.getRightEx(), MUL);
+		}
+		else if (expression instanceof ChangeSignExpression) {
+			this.expression(((ChangeSignExpression<?>)expression).getSubEx());
+			this.emit(NEG, 0);
+		}
+		else if (expression instanceof SqrtExpression) {
+			this.expression(((SqrtExpression<?>)expression).getSubEx());
+			this.emit(SQRT, 0);
+		}
+		else if (expression instanceof EqualityExpression) {
+			EqualityExpression<?> equality = (EqualityExpression<?>)expression;
+			this.binary(equality.getLeftEx(), equality.getRightEx(), EQ);
+		}
+		else if (expression instanceof LessThanExpression) {
+			LessThanExpression<?> lessthan = (LessThanExpression<?>)expression;
+			this.binary(lessthan.getLeftEx(), lessthan.getRightEx(), LT);
+		}
+		else if (expression instanceof NotExpression) {
+			this.expression(((NotExpression<?>)expression).getSubEx());
+			this.emit(NOT, 0);
+		}
+		else if (expression instanceof ReadVariableExpression) {
+			String name = ((ReadVariableExpression<?>)expression).getName();
+			int global = this.global(name);
+			if (! this.isInFunction()) {
+				this.emit(LOADG, 1);
+				this.emit(global);
+			}
+			else {
+				this.emit(LOADL, 1);
+				this.emit(this.local(name));
+				this.emit(global);
+			}
+		}
+		else if (expression instanceof ReadParameterExpression) {
+			this.emit(LOADP, 1);
+			this.emit(Integer.valueOf(((ReadParameterExpression<?>)expression).getName().replace("$", "")) - 1);
+		}
+		else if (expression instanceof FunctionCallExpression)
+			this.call((FunctionCallExpression<?>)expression);
+		else
+			throw new IllegalArgumentException("Unknown expression");
+	}
+
+	private void getter(GetterExpression<?> getter) {
+		this.expression(getter.getEntityEx());
+		if (getter instanceof XPosExpression)
+			this.emit(GETX, 0);
+		else if (getter instanceof YPosExpression)
+			this.emit(GETY, 0);
+		else if (getter instanceof XVelExpression)
+			this.emit(GETVX, 0);
+		else if (getter instanceof YVelExpression)
+			this.emit(GETVY, 0);
+		else if (getter instanceof RadiusExpression)
+			this.emit(GETRADIUS, 0);
+		else
+			throw new IllegalArgumentException("Unknown getter");
+	}
+
+	private void binary(Expression<?> left, Expression<?> right, int opcode) {
+		this.expression(left);
+		this.expression(right);
+		this.emit(opcode, -1);
+	}
+
+	private void call(FunctionCallExpression<?> call) {
+		int function = this.functionindices.get(call.getFName());
+		for (Expression<?> argument : call.getArgs())
+			this.expression(argument);
+		int pc = this.emit(CALL, 1 - call.getArgs().size());
+		this.emit(function);
+		this.emit(call.getArgs().size());
+		if (! this.loops.isEmpty())
+			this.loops.peek().calls.add(pc);
+	}
+
+	private void statement(Statement statement) {
+		this.depth = 0;
+		if (! this.isInFunction() && ! (statement instanceof BlockStatement))
+			this.statements.add(this.size);
+		if (statement instanceof BlockStatement) {
+			for (Statement s : ((BlockStatement)statement).getStatements())
+				this.statement(s);
+		}
+		else if (statement instanceof AssignmentStatement)
+			this.assignment((AssignmentStatement)statement);
+		else if (statement instanceof PrintStatement) {
+			this.expression(((PrintStatement)statement).getExpression());
+			this.emit(PRINT, -1);
+		}
+		else if (statement instanceof ActionStatement)
+			this.action((ActionStatement)statement);
+		else if (statement instanceof IfStatement)
+			this.conditional((IfStatement)statement);
+		else if (statement instanceof WhileStatement)
+			this.loop((WhileStatement)statement);
+		else if (statement instanceof BreakStatement) {
+			if (this.loops.isEmpty())
+				this.emit(BREAKOUT, 0);
+			else {
+				this.emit(JUMP, 0);
+				this.loops.peek().breaks.add(this.emit(-1));
+			}
+		}
+		else
+			throw new IllegalArgumentException("Unknown statement");
+	}
+
+	private void assignment(AssignmentStatement assignment) {
+		String name = assignment.getVariableName();
+		this.expression(assignment.getValue());
+		if (this.isInFunction()) {
+			this.emit(STOREL, -1);
+			this.emit(this.local(name));
+		}
+		else {
+			this.emit(STOREG, -1);
+			this.emit(this.global(name));
+		}
+	}
+
+	private void action(ActionStatement action) {
+		this.emit(WAIT, 0);
+		if (action instanceof FireStatement)
+			this.emit(FIRE, 0);
+		else if (action instanceof ThrustOnStatement)
+			this.emit(THRUSTON, 0);
+		else if (action instanceof ThrustOffStatement)
+			this.emit(THRUSTOFF, 0);
+		else if (action instanceof SkipStatement)
+			this.emit(SKIP, 0);
+		else if (action instanceof TurnStatement) {
+			this.expression(((TurnStatement)action).getAngle());
+			this.emit(TURN, -1);
+		}
+		else
+			throw new IllegalArgumentException("Unknown action");
+	}
+
+	private void conditional(IfStatement conditional) {
+		this.expression(conditional.getCondition());
+		this.emit(JUMPF, -1);
+		int otherwise = this.emit(-1);
+		this.statement(conditional.getStatement1());
+		if (conditional.getStatement2() != null) {
+			this.emit(JUMP, 0);
+			int end = this.emit(-1);
+			this.code[otherwise] = this.size;
+			this.statement(conditional.getStatement2());
+			this.code[end] = this.size;
+		}
+		else
+			this.code[otherwise] = this.size;
+	}
+
+	private void loop(WhileStatement loop) {
+		Loop current = new Loop();
+		this.loops.push(current);
+		int start = this.size;
+		this.expression(loop.getCondition());
+		this.emit(JUMPF, -1);
+		int exit = this.emit(-1);
+		this.statement(loop.getBody());
+		this.emit(JUMP, 0);
+		this.emit(start);
+		this.loops.pop();
+		this.code[exit] = this.size;
+		for (int operand : current.breaks)
+			this.code[operand] = this.size;
+		for (int call : current.calls)
+			this.breaktargets.put(call, this.size);
+	}
+
+	/**
+	 * Assembles the given statement as the body of a function, which must end in a return statement.
+	 */
+	private void body(Statement body) {
+		this.depth = 0;
+		if (body instanceof ReturnStatement) {
+			this.expression(((ReturnStatement)body).getExpression());
+			this.emit(RET, -1);
+		}
+		else if (body instanceof BlockStatement) {
+			List<Statement> statements = ((BlockStatement)body).getStatements();
+			for (int i = 0; i < statements.size() - 1; i++)
+				this.statement(statements.get(i));
+			this.body(statements.get(statements.size() - 1));
+		}
+		else if (body instanceof IfStatement) {
+			IfStatement conditional = (IfStatement)body;
+			this.expression(conditional.getCondition());
+			this.emit(JUMPF, -1);
+			int otherwise = this.emit(-1);
+			this.body(conditional.getStatement1());
+			this.code[otherwise] = this.size;
+			this.body(conditional.getStatement2());
+		}
+		else
+			throw new IllegalArgumentException("Unknown returnable");
+	}
+
+}
@@ -0,0 +1,83 @@
+package asteroids.bytecode;
+
+import asteroids.expressions.EntityExpression;
+
+/**
+ * A class of assembled programs. The bytecode of a program holds the instructions of its main statement, followed by
+ * those of its functions, together with the constants and entity expressions they refer to.
+ *
+ * @version 3.0
+ * @author Bernardo Saniz, Elien Vlaeyen
+ */
+public class Bytecode {
+
+	/**
+	 * Initializes this bytecode with the given instructions and tables.
+	 */
+	Bytecode(int[] code, double[] constants, EntityExpression<?>[] entities, int[] entries,
+			int[] nblocals, int[] depths, int nbglobals, int[] breaktargets, int[] statements) {
+		this.code = code;
+		this.constants = constants;
+		this.entities = entities;
+		this.entries = entries;
+		this.nblocals = nblocals;
+		this.depths = depths;
+		this.nbglobals = nbglobals;
+		this.breaktargets = breaktargets;
+		this.statements = statements;
+	}
+
+	/**
+	 * The instructions, starting with those of the main statement
+	 */
+	final int[] code;
+
+	/**
+	 * The numbers pushed by CONST instructions
+	 */
+	final double[] constants;
+
+	/**
+	 * The entity expressions evaluated by ENTITY instructions
+	 */
+	final EntityExpression<?>[] entities;
+
+	/**
+	 * For each function, the index of its first instruction
+	 */
+	final int[] entries;
+
+	/**
+	 * For each function, the number of its local variables
+	 */
+	final int[] nblocals;
+
+	/**
+	 * For each function, the largest number of values on its operand stack; the last element is the largest number
+	 * of values on the operand stack of the main statement
+	 */
+	final int[] depths;
+
+	/**
+	 * The number of global variables
+	 */
+	final int nbglobals;
+
+	/**
+	 * For each CALL instruction, the index after the innermost loop around it in the same function, -1 otherwise
+	 */
+	final int[] breaktargets;
+
+	/**
+	 * The indices of the first instructions of the statements of the main statement, in increasing order
+	 */
+	final int[] statements;
+
+	/**
+	 * Returns the number of instructions and operands of this bytecode.
+	 */
+	public int size() {
+		return this.code.length;
+	}
+
+}
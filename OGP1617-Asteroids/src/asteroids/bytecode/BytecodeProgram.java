@@ -0,0 +1,70 @@
+package asteroids.bytecode;
+
+import java.util.List;
+
+import asteroids.model.Function;
+import asteroids.model.Program;
+import asteroids.model.QueryCache;
+import asteroids.statements.BreakException;
+import asteroids.statements.Statement;
+
+/**
+ * A class of programs that are assembled into bytecode and executed by a machine, instead of being interpreted.
+ *
+ * @version 3.0
+ * @author Bernardo Saniz, Elien Vlaeyen
+ */
+public class BytecodeProgram extends Program {
+
+	/**
+	 * Initializes this program with the given functions and main statement, and assembles it.
+	 *
+	 * @param functions
+	 *  The functions of this program
+	 * @param main
+	 *  The main statement of this program
+	 */
+	public BytecodeProgram(List<Function> functions, Statement main) {
+		super(functions, main, false);
+		this.machine = this.isWellTyped() ? new Machine(new Assembler(this.getFunctions()).assemble(this.getMain())) : null;
+		if (this.machine != null)
+			this.setCache(new QueryCache(this.machine.getBytecode().entities.length));
+	}
+
+	/**
+	 * Initializes this program as a new instance of the given program, with a machine of its own for the bytecode
+	 * of the given program.
+	 *
+	 * @param template
+	 *  The program of which this program is an instance
+	 */
+	protected BytecodeProgram(BytecodeProgram template) {
+		super(template);
+		this.machine = (template.getMachine() != null) ? new Machine(template.getMachine().getBytecode()) : null;
+		if (this.machine != null)
+			this.setCache(new QueryCache(this.machine.getBytecode().entities.length));
+	}
+
+	@Override
+	public BytecodeProgram instantiate() {
+		return new BytecodeProgram(this);
+	}
+
+	/**
+	 * The machine executing this program, null if this program is not well typed.
+	 */
+	private final Machine machine;
+
+	/**
+	 * Returns the machine executing this program.
+	 */
+	public Machine getMachine() {
+		return this.machine;
+	}
+
+	@Override
+	public boolean run() throws BreakException {
+		return this.getMachine().run(this);
+	}
+
+}
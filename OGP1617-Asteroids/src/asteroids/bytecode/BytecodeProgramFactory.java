@@ -0,0 +1,23 @@
+package asteroids.bytecode;
+
+import java.util.List;
+
+import asteroids.model.Function;
+import asteroids.model.ProgramFactory;
+import asteroids.statements.Statement;
+
+/**
+ * A class of program factories that create programs executed by a bytecode machine. The statements and expressions
+ * are the same as those of the interpreted programs; only the program itself is created differently.
+ *
+ * @version 3.0
+ * @author Bernardo Saniz, Elien Vlaeyen
+ */
+public class BytecodeProgramFactory<E, S, F, P> extends ProgramFactory<E, S, F, P> {
+
+	@Override
+	public BytecodeProgram createProgram(List<Function> functions, Statement main) {
+		return new BytecodeProgram(functions, main);
+	}
+
+}
@@ -0,0 +1,410 @@
+package asteroids.bytecode;
+
+import static asteroids.bytecode.Opcodes.*;
+
+import java.util.Arrays;
+
+import asteroids.model.Entity;
+import asteroids.model.Program;
+import asteroids.model.QueryCache;
+import asteroids.model.Ship;
+import asteroids.model.Timer;
+import asteroids.statements.Action;
+import asteroids.statements.BreakException;
+
+/**
+ * A class of machines executing the bytecode of a program for a ship.
+ * Values live in a register file of two parallel arrays: a slot holds a number, unboxed in the array of numbers,
+ * if its reference is the marker for numbers, and otherwise the value referenced. The global variables come first,
+ * followed by the frames of the functions being called: the arguments of the call, the local variables of the
+ * function and its operand stack. A variable without value holds no reference at all; a variable to which null
+ * has been assigned holds the marker for null.
+ * A program is only ever suspended in its main statement, between two statements or at the end of an iteration
+ * of a loop when it runs out of steps, so resuming it only takes restoring its program counter.
+ *
+ * @version 3.0
+ * @author Bernardo Saniz, Elien Vlaeyen
+ */
+public class Machine {
+
+	/**
+	 * Initializes this machine with the given bytecode, at the start of its main statement.
+	 *
+	 * @param bytecode
+	 *  The bytecode executed by this machine
+	 */
+	public Machine(Bytecode bytecode) {
+		this.bytecode = bytecode;
+		int size = bytecode.nbglobals + bytecode.depths[bytecode.depths.length - 1] + 16;
+		this.numbers = new double[size];
+		this.references = new Object[size];
+	}
+
+	/**
+	 * The marker of slots holding a number
+	 */
+	private static final Object NUMBER = new Object();
+
+	/**
+	 * The marker of slots holding null
+	 */
+	private static final Object NONE = new Object();
+
+	/**
+	 * The number of integers per frame on the call stack: the index to return to, and the start of the frame, the
+	 * number of arguments and the start of the operand stack of the calling function
+	 */
+	private static final int FRAME = 4;
+
+	/**
+	 * The bytecode executed by this machine
+	 */
+	private final Bytecode bytecode;
+
+	/**
+	 * The numbers in the slots of the register file
+	 */
+	private double[] numbers;
+
+	/**
+	 * The references in the slots of the register file
+	 */
+	private Object[] references;
+
+	/**
+	 * The frames of the functions being called
+	 */
+	private int[] calls = new int[4 * FRAME];
+
+	/**
+	 * The index of the next instruction of the main statement
+	 */
+	private int pc = 0;
+
+	/**
+	 * Returns the bytecode executed by this machine.
+	 */
+	public Bytecode getBytecode() {
+		return this.bytecode;
+	}
+
+	/**
+	 * Executes the bytecode of this machine for the given program, until it ends or the timer of the program runs
+	 * out. Actions are performed through the program, so that they can be buffered.
+	 *
+	 * @param program
+	 *  The program whose bytecode this machine executes
+	 * @return True if and only if the program has ended.
+	 * @throws BreakException if a break statement is executed outside a loop.
+	 * @throws IllegalArgumentException if a statement or expression is executed that is not correct.
+	 */
+	public boolean run(Program program) throws BreakException, IllegalArgumentException {
+		final Ship ship = program.getShip();
+		final Timer timer = program.getTimer();
+		final QueryCache cache = program.getCache();
+		final int[] code = this.bytecode.code;
+		final double[] constants = this.bytecode.constants;
+		double[] numbers = this.numbers;
+		Object[] references = this.references;
+		int pc = this.pc;
+		int sp = this.bytecode.nbglobals;
+		int fp = 0;
+		int base = sp, nbarguments = 0, locals = sp, top = sp;
+		try {
+			while (true) {
+				switch (code[pc]) {
+				case CONST:
+					numbers[sp] = constants[code[pc + 1]];
+					references[sp++] = NUMBER;
+					pc += 2;
+					break;
+				case NULL:
+					references[sp++] = NONE;
+					pc += 1;
+					break;
+				case SELF:
+					references[sp++] = ship;
+					pc += 1;
+					break;
+				case ENTITY:
+					Entity entity = cache.getEntity(code[pc + 1], this.bytecode.entities[code[pc + 1]], ship);
+					references[sp++] = (entity == null) ? NONE : entity;
+					pc += 2;
+					break;
+				case DIRECTION:
+					numbers[sp] = ship.getOrientation();
+					references[sp++] = NUMBER;
+					pc += 1;
+					break;
+				case GETX:
+					numbers[sp - 1] = entity(references[sp - 1]).getXPosition();
+					references[sp - 1] = NUMBER;
+					pc += 1;
+					break;
+				case GETY:
+					numbers[sp - 1] = entity(references[sp - 1]).getYPosition();
+					references[sp - 1] = NUMBER;
+					pc += 1;
+					break;
+				case GETVX:
+					numbers[sp - 1] = entity(references[sp - 1]).getXVelocity();
+					references[sp - 1] = NUMBER;
+					pc += 1;
+					break;
+				case GETVY:
+					numbers[sp - 1] = entity(references[sp - 1]).getYVelocity();
+					references[sp - 1] = NUMBER;
+					pc += 1;
+					break;
+				case GETRADIUS:
+					numbers[sp - 1] = entity(references[sp - 1]).getRadius();
+					references[sp - 1] = NUMBER;
+					pc += 1;
+					break;
+				case ADD:
+					sp--;
+					if (references[sp] != NUMBER || references[sp - 1] != NUMBER)
+						throw new IllegalArgumentException("Incorrect AdditionExpression");
+					numbers[sp - 1] += numbers[sp];
+					pc += 1;
+					break;
+				case MUL:
+					sp--;
+					if (references[sp] != NUMBER || references[sp - 1] != NUMBER)
+						throw new IllegalArgumentException("Incorrect MultiplicationExpression");
+					numbers[sp - 1] *= numbers[sp];
+					pc += 1;
+					break;
+				case NEG:
+					if (references[sp - 1] != NUMBER)
+						throw new IllegalArgumentException("Incorrect ChangeSignExpression");
+					numbers[sp - 1] = -numbers[sp - 1];
+					pc += 1;
+					break;
+				case SQRT:
+					if (references[sp - 1] != NUMBER)
+						throw new IllegalArgumentException("Incorrect SqrtExpression");
+					numbers[sp - 1] = Math.sqrt(numbers[sp - 1]);
+					pc += 1;
+					break;
+				case EQ:
+					sp--;
+					if (references[sp] == NUMBER && references[sp - 1] == NUMBER)
+						references[sp - 1] = numbers[sp - 1] == numbers[sp];
+					else
+						references[sp - 1] = references[sp - 1] == references[sp];
+					pc += 1;
+					break;
+				case LT:
+					sp--;
+					if (references[sp] != NUMBER || references[sp - 1] != NUMBER)
+						throw new IllegalArgumentException("Incorrect LessThanExpression");
+					references[sp - 1] = numbers[sp - 1] < numbers[sp];
+					pc += 1;
+					break;
+				case NOT:
+					references[sp - 1] = ! condition(references[sp - 1]);
+					pc += 1;
+					break;
+				case LOADG:
+					sp = load(numbers, references, code[pc + 1], sp);
+					pc += 2;
+					break;
+				case STOREG:
+					store(numbers, references, code[pc + 1], --sp);
+					pc += 2;
+					break;
+				case LOADL:
+					if (references[locals + code[pc + 1]] != null)
+						sp = load(numbers, references, locals + code[pc + 1], sp);
+					else
+						sp = load(numbers, references, code[pc + 2], sp);
+					pc += 3;
+					break;
+				case STOREL:
+					store(numbers, references, locals + code[pc + 1], --sp);
+					pc += 2;
+					break;
+				case LOADP:
+					int argument = code[pc + 1];
+					if (argument < 0 || argument >= nbarguments)
+						throw new IllegalArgumentException("Not enough arguments!");
+					numbers[sp] = numbers[base + argument];
+					references[sp++] = references[base + argument];
+					pc += 2;
+					break;
+				case CALL:
+					program.spend();
+					int function = code[pc + 1];
+					if (fp + FRAME > this.calls.length)
+						this.calls = Arrays.copyOf(this.calls, 2 * this.calls.length);
+					this.calls[fp] = pc + 3;
+					this.calls[fp + 1] = base;
+					this.calls[fp + 2] = nbarguments;
+					this.calls[fp + 3] = top;
+					fp += FRAME;
+					nbarguments = code[pc + 2];
+					base = sp - nbarguments;
+					locals = sp;
+					sp = top = locals + this.bytecode.nblocals[function];
+					if (sp + this.bytecode.depths[function] > numbers.length) {
+						this.grow(2 * (sp + this.bytecode.depths[function]));
+						numbers = this.numbers;
+						references = this.references;
+					}
+					Arrays.fill(references, locals, sp, null);
+					pc = this.bytecode.entries[function];
+					break;
+				case RET:
+					numbers[base] = numbers[sp - 1];
+					references[base] = references[sp - 1];
+					sp = base + 1;
+					fp -= FRAME;
+					pc = this.calls[fp];
+					base = this.calls[fp + 1];
+					nbarguments = this.calls[fp + 2];
+					top = this.calls[fp + 3];
+					locals = base + nbarguments;
+					break;
+				case JUMP:
+					if (code[pc + 1] < pc) {
+						if (fp > 0)
+							program.spend();
+						else if (! program.step()) {
+							this.pc = pc;
+							return false;
+						}
+					}
+					pc = code[pc + 1];
+					break;
+				case JUMPF:
+					if (condition(references[--sp]))
+						pc += 2;
+					else
+						pc = code[pc + 1];
+					break;
+				case BREAKOUT:
+					while (true) {
+						if (fp == 0)
+							throw new BreakException();
+						fp -= FRAME;
+						pc = this.calls[fp] - 3;
+						base = this.calls[fp + 1];
+						nbarguments = this.calls[fp + 2];
+						top = this.calls[fp + 3];
+						locals = base + nbarguments;
+						if (this.bytecode.breaktargets[pc] >= 0) {
+							pc = this.bytecode.breaktargets[pc];
+							sp = top;
+							break;
+						}
+					}
+					break;
+				case PRINT:
+					sp--;
+					Object value = (references[sp] == NUMBER) ? (Object)numbers[sp] :
+						(references[sp] == NONE) ? null : references[sp];
+					if (value != null)
+						System.out.println(value.toString());
+					ship.getItems().add(value);
+					pc += 1;
+					break;
+				case WAIT:
+					if (timer.getTime() < 0.2) {
+						this.pc = pc;
+						return false;
+					}
+					pc += 1;
+					break;
+				case FIRE:
+					program.perform(Action.FIRE);
+					timer.setTime(timer.getTime() - 0.2);
+					pc += 1;
+					break;
+				case THRUSTON:
+					program.perform(Action.THRUST_ON);
+					timer.setTime(timer.getTime() - 0.2);
+					pc += 1;
+					break;
+				case THRUSTOFF:
+					program.perform(Action.THRUST_OFF);
+					timer.setTime(timer.getTime() - 0.2);
+					pc += 1;
+					break;
+				case TURN:
+					sp--;
+					if (references[sp] != NUMBER || ! ship.isValidTurn(numbers[sp]))
+						throw new IllegalArgumentException("Incorrect TurnStatement");
+					program.perform(Action.turn(numbers[sp]));
+					timer.setTime(timer.getTime() - 0.2);
+					pc += 1;
+					break;
+				case SKIP:
+					timer.setTime(timer.getTime() - 0.2);
+					pc += 1;
+					break;
+				case HALT:
+					this.pc = pc;
+					return true;
+				default:
+					throw new IllegalStateException("Unknown opcode " + code[pc]);
+				}
+			}
+		} catch (BreakException | RuntimeException e) {
+			this.pc = this.getStatement((fp == 0) ? pc : this.calls[0] - 3);
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the start of the statement of the main statement to which the instruction at the given index belongs.
+	 */
+	private int getStatement(int pc) {
+		int index = Arrays.binarySearch(this.bytecode.statements, pc);
+		if (index < 0)
+			index = -index - 2;
+		else
+			while (index > 0 && this.bytecode.statements[index - 1] == pc)
+				index--;
+		return (index < 0) ? 0 : this.bytecode.statements[index];
+	}
+
+	private void grow(int size) {
+		this.numbers = Arrays.copyOf(this.numbers, size);
+		this.references = Arrays.copyOf(this.references, size);
+	}
+
+	private static Entity entity(Object reference) {
+		if (! (reference instanceof Entity))
+			throw new IllegalArgumentException("Incorrect GetterExpression");
+		return (Entity)reference;
+	}
+
+	private static boolean condition(Object reference) {
+		if (! (reference instanceof Boolean))
+			throw new IllegalArgumentException("Non-boolean condition");
+		return (Boolean)reference;
+	}
+
+	private static int load(double[] numbers, Object[] references, int slot, int sp) {
+		Object reference = references[slot];
+		if (reference == null)
+			throw new IllegalArgumentException("No value for this variable");
+		if (reference == NONE)
+			throw new IllegalArgumentException("Incorrect ReadVariable");
+		numbers[sp] = numbers[slot];
+		references[sp] = reference;
+		return sp + 1;
+	}
+
+	private static void store(double[] numbers, Object[] references, int slot, int sp) {
+		Object oldvalue = references[slot];
+		Object newvalue = references[sp];
+		if (oldvalue != null && oldvalue != NONE && (newvalue == NONE || (oldvalue == NUMBER) != (newvalue == NUMBER)
+				|| (oldvalue != NUMBER && oldvalue.getClass() != newvalue.getClass())))
+			throw new IllegalArgumentException("Cannot change variable type");
+		numbers[slot] = numbers[sp];
+		references[slot] = newvalue;
+	}
+
+}
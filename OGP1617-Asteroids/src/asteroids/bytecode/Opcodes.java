@@ -0,0 +1,194 @@
+package asteroids.bytecode;
+
+/**
+ * A class of the instruction codes of the bytecode into which programs are assembled. Every instruction is an
+ * opcode, followed by the number of operands given with it. Instructions work on an operand stack of values; a
+ * value is either a number, kept unboxed, or a reference to a boolean, an entity or null.
+ *
+ * @version 3.0
+ * @author Bernardo Saniz, Elien Vlaeyen
+ */
+public final class Opcodes {
+
+	private Opcodes() {
+	}
+
+	/**
+	 * Pushes the constant with the index given as operand.
+	 */
+	public static final int CONST = 0;
+
+	/**
+	 * Pushes null.
+	 */
+	public static final int NULL = 1;
+
+	/**
+	 * Pushes the ship executing the program.
+	 */
+	public static final int SELF = 2;
+
+	/**
+	 * Pushes the entity found by the entity expression with the index given as operand.
+	 */
+	public static final int ENTITY = 3;
+
+	/**
+	 * Pushes the orientation of the ship executing the program.
+	 */
+	public static final int DIRECTION = 4;
+
+	/**
+	 * Replaces the entity on top of the stack by its x coordinate.
+	 */
+	public static final int GETX = 5;
+
+	/**
+	 * Replaces the entity on top of the stack by its y coordinate.
+	 */
+	public static final int GETY = 6;
+
+	/**
+	 * Replaces the entity on top of the stack by its velocity along the x axis.
+	 */
+	public static final int GETVX = 7;
+
+	/**
+	 * Replaces the entity on top of the stack by its velocity along the y axis.
+	 */
+	public static final int GETVY = 8;
+
+	/**
+	 * Replaces the entity on top of the stack by its radius.
+	 */
+	public static final int GETRADIUS = 9;
+
+	/**
+	 * Replaces the two numbers on top of the stack by their sum.
+	 */
+	public static final int ADD = 10;
+
+	/**
+	 * Replaces the two numbers on top of the stack by their product.
+	 */
+	public static final int MUL = 11;
+
+	/**
+	 * Changes the sign of the number on top of the stack.
+	 */
+	public static final int NEG = 12;
+
+	/**
+	 * Replaces the number on top of the stack by its square root.
+	 */
+	public static final int SQRT = 13;
+
+	/**
+	 * Replaces the two values on top of the stack by whether they are equal.
+	 */
+	public static final int EQ = 14;
+
+	/**
+	 * Replaces the two numbers on top of the stack by whether the first is less than the second.
+	 */
+	public static final int LT = 15;
+
+	/**
+	 * Negates the boolean on top of the stack.
+	 */
+	public static final int NOT = 16;
+
+	/**
+	 * Pushes the global variable with the index given as operand.
+	 */
+	public static final int LOADG = 17;
+
+	/**
+	 * Pops the top of the stack into the global variable with the index given as operand.
+	 */
+	public static final int STOREG = 18;
+
+	/**
+	 * Pushes the local variable with the index given as first operand, or the global variable with the index given
+	 * as second operand if the local variable has no value.
+	 */
+	public static final int LOADL = 19;
+
+	/**
+	 * Pops the top of the stack into the local variable with the index given as operand.
+	 */
+	public static final int STOREL = 20;
+
+	/**
+	 * Pushes the argument with the index given as operand.
+	 */
+	public static final int LOADP = 21;
+
+	/**
+	 * Calls the function with the index given as first operand, with as arguments the number of values given as
+	 * second operand on top of the stack.
+	 */
+	public static final int CALL = 22;
+
+	/**
+	 * Returns the value on top of the stack from the current function.
+	 */
+	public static final int RET = 23;
+
+	/**
+	 * Continues at the index given as operand.
+	 */
+	public static final int JUMP = 24;
+
+	/**
+	 * Pops a boolean and continues at the index given as operand if it is false.
+	 */
+	public static final int JUMPF = 25;
+
+	/**
+	 * Leaves the current function, and every calling function, until a loop around the call is found, and
+	 * continues after that loop.
+	 */
+	public static final int BREAKOUT = 26;
+
+	/**
+	 * Pops a value and prints it.
+	 */
+	public static final int PRINT = 27;
+
+	/**
+	 * Suspends the program at this instruction if there is not enough time left for an action.
+	 */
+	public static final int WAIT = 28;
+
+	/**
+	 * Fires a bullet.
+	 */
+	public static final int FIRE = 29;
+
+	/**
+	 * Turns the thruster on.
+	 */
+	public static final int THRUSTON = 30;
+
+	/**
+	 * Turns the thruster off.
+	 */
+	public static final int THRUSTOFF = 31;
+
+	/**
+	 * Pops a number and turns by that angle.
+	 */
+	public static final int TURN = 32;
+
+	/**
+	 * Does nothing, but takes the time of an action.
+	 */
+	public static final int SKIP = 33;
+
+	/**
+	 * Ends the program.
+	 */
+	public static final int HALT = 34;
+
+}
@@ -1,8 +1,7 @@
 package asteroids.expressions;
 
+import asteroids.model.Scope;
 import asteroids.part3.programs.SourceLocation;
-import asteroids.statements.BreakException;
-import asteroids.statements.TimerException;
 
 public class AdditionExpression<D> extends DoubleExpression<D> {
 	
@@ -33,23 +32,17 @@ public class AdditionExpression<D> extends DoubleExpression<D> {
 	}
 
 	@Override
-	public Double evaluate() throws BreakException, TimerException {
-		if (! canHaveSubExpression(getRightEx()) || ! canHaveSubExpression(getLeftEx()))
-			throw new IllegalArgumentException("Incorrect AdditionExpression");
-		else
-			return (Double) this.getLeftEx().evaluate() + (Double) this.getRightEx().evaluate();
+	public Type typeCheck(Scope scope) {
+		checkOperand(this.getLeftEx(), scope, "Incorrect AdditionExpression");
+		checkOperand(this.getRightEx(), scope, "Incorrect AdditionExpression");
+		return Type.DOUBLE;
 	}
 
 	@Override
-	public void setSubProgram() {
-		getLeftEx().setProgram(getProgram());
-		getRightEx().setProgram(getProgram());
-	}
-
-	@Override
-	public void setSubFunction() {
-		getLeftEx().setFunction(this.getFunction());
-		getRightEx().setFunction(this.getFunction());
+	public CompiledExpression<Double> compile(Scope scope) {
+		CompiledExpression<?> left = compileOperand(this.getLeftEx(), scope);
+		CompiledExpression<?> right = compileOperand(this.getRightEx(), scope);
+		return frame -> (Double) left.evaluate(frame) + (Double) right.evaluate(frame);
 	}
 	
 }
@@ -4,6 +4,8 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import asteroids.model.Entity;
+import asteroids.model.Scope;
+import asteroids.model.Ship;
 import asteroids.part3.programs.SourceLocation;
 
 public class AnyExpression<E> extends Expression<Entity> implements EntityExpression<Entity> {
@@ -14,8 +16,8 @@ public class AnyExpression<E> extends Expression<Entity> implements EntityExpres
 
 
 	@Override
-	public Entity getEntity() {
-		Set<Entity> entities = this.getProgram().getShip().getWorld().getEntityList();
+	public Entity getEntity(Ship ship) {
+		Set<Entity> entities = ship.getWorld().getEntityList();
 		entities = entities.stream()
 						   .collect(Collectors.toSet());
 	
@@ -27,17 +29,12 @@ public class AnyExpression<E> extends Expression<Entity> implements EntityExpres
 	
 	
 	@Override
-	public Entity evaluate() {
-		return this.getEntity();
+	public Type typeCheck(Scope scope) {
+		return Type.ENTITY;
 	}
-
-
-	@Override
-	public void setSubProgram() {
-	}
-
-
+	
 	@Override
-	public void setSubFunction() {
+	public CompiledExpression<Entity> compile(Scope scope) {
+		return EntityExpression.compile(this, scope);
 	}
 }
\ No newline at end of file
@@ -6,6 +6,8 @@ import java.util.stream.Collectors;
 
 import asteroids.model.Bullet;
 import asteroids.model.Entity;
+import asteroids.model.Scope;
+import asteroids.model.Ship;
 import asteroids.part3.programs.SourceLocation;
 
 public class BulletExpression<E> extends Expression<Bullet> implements EntityExpression<Bullet>{
@@ -16,12 +18,12 @@ public class BulletExpression<E> extends Expression<Bullet> implements EntityExp
 	
 	
 	@Override
-	public Bullet getEntity() {
-		Set<Entity> entities = this.getProgram().getShip().getWorld().getEntityList();
+	public Bullet getEntity(Ship ship) {
+		Set<Entity> entities = ship.getWorld().getEntityList();
 		List<Entity> bullets = entities.stream()
 									   .filter(e -> e instanceof Bullet)
 									   .filter(e -> ((Bullet)e).getSource() != null)
-									   .filter(e -> ((Bullet)e).getSource().equals(getProgram().getShip()))
+									   .filter(e -> ((Bullet)e).getSource().equals(ship))
 									   .collect(Collectors.toList());
 		
 		if (bullets.size() == 0)
@@ -34,18 +36,13 @@ public class BulletExpression<E> extends Expression<Bullet> implements EntityExp
 
 	
 	@Override
-	public Bullet evaluate() {
-		return this.getEntity();
+	public Type typeCheck(Scope scope) {
+		return Type.ENTITY;
 	}
-
-
-	@Override
-	public void setSubProgram() {
-	}
-
-
+	
 	@Override
-	public void setSubFunction() {
+	public CompiledExpression<Bullet> compile(Scope scope) {
+		return EntityExpression.compile(this, scope);
 	}
 
 	
@@ -1,8 +1,7 @@
 package asteroids.expressions;
 
+import asteroids.model.Scope;
 import asteroids.part3.programs.SourceLocation;
-import asteroids.statements.BreakException;
-import asteroids.statements.TimerException;
 
 public class ChangeSignExpression<D> extends DoubleExpression<Double> {
 
@@ -22,21 +21,15 @@ public class ChangeSignExpression<D> extends DoubleExpression<Double> {
 	}
 	
 	@Override
-	public Double evaluate() throws BreakException, TimerException {
-		if (canHaveSubExpression(getSubEx()))
-			return -1*(Double)this.getSubEx().evaluate();
-		else
-			throw new IllegalArgumentException("Incorrect ChangeSignExpression");
+	public Type typeCheck(Scope scope) {
+		checkOperand(this.getSubEx(), scope, "Incorrect ChangeSignExpression");
+		return Type.DOUBLE;
 	}
-
-	@Override
-	public void setSubProgram() {
-		this.getSubEx().setProgram(getProgram());
-	}
-
+	
 	@Override
-	public void setSubFunction() {
-		this.getSubEx().setFunction(this.getFunction());
+	public CompiledExpression<Double> compile(Scope scope) {
+		CompiledExpression<?> subexpression = compileOperand(this.getSubEx(), scope);
+		return frame -> -1*(Double)subexpression.evaluate(frame);
 	}
 	
 }
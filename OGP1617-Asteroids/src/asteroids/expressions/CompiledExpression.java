@@ -0,0 +1,11 @@
+package asteroids.expressions;
+
+import asteroids.model.Frame;
+import asteroids.statements.BreakException;
+
+@FunctionalInterface
+public interface CompiledExpression<T> {
+	
+	public T evaluate(Frame frame) throws BreakException;
+
+}
@@ -1,5 +1,6 @@
 package asteroids.expressions;
 
+import asteroids.model.Scope;
 import asteroids.part3.programs.SourceLocation;
 
 public class DirectionExpression<D> extends GetterExpression<Double> {
@@ -9,15 +10,12 @@ public class DirectionExpression<D> extends GetterExpression<Double> {
 	}
 	
 	@Override
-	public Double evaluate() {
-		return this.getProgram().getShip().getOrientation();
+	public Type typeCheck(Scope scope) {
+		return Type.DOUBLE;
 	}
-
-	@Override
-	public void setSubProgram() {
-	}
-
+	
 	@Override
-	public void setSubFunction() {
+	public CompiledExpression<Double> compile(Scope scope) {
+		return frame -> frame.getShip().getOrientation();
 	}
 }
\ No newline at end of file
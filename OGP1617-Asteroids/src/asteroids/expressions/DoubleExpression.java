@@ -1,14 +1,20 @@
 package asteroids.expressions;
 
-import asteroids.statements.BreakException;
-import asteroids.statements.TimerException;
+import asteroids.model.Scope;
 
 public abstract class DoubleExpression<D> extends Expression<Double> {
 
-	public boolean canHaveSubExpression(Expression<?> expression) throws BreakException, TimerException {
-		return (expression instanceof DoubleExpression) || (expression instanceof GetterExpression) ||
-				(expression instanceof FunctionCallExpression) || (expression instanceof ReadVariableExpression) ||
-				(expression instanceof ReadParameterExpression);
+	@Override
+	public Type typeCheck(Scope scope) {
+		return Type.DOUBLE;
+	}
+	
+	public static void checkOperand(Expression<?> operand, Scope scope, String message) {
+		Expression.checkType(operand, Type.DOUBLE, scope, message);
+	}
+	
+	public static CompiledExpression<?> compileOperand(Expression<?> operand, Scope scope) {
+		return Expression.compile(operand, Type.DOUBLE, scope);
 	}
 	
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package asteroids.expressions;
 
+import asteroids.model.Scope;
 import asteroids.part3.programs.SourceLocation;
 
 public class DoubleLiteralExpression extends DoubleExpression<Double> {
@@ -20,16 +21,9 @@ public class DoubleLiteralExpression extends DoubleExpression<Double> {
 	}
 
 	@Override
-	public Double evaluate() {
-		return this.getValue();
-	}
-
-	@Override
-	public void setSubProgram() {
-	}
-
-	@Override
-	public void setSubFunction() {
+	public CompiledExpression<Double> compile(Scope scope) {
+		Double value = this.getValue();
+		return frame -> value;
 	}
 	
 }
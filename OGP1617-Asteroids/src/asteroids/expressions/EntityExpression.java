@@ -5,6 +5,12 @@ import asteroids.model.*;
 
 public interface EntityExpression<E> {
 
-	public Entity getEntity();
+	public Entity getEntity(Ship ship);
+	
+	@SuppressWarnings("unchecked")
+	public static <E extends Entity> CompiledExpression<E> compile(EntityExpression<E> expression, Scope scope) {
+		int slot = scope.getCacheSlot(expression.getClass());
+		return frame -> (E)frame.getProgram().getCache().getEntity(slot, expression, frame.getShip());
+	}
 	
 }
@@ -1,8 +1,7 @@
 package asteroids.expressions;
 
+import asteroids.model.Scope;
 import asteroids.part3.programs.SourceLocation;
-import asteroids.statements.BreakException;
-import asteroids.statements.TimerException;
 
 public class EqualityExpression<B> extends Expression<Boolean> {
 	
@@ -33,20 +32,17 @@ public class EqualityExpression<B> extends Expression<Boolean> {
 	}
 
 	@Override
-	public Boolean evaluate() throws BreakException, TimerException {
-		return this.getLeftEx().evaluate() == this.getRightEx().evaluate();
+	public Type typeCheck(Scope scope) {
+		this.getLeftEx().typeCheck(scope);
+		this.getRightEx().typeCheck(scope);
+		return Type.BOOLEAN;
 	}
 
 	@Override
-	public void setSubProgram() {
-		getLeftEx().setProgram(getProgram());
-		getRightEx().setProgram(getProgram());
-	}
-
-	@Override
-	public void setSubFunction() {
-		getLeftEx().setFunction(this.getFunction());
-		getRightEx().setFunction(this.getFunction());
+	public CompiledExpression<Boolean> compile(Scope scope) {
+		CompiledExpression<?> left = this.getLeftEx().compile(scope);
+		CompiledExpression<?> right = this.getRightEx().compile(scope);
+		return frame -> left.evaluate(frame) == right.evaluate(frame);
 	}
 
 }
@@ -1,10 +1,7 @@
 package asteroids.expressions;
-import asteroids.model.*;
-
 
+import asteroids.model.Scope;
 import asteroids.part3.programs.SourceLocation;
-import asteroids.statements.BreakException;
-import asteroids.statements.TimerException;
 import be.kuleuven.cs.som.annotate.Basic;
 
 public abstract class Expression<T> {
@@ -20,32 +17,25 @@ public abstract class Expression<T> {
 		this.location = location;
 	}
 	
-	private Program program;
-
-	public Program getProgram() {
-		return this.program;
-	}
-	
-	public void setProgram(Program program) {
-		this.program = program;
-		this.setSubProgram();
-	}
-	
-	public abstract void setSubProgram();
+	public abstract Type typeCheck(Scope scope) throws IllegalArgumentException;
 	
-	protected Function function;
+	public abstract CompiledExpression<T> compile(Scope scope);
 	
-	public Function getFunction() {
-		return this.function;
+	public static void checkType(Expression<?> expression, Type type, Scope scope, String message)
+			throws IllegalArgumentException {
+		scope.check(type.canHaveAsType(expression.typeCheck(scope)), message);
 	}
 	
-	public void setFunction(Function function) {
-		this.function = function;
-		this.setSubFunction();
+	public static CompiledExpression<?> compile(Expression<?> expression, Type type, Scope scope) {
+		CompiledExpression<?> compiled = expression.compile(scope);
+		if (expression.typeCheck(scope) == type)
+			return compiled;
+		return frame -> {
+			Object value = compiled.evaluate(frame);
+			if (! type.hasAsValue(value))
+				throw new IllegalArgumentException("Expected value of type " + type);
+			return value;
+		};
 	}
 	
-	public abstract void setSubFunction();
-	
-	public abstract T evaluate() throws BreakException, TimerException;
-	
 }
\ No newline at end of file
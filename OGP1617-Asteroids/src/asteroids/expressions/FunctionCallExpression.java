@@ -1,13 +1,10 @@
 package asteroids.expressions;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 
 import asteroids.model.Function;
+import asteroids.model.Scope;
 import asteroids.part3.programs.SourceLocation;
-import asteroids.statements.BreakException;
-import asteroids.statements.TimerException;
 
 public class FunctionCallExpression<E> extends Expression<Object> {
 	
@@ -38,31 +35,29 @@ public class FunctionCallExpression<E> extends Expression<Object> {
 	}
 	
 	@Override
-	public Object evaluate() throws BreakException, TimerException {
-		Function f = this.getProgram().getFunctions().get(functionName);
+	public Type typeCheck(Scope scope) {
+		for (Expression<?> argument : this.getArgs())
+			argument.typeCheck(scope);
+		Function f = scope.getFunction(this.getFName());
+		scope.check(f != null, "Incorrect FunctionCall");
 		if (f == null)
-			throw new IllegalArgumentException("Incorrect FunctionCall");
-		List<Object> values = new ArrayList<Object>();
-		for (Expression<?> e : getArgs())
-			values.add(e.evaluate());
-		f.getParameterData().push(values);
-		this.getProgram().getVariableData().push(new HashMap<String, Object>());
-		Object value = f.run();
-		this.getProgram().getVariableData().pop();
-		f.getParameterData().pop();
-		return value;
+			return null;
+		return scope.getReturnType(f);
 	}
-
-	@Override
-	public void setSubProgram() {
-		for (Expression<?> e : this.getArgs())
-			e.setProgram(getProgram());
-	}
-
+	
 	@Override
-	public void setSubFunction() {
-		for (Expression<?> e : this.getArgs())
-			e.setFunction(this.getFunction());
+	public CompiledExpression<Object> compile(Scope scope) {
+		Function f = scope.getFunction(this.getFName());
+		List<Expression<?>> args = this.getArgs();
+		CompiledExpression<?>[] arguments = new CompiledExpression<?>[args.size()];
+		for (int i = 0; i < arguments.length; i++)
+			arguments[i] = args.get(i).compile(scope);
+		return frame -> {
+			Object[] values = new Object[arguments.length];
+			for (int i = 0; i < values.length; i++)
+				values[i] = arguments[i].evaluate(frame);
+			return f.call(frame.getProgram(), values);
+		};
 	}
 
 }
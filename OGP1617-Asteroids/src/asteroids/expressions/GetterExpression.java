@@ -1,5 +1,8 @@
 package asteroids.expressions;
 
+import asteroids.model.Entity;
+import asteroids.model.Scope;
+
 public abstract class GetterExpression<D> extends Expression<Double> {
 	
 	private Expression<?> entityex;
@@ -12,8 +15,20 @@ public abstract class GetterExpression<D> extends Expression<Double> {
 		this.entityex = entityexpression;
 	}
 	
-	public boolean canHaveSubExpression(Expression<?> expression) {
-		return expression instanceof EntityExpression;
+	@Override
+	public Type typeCheck(Scope scope) {
+		Expression.checkType(this.getEntityEx(), Type.ENTITY, scope, "Incorrect GetterExpression");
+		return Type.DOUBLE;
+	}
+	
+	public CompiledExpression<Entity> compileEntity(Scope scope) {
+		CompiledExpression<?> entity = Expression.compile(this.getEntityEx(), Type.ENTITY, scope);
+		return frame -> {
+			Entity value = (Entity)entity.evaluate(frame);
+			if (value == null)
+				throw new IllegalArgumentException("No entity for GetterExpression");
+			return value;
+		};
 	}
 	
 }
\ No newline at end of file
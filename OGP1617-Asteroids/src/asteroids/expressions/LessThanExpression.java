@@ -1,8 +1,7 @@
 package asteroids.expressions;
 
+import asteroids.model.Scope;
 import asteroids.part3.programs.SourceLocation;
-import asteroids.statements.BreakException;
-import asteroids.statements.TimerException;
 
 public class LessThanExpression<D> extends Expression<Boolean> {
 	
@@ -33,29 +32,18 @@ public class LessThanExpression<D> extends Expression<Boolean> {
 		this.rightexpression = expression;
 	}
 	
-	public boolean canHaveSubExpression(Expression<?> expression) throws BreakException, TimerException {
-		return expression.evaluate().getClass() == Double.class;
-	}
-	
 	@Override
-	public Boolean evaluate() throws BreakException, TimerException {
-		if (! canHaveSubExpression(leftexpression) || ! canHaveSubExpression(rightexpression)) {
-			throw new IllegalArgumentException("Incorrect LessThanExpression");
-			}
-		else
-			return (double)this.getLeftEx().evaluate() < (double)this.getRightEx().evaluate();
+	public Type typeCheck(Scope scope) {
+		DoubleExpression.checkOperand(this.getLeftEx(), scope, "Incorrect LessThanExpression");
+		DoubleExpression.checkOperand(this.getRightEx(), scope, "Incorrect LessThanExpression");
+		return Type.BOOLEAN;
 	}
-
-	@Override
-	public void setSubProgram() {
-		getLeftEx().setProgram(getProgram());
-		getRightEx().setProgram(getProgram());
-	}
-
+	
 	@Override
-	public void setSubFunction() {
-		getLeftEx().setFunction(this.getFunction());
-		getRightEx().setFunction(this.getFunction());
+	public CompiledExpression<Boolean> compile(Scope scope) {
+		CompiledExpression<?> left = DoubleExpression.compileOperand(this.getLeftEx(), scope);
+		CompiledExpression<?> right = DoubleExpression.compileOperand(this.getRightEx(), scope);
+		return frame -> (Double)left.evaluate(frame) < (Double)right.evaluate(frame);
 	}
 
 }
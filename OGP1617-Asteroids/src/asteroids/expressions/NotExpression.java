@@ -1,8 +1,7 @@
 package asteroids.expressions;
 
+import asteroids.model.Scope;
 import asteroids.part3.programs.SourceLocation;
-import asteroids.statements.BreakException;
-import asteroids.statements.TimerException;
 
 
 public class NotExpression<B> extends Expression<Boolean> {
@@ -23,26 +22,16 @@ public class NotExpression<B> extends Expression<Boolean> {
 		this.subexpression = expression;
 	}
 	
-	public boolean canHaveSubExpression(Expression<?> expression) {
-		return (expression.getClass() == EqualityExpression.class) || (expression.getClass() == LessThanExpression.class);
-	}
-	
 	@Override
-	public Boolean evaluate() throws BreakException, TimerException {
-		if (canHaveSubExpression(this.getSubEx()))
-			return ! (boolean)this.getSubEx().evaluate();
-		else
-			throw new IllegalArgumentException("Incorrect NotExpression");
+	public Type typeCheck(Scope scope) {
+		Expression.checkType(this.getSubEx(), Type.BOOLEAN, scope, "Incorrect NotExpression");
+		return Type.BOOLEAN;
 	}
-
-	@Override
-	public void setSubProgram() {
-		getSubEx().setProgram(getProgram());
-	}
-
+	
 	@Override
-	public void setSubFunction() {
-		getSubEx().setFunction(this.getFunction());
+	public CompiledExpression<Boolean> compile(Scope scope) {
+		CompiledExpression<?> subexpression = Expression.compile(this.getSubEx(), Type.BOOLEAN, scope);
+		return frame -> ! (boolean)subexpression.evaluate(frame);
 	}
 
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package asteroids.expressions;
 
+import asteroids.model.Scope;
 import asteroids.part3.programs.SourceLocation;
 
 public class NullExpression<T> extends Expression<Object> {
@@ -9,16 +10,13 @@ public class NullExpression<T> extends Expression<Object> {
 	}
 	
 	@Override
-	public Object evaluate() {
-		return null;
+	public Type typeCheck(Scope scope) {
+		return Type.ENTITY;
 	}
-
-	@Override
-	public void setSubProgram() {
-	}
-
+	
 	@Override
-	public void setSubFunction() {
+	public CompiledExpression<Object> compile(Scope scope) {
+		return frame -> null;
 	}
 	
 }
\ No newline at end of file
@@ -1,8 +1,7 @@
 package asteroids.expressions;
 
+import asteroids.model.Scope;
 import asteroids.part3.programs.SourceLocation;
-import asteroids.statements.BreakException;
-import asteroids.statements.TimerException;
 
 public class ReadParameterExpression<E> extends Expression<Object> {
 	
@@ -22,23 +21,20 @@ public class ReadParameterExpression<E> extends Expression<Object> {
 	}
 
 	@Override
-	public Object evaluate() throws BreakException, TimerException {
-		if (this.getFunction() == null)
-			throw new IllegalArgumentException("Read parameter outside function");
-		int pos = Integer.valueOf(this.getName().replace("$", ""));
-		try {
-		return this.getFunction().getParameterData().peek().get(pos - 1);
-		} catch (IndexOutOfBoundsException i) {
-			throw new IllegalArgumentException("Not enough arguments!");
-		}
+	public Type typeCheck(Scope scope) {
+		scope.check(scope.isInFunction(), "Read parameter outside function");
+		return Type.ANY;
 	}
 
 	@Override
-	public void setSubProgram() {
-	}
-
-	@Override
-	public void setSubFunction() {
+	public CompiledExpression<Object> compile(Scope scope) {
+		int pos = Integer.valueOf(this.getName().replace("$", "")) - 1;
+		return frame -> {
+			Object[] arguments = frame.getArguments();
+			if (pos < 0 || pos >= arguments.length)
+				throw new IllegalArgumentException("Not enough arguments!");
+			return arguments[pos];
+		};
 	}
 
 }
@@ -1,7 +1,7 @@
 package asteroids.expressions;
 
-import java.util.HashMap;
-
+import asteroids.model.Frame;
+import asteroids.model.Scope;
 import asteroids.part3.programs.SourceLocation;
 
 public class ReadVariableExpression<E> extends Expression<Object> {
@@ -21,34 +21,31 @@ public class ReadVariableExpression<E> extends Expression<Object> {
 		this.variablename = name;
 	}
 	
-	public HashMap<String, Object> getTop() {
-		return this.getProgram().getVariableData().peek();
+	@Override
+	public Type typeCheck(Scope scope) {
+		return scope.getVariableType(this.getName());
 	}
 	
-	public HashMap<String, Object> getBottm() {
-		return this.getProgram().getVariableData().firstElement();
+	@Override
+	public CompiledExpression<Object> compile(Scope scope) {
+		int global = scope.getGlobalSlot(this.getName());
+		if (! scope.isInFunction())
+			return frame -> checkValue(frame.getGlobals()[global]);
+		int local = scope.getLocalSlot(this.getName());
+		return frame -> {
+			Object variable = frame.getLocals()[local];
+			if (variable == null)
+				variable = frame.getGlobals()[global];
+			return checkValue(variable);
+		};
 	}
 	
-	@Override
-	public Object evaluate() {
-		Object variable;
-		if (this.getFunction() != null && getTop().containsKey(variablename))
-			variable = getTop().get(variablename);
-		else if (getBottm().containsKey(variablename))
-			variable = getBottm().get(variablename);
-		else
-			throw new IllegalArgumentException("No value for this variable");
+	private static Object checkValue(Object variable) {
 		if (variable == null)
+			throw new IllegalArgumentException("No value for this variable");
+		if (variable == Frame.NULL)
 			throw new IllegalArgumentException("Incorrect ReadVariable");
 		return variable;
 	}
 
-	@Override
-	public void setSubProgram() {
-	}
-
-	@Override
-	public void setSubFunction() {
-	}
-
 }
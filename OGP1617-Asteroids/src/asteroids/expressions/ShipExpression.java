@@ -1,12 +1,6 @@
 package asteroids.expressions;
 
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.Set;
-import java.util.List;
-import java.util.stream.Collectors;
-
-import asteroids.model.Entity;
+import asteroids.model.Scope;
 import asteroids.model.Ship;
 import asteroids.part3.programs.SourceLocation;
 
@@ -16,45 +10,18 @@ public class ShipExpression<E> extends Expression<Ship> implements EntityExpress
 		this.setLocation(location);
 	}
 	
-	public Ship getEntity() {
-		Set<Entity> entities = this.getProgram().getShip().getWorld().getEntityList();
-		List<Entity> ships = entities.stream()
-									 .filter(e -> e instanceof Ship)
-									 .filter(e -> ! e.equals(getProgram().getShip()))
-									 .collect(Collectors.toList());
-		
-		if (ships.size() == 0)
-			return null;
-		
-		Collections.sort(ships, new Comparator<Entity>() {
-
-			@Override
-			public int compare(Entity e1, Entity e2) {
-				double d1 = getProgram().getShip().getDistanceBetween((Entity)e1);
-				double d2 = getProgram().getShip().getDistanceBetween((Entity)e2);
-				
-				int v = Double.compare(d1, d2);
-				return v;
-			}
-		});
-		
-		Ship closest = (Ship)ships.iterator().next();
-		return closest;
-		
-		
+	public Ship getEntity(Ship ship) {
+		return ship.getWorld().getNearest(ship, Ship.class);
 	}
 	
 	@Override
-	public Ship evaluate() {
-		return this.getEntity();
+	public Type typeCheck(Scope scope) {
+		return Type.ENTITY;
 	}
-
-	@Override
-	public void setSubProgram() {
-	}
-
+	
 	@Override
-	public void setSubFunction() {
+	public CompiledExpression<Ship> compile(Scope scope) {
+		return EntityExpression.compile(this, scope);
 	}
 	
 }
\ No newline at end of file
@@ -1,8 +1,7 @@
 package asteroids.expressions;
 
+import asteroids.model.Scope;
 import asteroids.part3.programs.SourceLocation;
-import asteroids.statements.BreakException;
-import asteroids.statements.TimerException;
 
 public class SqrtExpression<D> extends DoubleExpression<Double> {
 
@@ -22,21 +21,15 @@ public class SqrtExpression<D> extends DoubleExpression<Double> {
 	}
 	
 	@Override
-	public Double evaluate() throws BreakException, TimerException {
-		if (canHaveSubExpression(getSubEx()))
-			return Math.sqrt((Double)this.getSubEx().evaluate());
-		else
-			throw new IllegalArgumentException("Incorrect SqrtExpression");
+	public Type typeCheck(Scope scope) {
+		checkOperand(this.getSubEx(), scope, "Incorrect SqrtExpression");
+		return Type.DOUBLE;
 	}
-
-	@Override
-	public void setSubProgram() {
-		getSubEx().setProgram(getProgram());
-	}
-
+	
 	@Override
-	public void setSubFunction() {
-		getSubEx().setFunction(this.getFunction());
+	public CompiledExpression<Double> compile(Scope scope) {
+		CompiledExpression<?> subexpression = compileOperand(this.getSubEx(), scope);
+		return frame -> Math.sqrt((Double)subexpression.evaluate(frame));
 	}
 	
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package asteroids.expressions;
 
+import asteroids.model.Scope;
 import asteroids.model.Ship;
 import asteroids.part3.programs.SourceLocation;
 
@@ -10,21 +11,18 @@ public class ThisExpression<E> extends Expression<Ship> implements EntityExpress
 	}
 	
 	@Override
-	public Ship evaluate() {
-		return this.getEntity();
+	public Type typeCheck(Scope scope) {
+		return Type.ENTITY;
 	}
-
-	@Override
-	public void setSubProgram() {
-	}
-
+	
 	@Override
-	public void setSubFunction() {
+	public CompiledExpression<Ship> compile(Scope scope) {
+		return frame -> frame.getShip();
 	}
 
 	@Override
-	public Ship getEntity() {
-		return this.getProgram().getShip();
+	public Ship getEntity(Ship ship) {
+		return ship;
 	}
 	
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package asteroids.expressions;
+
+import asteroids.model.Entity;
+
+/**
+ * An enumeration of the static types of the expressions of a program. The type of an expression whose value is
+ * only known while the program runs, such as a parameter of a function, is ANY. Null is an entity.
+ *
+ * @version 3.0
+ * @author Bernardo Saniz, Elien Vlaeyen
+ */
+public enum Type {
+
+	DOUBLE {
+		@Override
+		public boolean hasAsValue(Object value) {
+			return value instanceof Double;
+		}
+	},
+
+	BOOLEAN {
+		@Override
+		public boolean hasAsValue(Object value) {
+			return value instanceof Boolean;
+		}
+	},
+
+	ENTITY {
+		@Override
+		public boolean hasAsValue(Object value) {
+			return (value == null) || (value instanceof Entity);
+		}
+	},
+
+	ANY {
+		@Override
+		public boolean hasAsValue(Object value) {
+			return true;
+		}
+	};
+
+	/**
+	 * Returns whether the given value is a value of this type.
+	 */
+	public abstract boolean hasAsValue(Object value);
+
+	/**
+	 * Returns whether an expression of the given type may have a value of this type. The type of an expression
+	 * whose type is not known yet is null.
+	 *
+	 * @return True if and only if the given type is null, ANY or this type.
+	 *  | result == (type == null || type == ANY || type == this)
+	 */
+	public boolean canHaveAsType(Type type) {
+		return (type == null) || (type == ANY) || (type == this);
+	}
+
+	/**
+	 * Returns the type of a value that is either of the given type or of the other given type. Types that are not
+	 * known yet are null.
+	 *
+	 * @return The other type if the given type is null, the given type if the other type is null or the same as
+	 *  the given type, ANY otherwise.
+	 */
+	public static Type join(Type type, Type other) {
+		if (type == null)
+			return other;
+		if (other == null || other == type)
+			return type;
+		return ANY;
+	}
+
+}
@@ -1,9 +1,8 @@
 package asteroids.expressions;
 
 import asteroids.model.Entity;
+import asteroids.model.Scope;
 import asteroids.part3.programs.SourceLocation;
-import asteroids.statements.BreakException;
-import asteroids.statements.TimerException;
 
 public class XPosExpression<D> extends GetterExpression<Double> {
 
@@ -13,21 +12,9 @@ public class XPosExpression<D> extends GetterExpression<Double> {
 	}
 	
 	@Override
-	public Double evaluate() throws BreakException, TimerException {
-		if (canHaveSubExpression(this.getEntityEx()))
-			return ((Entity)this.getEntityEx().evaluate()).getPos().getX();
-		else
-			throw new IllegalArgumentException("Incorrect GetterExpression");
-	}
-
-	@Override
-	public void setSubProgram() {
-		getEntityEx().setProgram(getProgram());
-	}
-
-	@Override
-	public void setSubFunction() {
-		getEntityEx().setFunction(this.getFunction());
+	public CompiledExpression<Double> compile(Scope scope) {
+		CompiledExpression<Entity> entity = this.compileEntity(scope);
+		return frame -> entity.evaluate(frame).getXPosition();
 	}
 
 }
\ No newline at end of file
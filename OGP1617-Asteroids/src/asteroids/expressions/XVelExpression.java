@@ -1,9 +1,8 @@
 package asteroids.expressions;
 
 import asteroids.model.Entity;
+import asteroids.model.Scope;
 import asteroids.part3.programs.SourceLocation;
-import asteroids.statements.BreakException;
-import asteroids.statements.TimerException;
 
 public class XVelExpression<D> extends GetterExpression<Double> {
 
@@ -13,21 +12,9 @@ public class XVelExpression<D> extends GetterExpression<Double> {
 	}
 	
 	@Override
-	public Double evaluate() throws BreakException, TimerException {
-		if (canHaveSubExpression(getEntityEx()))
-			return ((Entity)this.getEntityEx().evaluate()).getVel().getX();
-		else
-			throw new IllegalArgumentException("Incorrect GetterExpression");
-	}
-	
-	@Override
-	public void setSubProgram() {
-		getEntityEx().setProgram(getProgram());
-	}
-
-	@Override
-	public void setSubFunction() {
-		getEntityEx().setFunction(this.getFunction());
+	public CompiledExpression<Double> compile(Scope scope) {
+		CompiledExpression<Entity> entity = this.compileEntity(scope);
+		return frame -> entity.evaluate(frame).getXVelocity();
 	}
 
 }
\ No newline at end of file
@@ -502,7 +502,11 @@ public class Facade implements IFacade {
 
 	@Override
 	public void loadProgramOnShip(Ship ship, Program program) throws ModelException {
-		ship.setProgram(program);
+		try {
+			ship.setProgram(program);
+		} catch (IllegalArgumentException e) {
+			throw new ModelException(e.getMessage());
+		}
 	}
 
 	@Override
@@ -0,0 +1,186 @@
+package asteroids.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import asteroids.statements.CompiledStatement;
+import asteroids.statements.Instruction;
+import asteroids.statements.Statement;
+
+/**
+ * A class of flat instruction sequences into which the main statement of a program is compiled. Each instruction
+ * returns the index of the instruction to be executed next, or suspends the program until it gets more time, so a
+ * suspended program resumes at the instruction it stopped at.
+ * Every instruction also knows the end of the innermost while loop around it, which is where execution continues
+ * when a break is raised while that instruction executes.
+ * Code is only built while it is constructed; afterwards it is immutable, so it can be shared by programs that run
+ * on different threads.
+ *
+ * @version 3.0
+ * @author Bernardo Saniz, Elien Vlaeyen
+ */
+public final class Code {
+
+	/**
+	 * Initializes this code as the given statement, compiled in the given scope.
+	 *
+	 * @param main
+	 *  The statement to compile
+	 * @param scope
+	 *  The scope in which the statement is compiled
+	 * @throws IllegalStateException if the compiled statement leaves a loop open.
+	 */
+	public Code(Statement main, Scope scope) throws IllegalStateException {
+		main.compile(scope, this);
+		if (this.isInLoop())
+			throw new IllegalStateException("Loop not closed");
+		int[] targets = new int[this.size()];
+		for (int i = 0; i < targets.length; i++)
+			targets[i] = (this.loops.get(i) < 0) ? -1 : this.ends.get(this.loops.get(i));
+		this.breaktargets = targets;
+	}
+
+	/**
+	 * The instructions of this code
+	 */
+	private final List<Instruction> instructions = new ArrayList<Instruction>();
+
+	/**
+	 * For each instruction of this code, the innermost loop around it, -1 if there is none
+	 */
+	private final List<Integer> loops = new ArrayList<Integer>();
+
+	/**
+	 * For each loop of this code, the index of the first instruction after it
+	 */
+	private final List<Integer> ends = new ArrayList<Integer>();
+
+	/**
+	 * The loop to which new instructions are added, -1 if there is none
+	 */
+	private int loop = -1;
+
+	/**
+	 * For each loop of this code, the loop around it, -1 if there is none
+	 */
+	private final List<Integer> outerloops = new ArrayList<Integer>();
+
+	/**
+	 * The index of the first instruction after the innermost loop around each instruction, -1 if there is none.
+	 * Null while this code is built.
+	 */
+	private final int[] breaktargets;
+
+	/**
+	 * Returns whether this code is completely built.
+	 */
+	public boolean isFinished() {
+		return this.breaktargets != null;
+	}
+
+	/**
+	 * Checks that this code is still being built.
+	 *
+	 * @throws IllegalStateException if this code is finished.
+	 *  | isFinished()
+	 */
+	private void checkNotFinished() throws IllegalStateException {
+		if (this.isFinished())
+			throw new IllegalStateException("Code is finished");
+	}
+
+	/**
+	 * Returns the number of instructions of this code.
+	 */
+	public int size() {
+		return this.instructions.size();
+	}
+
+	/**
+	 * Returns the instruction at the given index.
+	 */
+	public Instruction get(int pc) {
+		return this.instructions.get(pc);
+	}
+
+	/**
+	 * Adds the given instruction at the end of this code, in the innermost loop that is open.
+	 *
+	 * @return The index of the added instruction.
+	 * @throws IllegalStateException if this code is finished.
+	 *  | isFinished()
+	 */
+	public int add(Instruction instruction) throws IllegalStateException {
+		this.checkNotFinished();
+		this.instructions.add(instruction);
+		this.loops.add(this.loop);
+		return this.size() - 1;
+	}
+
+	/**
+	 * Adds the given statement at the end of this code, as an instruction that continues with the next one.
+	 *
+	 * @return The index of the added instruction.
+	 */
+	public int add(CompiledStatement statement) {
+		return this.add((frame, pc) -> {
+			statement.execute(frame);
+			return pc + 1;
+		});
+	}
+
+	/**
+	 * Replaces the instruction at the given index by the given instruction.
+	 *
+	 * @throws IllegalStateException if this code is finished.
+	 *  | isFinished()
+	 */
+	public void set(int pc, Instruction instruction) throws IllegalStateException {
+		this.checkNotFinished();
+		this.instructions.set(pc, instruction);
+	}
+
+	/**
+	 * Opens a new loop, nested in the innermost loop that is open. All instructions added until the loop is
+	 * closed belong to it.
+	 *
+	 * @throws IllegalStateException if this code is finished.
+	 *  | isFinished()
+	 */
+	public void openLoop() throws IllegalStateException {
+		this.checkNotFinished();
+		this.outerloops.add(this.loop);
+		this.ends.add(-1);
+		this.loop = this.ends.size() - 1;
+	}
+
+	/**
+	 * Closes the innermost loop that is open. A break in the loop continues at the instruction that is added next.
+	 *
+	 * @throws IllegalStateException if there is no open loop, or if this code is finished.
+	 *  | ! isInLoop() || isFinished()
+	 */
+	public void closeLoop() throws IllegalStateException {
+		this.checkNotFinished();
+		if (! this.isInLoop())
+			throw new IllegalStateException("No open loop");
+		this.ends.set(this.loop, this.size());
+		this.loop = this.outerloops.get(this.loop);
+	}
+
+	/**
+	 * Returns whether instructions are added to a loop.
+	 */
+	public boolean isInLoop() {
+		return this.loop >= 0;
+	}
+
+	/**
+	 * Returns the index at which execution continues when a break is raised while the instruction at the given
+	 * index executes, -1 if that instruction is not in a loop.
+	 */
+	public int getBreakTarget(int pc) {
+		return this.breaktargets[pc];
+	}
+
+}
@@ -0,0 +1,223 @@
+package asteroids.model;
+
+import java.util.List;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Value;
+
+/**
+ * A class of predicted collisions between an entity and the boundaries of its world, or between two entities.
+ *
+ * @invar The first entity of a collision between two entities has the smallest identifier.
+ *  | getSecondEntity() == null || getFirstEntity().getId() < getSecondEntity().getId()
+ *
+ * @version 2.0
+ * @author Bernardo Saniz, Elien Vlaeyen
+ */
+@Value
+class CollisionEvent implements Comparable<CollisionEvent> {
+
+	/**
+	 * Initializes this collision with the given time and the given entities. The collision is only valid as long as
+	 * the predicted collisions of its entities are not invalidated.
+	 *
+	 * @param time
+	 *  The time at which the collision will happen
+	 * @param entity1
+	 *  The first entity taking part in the collision
+	 * @param entity2
+	 *  The second entity taking part in the collision, or null for a collision with the boundaries
+	 */
+	CollisionEvent(double time, Entity entity1, Entity entity2) {
+		this.time = time;
+		if (entity2 != null && entity2.getId() < entity1.getId()) {
+			this.entity1 = entity2;
+			this.entity2 = entity1;
+		}
+		else {
+			this.entity1 = entity1;
+			this.entity2 = entity2;
+		}
+		this.count1 = this.entity1.getEventCount();
+		this.count2 = (this.entity2 == null) ? 0 : this.entity2.getEventCount();
+	}
+
+
+
+
+	/**
+	 * The time at which this collision happens
+	 */
+	private final double time;
+
+	/**
+	 * Returns the time at which this collision happens.
+	 */
+	@Basic @Immutable
+	public double getTime() {
+		return this.time;
+	}
+
+
+
+
+	/**
+	 * The entity with the smallest identifier taking part in this collision
+	 */
+	private final Entity entity1;
+
+	/**
+	 * The other entity taking part in this collision, null if this is a boundary collision
+	 */
+	private final Entity entity2;
+
+	/**
+	 * Returns the first entity taking part in this collision.
+	 */
+	@Basic @Immutable
+	public Entity getFirstEntity() {
+		return this.entity1;
+	}
+
+	/**
+	 * Returns the second entity taking part in this collision, null if this is a collision with the boundaries.
+	 */
+	@Basic @Immutable
+	public Entity getSecondEntity() {
+		return this.entity2;
+	}
+
+	/**
+	 * Returns whether or not this is a collision with the boundaries of the world.
+	 *
+	 * @return True if and only if there is no second entity.
+	 *  | result == (this.getSecondEntity() == null)
+	 */
+	public boolean isBoundaryCollision() {
+		return this.getSecondEntity() == null;
+	}
+
+	/**
+	 * The number of invalidations of the first entity at the time this collision was predicted
+	 */
+	private final int count1;
+	
+	/**
+	 * The number of invalidations of the second entity at the time this collision was predicted
+	 */
+	private final int count2;
+	
+	/**
+	 * Returns whether or not this collision is still valid in the given world.
+	 *
+	 * @param world
+	 *  The world in which the collision is predicted
+	 * @return True if and only if all entities of this collision are still in the given world and none of their
+	 * 		   predicted collisions have been invalidated since this collision was predicted.
+	 */
+	public boolean isValid(World world) {
+		if (this.getFirstEntity().getWorld() != world || this.getFirstEntity().getEventCount() != this.count1)
+			return false;
+		return this.isBoundaryCollision()
+				|| (this.getSecondEntity().getWorld() == world && this.getSecondEntity().getEventCount() == this.count2);
+	}
+
+	/**
+	 * Returns the position at which this collision happens.
+	 *
+	 * @return The collision position of the first entity with the boundaries or with the second entity.
+	 *  | if this.isBoundaryCollision()
+	 *  |	then result == this.getFirstEntity().getCollisionPosition()
+	 *  | else result == this.getFirstEntity().getCollisionPosition(this.getSecondEntity())
+	 */
+	public double[] getPosition() {
+		if (this.isBoundaryCollision())
+			return this.getFirstEntity().getCollisionPosition();
+		return this.getFirstEntity().getCollisionPosition(this.getSecondEntity());
+	}
+
+
+
+
+	/**
+	 * Compares this collision with another one. Earlier collisions come first, collisions at the same time are
+	 * ordered by the identifiers of their entities, with boundary collisions before entity collisions.
+	 *
+	 * @param other
+	 *  The collision to compare with
+	 * @return A negative number if this collision comes first, a positive number if the other collision comes first,
+	 * 		   zero if both collisions are equal.
+	 */
+	@Override
+	public int compareTo(CollisionEvent other) {
+		int result = Double.compare(this.getTime(), other.getTime());
+		if (result != 0)
+			return result;
+		result = Long.compare(this.getFirstEntity().getId(), other.getFirstEntity().getId());
+		if (result != 0)
+			return result;
+		return Long.compare(getSecondId(this), getSecondId(other));
+	}
+
+	/**
+	 * Returns the identifier of the second entity of the given collision, or -1 for boundary collisions.
+	 */
+	private static long getSecondId(CollisionEvent event) {
+		return event.isBoundaryCollision() ? -1 : event.getSecondEntity().getId();
+	}
+
+	/**
+	 * Adds the given collision to the given list of earliest collisions, all of which happen at the same time.
+	 *
+	 * @param earliest
+	 *  The earliest collisions so far
+	 * @param event
+	 *  The collision to be offered
+	 * @post If the given collision happens before the collisions in the list, the list only contains the given
+	 * 		 collision. If it happens at the same time, it is added to the list.
+	 */
+	static void offer(List<CollisionEvent> earliest, CollisionEvent event) {
+		if (earliest.isEmpty() || event.getTime() < earliest.get(0).getTime()) {
+			earliest.clear();
+			earliest.add(event);
+		}
+		else if (event.getTime() == earliest.get(0).getTime())
+			earliest.add(event);
+	}
+
+	/**
+	 * Returns the earliest collisions of two lists of earliest collisions.
+	 *
+	 * @param first
+	 *  The first list of collisions happening at the same time
+	 * @param second
+	 *  The second list of collisions happening at the same time
+	 * @return The list whose collisions happen first; if both happen at the same time, the first list to which
+	 * 		   all collisions of the second list have been added.
+	 */
+	static List<CollisionEvent> merge(List<CollisionEvent> first, List<CollisionEvent> second) {
+		if (second.isEmpty())
+			return first;
+		if (first.isEmpty() || second.get(0).getTime() < first.get(0).getTime())
+			return second;
+		if (second.get(0).getTime() == first.get(0).getTime())
+			first.addAll(second);
+		return first;
+	}
+
+
+
+
+	@Override
+	public boolean equals(Object other) {
+		if (! (other instanceof CollisionEvent))
+			return false;
+		return this.compareTo((CollisionEvent) other) == 0;
+	}
+
+	@Override
+	public int hashCode() {
+		return Double.hashCode(this.getTime()) * 31 + Long.hashCode(this.getFirstEntity().getId());
+	}
+}
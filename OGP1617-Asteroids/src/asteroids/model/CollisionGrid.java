@@ -0,0 +1,201 @@
+package asteroids.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+
+import be.kuleuven.cs.som.annotate.Basic;
+
+/**
+ * A class of uniform grids dividing a world into square cells, each cell containing the entities whose
+ * center lies within it. The grid is used as a broad phase when looking for the next collision in a world:
+ * only entities in nearby cells have to be checked against each other.
+ *
+ * @invar Every entity in the grid is stored in exactly one cell, the one containing its center.
+ *
+ * @version 2.0
+ * @author Bernardo Saniz, Elien Vlaeyen
+ */
+class CollisionGrid {
+
+	/**
+	 * The length of the sides of the cells of this grid, zero if the grid has not been built yet
+	 */
+	private double cellsize = 0;
+
+	/**
+	 * A map containing the entities in each non-empty cell of this grid, with the key of the cell as their key
+	 */
+	private final HashMap<Long, List<Entity>> cells = new HashMap<Long, List<Entity>>();
+
+	/**
+	 * A map containing the key of the cell of each entity in this grid
+	 */
+	private final HashMap<Entity, Long> entitycells = new HashMap<Entity, Long>();
+
+	/**
+	 * Returns the length of the sides of the cells of this grid.
+	 */
+	@Basic
+	public double getCellSize() {
+		return this.cellsize;
+	}
+
+	/**
+	 * Returns whether or not this grid has been built.
+	 */
+	public boolean isBuilt() {
+		return this.getCellSize() > 0;
+	}
+
+	/**
+	 * Returns the number of entities in this grid.
+	 */
+	public int size() {
+		return this.entitycells.size();
+	}
+
+
+
+
+	/**
+	 * Rebuilds this grid with the given cell size, containing the given entities.
+	 *
+	 * @param entities
+	 *  The entities to be placed in the grid
+	 * @param cellsize
+	 *  The new length of the sides of the cells
+	 */
+	public void rebuild(Collection<Entity> entities, double cellsize) {
+		this.clear();
+		this.cellsize = cellsize;
+		for (Entity entity : entities)
+			this.add(entity);
+	}
+
+	/**
+	 * Removes all entities from this grid. The grid has to be rebuilt before it is used again.
+	 */
+	public void clear() {
+		this.cells.clear();
+		this.entitycells.clear();
+		this.cellsize = 0;
+	}
+
+	/**
+	 * Adds the given entity to the cell containing its center. Nothing happens if the grid has not been built.
+	 *
+	 * @param entity
+	 *  The entity to be added
+	 */
+	public void add(Entity entity) {
+		if (! this.isBuilt())
+			return;
+		Long key = this.getKey(entity.getXPosition(), entity.getYPosition());
+		this.entitycells.put(entity, key);
+		List<Entity> cell = this.cells.get(key);
+		if (cell == null) {
+			cell = new ArrayList<Entity>(4);
+			this.cells.put(key, cell);
+		}
+		cell.add(entity);
+	}
+
+	/**
+	 * Removes the given entity from this grid, if it is in this grid.
+	 *
+	 * @param entity
+	 *  The entity to be removed
+	 */
+	public void remove(Entity entity) {
+		Long key = this.entitycells.remove(entity);
+		if (key == null)
+			return;
+		List<Entity> cell = this.cells.get(key);
+		cell.remove(entity);
+		if (cell.isEmpty())
+			this.cells.remove(key);
+	}
+
+	/**
+	 * Moves the given entity to the cell containing its current center. Only entities that changed cells
+	 * cause any changes to this grid.
+	 *
+	 * @param entity
+	 *  The entity whose position has changed
+	 */
+	public void update(Entity entity) {
+		if (! this.isBuilt())
+			return;
+		Long key = this.entitycells.get(entity);
+		if (key != null && key.longValue() == this.getKey(entity.getXPosition(), entity.getYPosition()))
+			return;
+		this.remove(entity);
+		this.add(entity);
+	}
+
+
+
+
+	/**
+	 * Adds all entities within the cells overlapping the square with the given center and half side to the given
+	 * collection. If this square covers more cells than there are entities in this grid, nothing is added.
+	 *
+	 * @param x
+	 *  The x coordinate of the center of the square
+	 * @param y
+	 *  The y coordinate of the center of the square
+	 * @param reach
+	 *  Half of the side of the square
+	 * @param result
+	 *  The collection to which the entities are added
+	 * @return True if and only if the entities have been added; false if scanning all entities in this grid
+	 * 		   is cheaper than scanning the cells.
+	 */
+	public boolean collect(double x, double y, double reach, Collection<Entity> result) {
+		if (! this.isBuilt() || Double.isNaN(reach) || Double.isInfinite(reach))
+			return false;
+		long minx = this.getIndex(x - reach);
+		long maxx = this.getIndex(x + reach);
+		long miny = this.getIndex(y - reach);
+		long maxy = this.getIndex(y + reach);
+		double nbcells = (double) (maxx - minx + 1) * (double) (maxy - miny + 1);
+		if (nbcells > this.size())
+			return false;
+		for (long i = minx; i <= maxx; i++)
+			for (long j = miny; j <= maxy; j++) {
+				List<Entity> cell = this.cells.get(getKey(i, j));
+				if (cell != null)
+					for (int k = 0; k < cell.size(); k++)
+						result.add(cell.get(k));
+			}
+		return true;
+	}
+
+	/**
+	 * Returns the index of the column or row containing the given coordinate.
+	 */
+	private long getIndex(double coordinate) {
+		double index = Math.floor(coordinate / this.getCellSize());
+		if (index > Integer.MAX_VALUE)
+			return Integer.MAX_VALUE;
+		if (index < Integer.MIN_VALUE)
+			return Integer.MIN_VALUE;
+		return (long) index;
+	}
+
+	/**
+	 * Returns the key of the cell containing the given position.
+	 */
+	private long getKey(double x, double y) {
+		return getKey(this.getIndex(x), this.getIndex(y));
+	}
+
+	/**
+	 * Returns the key of the cell with the given column and row.
+	 */
+	private static long getKey(long column, long row) {
+		return (column << 32) ^ (row & 0xffffffffL);
+	}
+}
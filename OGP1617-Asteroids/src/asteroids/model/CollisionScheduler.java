@@ -0,0 +1,267 @@
+package asteroids.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import be.kuleuven.cs.som.annotate.Basic;
+
+/**
+ * A class of schedulers keeping the predicted collisions in a world during one call to evolve, ordered by their
+ * time. Instead of searching the whole world for the next collision after every collision, only the predictions
+ * of the entities that took part in it are recomputed. Collisions of which an entity has been invalidated since
+ * they were predicted are skipped when they reach the front of the queue.
+ *
+ * @invar The time of this scheduler lies between zero and its duration.
+ *  | getTime() >= 0 && getTime() <= getDuration()
+ *
+ * @version 2.0
+ * @author Bernardo Saniz, Elien Vlaeyen
+ */
+class CollisionScheduler {
+
+	/**
+	 * Initializes this scheduler for the given world and the given duration.
+	 *
+	 * @param world
+	 *  The world whose collisions will be scheduled
+	 * @param duration
+	 *  The duration of the evolution of the world
+	 */
+	CollisionScheduler(World world, double duration) {
+		this.world = world;
+		this.duration = duration;
+	}
+
+
+
+
+	/**
+	 * The world whose collisions are scheduled
+	 */
+	private final World world;
+
+	/**
+	 * The duration of the evolution of the world
+	 */
+	private final double duration;
+
+	/**
+	 * The time that has passed since the start of the evolution of the world
+	 */
+	private double time = 0;
+
+	/**
+	 * Returns the world whose collisions are scheduled.
+	 */
+	@Basic
+	public World getWorld() {
+		return this.world;
+	}
+
+	/**
+	 * Returns the duration of the evolution of the world.
+	 */
+	@Basic
+	public double getDuration() {
+		return this.duration;
+	}
+
+	/**
+	 * Returns the time that has passed since the start of the evolution of the world.
+	 */
+	@Basic
+	public double getTime() {
+		return this.time;
+	}
+
+	/**
+	 * Sets the time that has passed since the start of the evolution of the world.
+	 *
+	 * @param time
+	 *  The new time
+	 */
+	public void setTime(double time) {
+		this.time = time;
+	}
+
+
+
+
+	/**
+	 * The queue of predicted collisions, with times relative to the start of the evolution
+	 */
+	private final PriorityQueue<CollisionEvent> queue = new PriorityQueue<CollisionEvent>();
+
+	/**
+	 * The entities whose collisions have to be predicted again
+	 */
+	private Set<Entity> pending = new LinkedHashSet<Entity>();
+
+	/**
+	 * The entities whose collisions are being predicted again by update. This set is swapped with the set of
+	 * pending entities, so that neither has to be created again.
+	 */
+	private Set<Entity> updating = new LinkedHashSet<Entity>();
+
+	/**
+	 * The list reused by update to hold the candidates for a collision with a predicted entity
+	 */
+	private final List<Entity> candidates = new ArrayList<Entity>();
+
+	/**
+	 * The largest radius of all entities seen by this scheduler
+	 */
+	private double maxradius = 0;
+
+	/**
+	 * The largest speed of all entities seen by this scheduler
+	 */
+	private double maxspeed = 0;
+
+	/**
+	 * Predicts the collisions of all entities in the world. If the world contains more entities than its parallel
+	 * threshold, the predictions are split over the collision pool of the world.
+	 */
+	public void start() {
+		for (Entity entity : this.getWorld().getEntityList())
+			this.observe(entity);
+		this.getWorld().fitGrid(this.maxradius, this.maxspeed, this.getDuration());
+		Set<Entity> group = this.getWorld().getEntityList();
+		List<CollisionEvent> events = EntityScan.scan(this.getWorld().getCollisionPool(),
+				this.getWorld().getParallelThreshold(), group.toArray(new Entity[0]),
+				(range, from, to) -> {
+					List<CollisionEvent> predicted = new ArrayList<CollisionEvent>();
+					List<Entity> candidates = new ArrayList<Entity>();
+					for (int i = from; i < to; i++)
+						this.predict(range[i], group, predicted, candidates);
+					return predicted;
+				}, (first, second) -> {
+					first.addAll(second);
+					return first;
+				});
+		this.queue.addAll(events);
+	}
+
+	/**
+	 * Invalidates all predicted collisions of the given entity. Its collisions are predicted again on the next call
+	 * to update.
+	 *
+	 * @param entity
+	 *  The entity whose state has changed
+	 */
+	public void invalidate(Entity entity) {
+		entity.invalidateEvents();
+		this.pending.add(entity);
+	}
+
+	/**
+	 * Predicts the collisions of all entities that have been invalidated and are still in the world.
+	 */
+	public void update() {
+		if (this.pending.isEmpty())
+			return;
+		Set<Entity> entities = this.pending;
+		this.pending = this.updating;
+		this.updating = entities;
+		for (Entity entity : entities)
+			if (entity.getWorld() == this.getWorld())
+				this.observe(entity);
+		for (Entity entity : entities)
+			if (entity.getWorld() == this.getWorld())
+				this.predict(entity, entities, this.queue, this.candidates);
+		entities.clear();
+	}
+
+	/**
+	 * Returns the next valid collision, removing it from the queue. Invalid collisions in front of it are discarded.
+	 *
+	 * @return The earliest valid collision happening no later than the end of the evolution, null if there is none.
+	 */
+	public CollisionEvent next() {
+		while (! this.queue.isEmpty() && this.queue.peek().getTime() <= this.getDuration()) {
+			CollisionEvent event = this.queue.poll();
+			if (event.isValid(this.getWorld()))
+				return event;
+		}
+		return null;
+	}
+
+	/**
+	 * Removes all valid collisions happening at the given time from the queue and adds them to the given contacts.
+	 *
+	 * @param time
+	 *  The time of the collisions
+	 * @param contacts
+	 *  The set of contacts to which the collisions are added
+	 */
+	public void pollSimultaneous(double time, ContactSet contacts) {
+		while (! this.queue.isEmpty() && this.queue.peek().getTime() <= time) {
+			CollisionEvent event = this.queue.poll();
+			if (event.isValid(this.getWorld()))
+				contacts.add(event);
+		}
+	}
+
+	/**
+	 * Takes the radius and speed of the given entity into account for the reach of future predictions.
+	 */
+	private void observe(Entity entity) {
+		this.maxradius = Math.max(this.maxradius, entity.getRadius());
+		this.maxspeed = Math.max(this.maxspeed, entity.getTotalSpeed());
+	}
+
+	/**
+	 * Adds all collisions of the given entity happening before the end of the evolution to the given collection.
+	 * Only entities that can be reached before the entity collides with the boundaries are checked, since the
+	 * entity will be predicted again at that collision.
+	 *
+	 * @param entity
+	 *  The entity whose collisions are predicted
+	 * @param group
+	 *  The entities whose collisions are predicted together with the given entity. Entities of this group with
+	 *  a smaller identifier are skipped, so that every pair is only checked once.
+	 * @param events
+	 *  The collection to which the predicted collisions are added
+	 * @param candidates
+	 *  The list in which the candidates for a collision with the given entity are collected
+	 */
+	private void predict(Entity entity, Set<Entity> group, Collection<CollisionEvent> events, List<Entity> candidates) {
+		double remaining = this.getDuration() - this.getTime();
+		double horizon = remaining;
+		double boundarytime = entity.getTimeToCollision();
+		if (boundarytime > 0 && boundarytime <= remaining) {
+			events.add(new CollisionEvent(this.getTime() + boundarytime, entity, null));
+			horizon = boundarytime;
+		}
+		double reach = entity.getRadius() + this.maxradius;
+		double speed = entity.getTotalSpeed() + this.maxspeed;
+		if (speed > 0)
+			reach += speed * horizon;
+		candidates.clear();
+		if (this.getWorld().getGrid().collect(entity.getXPosition(), entity.getYPosition(), reach, candidates)) {
+			for (int i = 0; i < candidates.size(); i++)
+				this.predict(entity, candidates.get(i), group, horizon, events);
+			candidates.clear();
+		}
+		else
+			for (Entity other : this.getWorld().getEntityList())
+				this.predict(entity, other, group, horizon, events);
+	}
+
+	/**
+	 * Adds the collision between the given entities to the given collection, if it happens within the given horizon.
+	 * The other entity is skipped if it is the entity itself, or if it belongs to the given group and has a smaller
+	 * identifier than the entity.
+	 */
+	private void predict(Entity entity, Entity other, Set<Entity> group, double horizon, Collection<CollisionEvent> events) {
+		if (other == entity || (other.getId() < entity.getId() && group.contains(other)))
+			return;
+		double time = entity.getTimeToCollision(other);
+		if (time > 0 && time <= horizon)
+			events.add(new CollisionEvent(this.getTime() + time, entity, other));
+	}
+}
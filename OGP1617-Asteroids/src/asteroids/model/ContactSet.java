@@ -0,0 +1,205 @@
+package asteroids.model;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import asteroids.part2.CollisionListener;
+
+/**
+ * A class of sets of contacts: collisions between an entity and the boundaries of its world, or between two
+ * entities, that have to be resolved at the same moment. Each contact is kept only once, identified by the
+ * identifiers of its entities, so that it is resolved exactly once however often it has been found.
+ *
+ * @version 2.0
+ * @author Bernardo Saniz, Elien Vlaeyen
+ */
+class ContactSet {
+
+	/**
+	 * The keys of the contacts in this set. The key of a boundary contact is the identifier of its entity
+	 * followed by -1, the key of an entity contact consists of the identifiers of both its entities.
+	 */
+	private final Set<ContactKey> keys = new HashSet<ContactKey>();
+
+	/**
+	 * The boundary contacts in this set, in the order in which they were added
+	 */
+	private final List<CollisionEvent> boundarycontacts = new ArrayList<CollisionEvent>();
+
+	/**
+	 * The entity contacts in this set, in the order in which they were added
+	 */
+	private final List<CollisionEvent> entitycontacts = new ArrayList<CollisionEvent>();
+
+	/**
+	 * Returns the number of contacts in this set.
+	 */
+	public int size() {
+		return this.keys.size();
+	}
+
+	/**
+	 * Returns whether or not this set contains no contacts.
+	 */
+	public boolean isEmpty() {
+		return this.keys.isEmpty();
+	}
+
+	/**
+	 * Adds the given collision to this set, unless a contact between the same entities is already in it.
+	 *
+	 * @param event
+	 *  The collision to be added
+	 * @return True if and only if the collision has been added.
+	 */
+	public boolean add(CollisionEvent event) {
+		Entity other = event.getSecondEntity();
+		if (! this.keys.add(new ContactKey(event.getFirstEntity().getId(), (other == null) ? -1 : other.getId())))
+			return false;
+		if (other == null)
+			this.boundarycontacts.add(event);
+		else
+			this.entitycontacts.add(event);
+		return true;
+	}
+
+	/**
+	 * Removes all contacts from this set.
+	 */
+	public void clear() {
+		this.keys.clear();
+		this.boundarycontacts.clear();
+		this.entitycontacts.clear();
+	}
+
+	/**
+	 * Resolves all contacts in this set in the given world, boundary contacts first. Contacts of which an entity
+	 * is no longer in the world, or that do not appear to happen, are skipped. The given listener, if any, is
+	 * notified of every contact just before it is resolved.
+	 *
+	 * @param world
+	 *  The world in which the contacts happen
+	 * @param collisionListener
+	 *  The listener to be notified of the contacts, or null
+	 * @effect Every boundary contact whose entity apparently collides with the world is resolved, after notifying
+	 *  the given listener.
+	 *  | for contact in boundary contacts
+	 *  |	if contact.getFirstEntity().apparentlyCollides(world)
+	 *  |		then if collisionListener != null
+	 *  |				then collisionListener.boundaryCollision(contact.getFirstEntity(), ...)
+	 *  |			 contact.getFirstEntity().collide(world)
+	 * @effect Every entity contact whose entities apparently collide is resolved, after notifying the given
+	 *  listener.
+	 *  | for contact in entity contacts
+	 *  |	if contact.getFirstEntity().getWorld() == world && contact.getSecondEntity().getWorld() == world &&
+	 *  |			contact.getFirstEntity().apparentlyCollides(contact.getSecondEntity())
+	 *  |		then if collisionListener != null
+	 *  |				then collisionListener.objectCollision(contact.getFirstEntity(), contact.getSecondEntity(), ...)
+	 *  |			 contact.getFirstEntity().collide(contact.getSecondEntity())
+	 */
+	public void resolve(World world, CollisionListener collisionListener) {
+		for (int i = 0; i < this.boundarycontacts.size(); i++) {
+			Entity entity = this.boundarycontacts.get(i).getFirstEntity();
+			if (entity.getWorld() == world && entity.apparentlyCollides(world)) {
+				if (collisionListener != null)
+					collisionListener.boundaryCollision(entity, getBoundaryX(entity, world),
+							getBoundaryY(entity, world));
+				entity.collide(world);
+			}
+		}
+		for (int i = 0; i < this.entitycontacts.size(); i++) {
+			Entity entity = this.entitycontacts.get(i).getFirstEntity();
+			Entity other = this.entitycontacts.get(i).getSecondEntity();
+			if (entity.getWorld() == world && other.getWorld() == world && entity.apparentlyCollides(other)) {
+				if (collisionListener != null) {
+					double ratio = entity.getRadius() / (entity.getRadius() + other.getRadius());
+					collisionListener.objectCollision(entity, other,
+							entity.getXPosition() + (other.getXPosition() - entity.getXPosition()) * ratio,
+							entity.getYPosition() + (other.getYPosition() - entity.getYPosition()) * ratio);
+				}
+				entity.collide(other);
+			}
+		}
+	}
+
+	/**
+	 * Returns the x coordinate of the point where the given entity touches the boundaries of the given world: the
+	 * vertical boundary it touches, or its own x coordinate if it only touches a horizontal boundary.
+	 */
+	private static double getBoundaryX(Entity entity, World world) {
+		if (! entity.collidesX(world))
+			return entity.getXPosition();
+		return (entity.getXPosition() < world.getWidth() / 2) ? 0 : world.getWidth();
+	}
+
+	/**
+	 * Returns the y coordinate of the point where the given entity touches the boundaries of the given world: the
+	 * horizontal boundary it touches, or its own y coordinate if it only touches a vertical boundary.
+	 */
+	private static double getBoundaryY(Entity entity, World world) {
+		if (! entity.collidesY(world))
+			return entity.getYPosition();
+		return (entity.getYPosition() < world.getHeight() / 2) ? 0 : world.getHeight();
+	}
+
+	/**
+	 * Invalidates all entities taking part in the contacts of this set in the given scheduler.
+	 *
+	 * @param scheduler
+	 *  The scheduler in which the entities are invalidated
+	 * @effect Every entity of every contact is invalidated in the given scheduler.
+	 *  | for contact in contacts
+	 *  |	scheduler.invalidate(contact.getFirstEntity())
+	 *  |	if contact.getSecondEntity() != null
+	 *  |		then scheduler.invalidate(contact.getSecondEntity())
+	 */
+	public void invalidate(CollisionScheduler scheduler) {
+		for (int i = 0; i < this.boundarycontacts.size(); i++)
+			scheduler.invalidate(this.boundarycontacts.get(i).getFirstEntity());
+		for (int i = 0; i < this.entitycontacts.size(); i++) {
+			scheduler.invalidate(this.entitycontacts.get(i).getFirstEntity());
+			scheduler.invalidate(this.entitycontacts.get(i).getSecondEntity());
+		}
+	}
+
+
+
+
+	/**
+	 * A class of keys identifying a contact by the identifiers of its entities.
+	 */
+	private static class ContactKey {
+
+		/**
+		 * Initializes this key with the given identifiers.
+		 */
+		private ContactKey(long id1, long id2) {
+			this.id1 = id1;
+			this.id2 = id2;
+		}
+
+		/**
+		 * The identifier of the first entity of the contact
+		 */
+		private final long id1;
+
+		/**
+		 * The identifier of the second entity of the contact, -1 for a boundary contact
+		 */
+		private final long id2;
+
+		@Override
+		public boolean equals(Object other) {
+			if (! (other instanceof ContactKey))
+				return false;
+			return this.id1 == ((ContactKey) other).id1 && this.id2 == ((ContactKey) other).id2;
+		}
+
+		@Override
+		public int hashCode() {
+			return Long.hashCode(this.id1 * 31 + this.id2);
+		}
+	}
+}
@@ -1,6 +1,8 @@
 package asteroids.model;
 
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import be.kuleuven.cs.som.annotate.Basic;
 import be.kuleuven.cs.som.annotate.Immutable;
 
@@ -27,16 +29,60 @@ import be.kuleuven.cs.som.annotate.Immutable;
 public abstract class Entity {
 	
 	/**
-	 * The position of the entity expressed as a vector with two coordinates
+	 * The number of entities that have been created so far, used to hand out identifiers
+	 */
+	private static final AtomicLong entitycount = new AtomicLong();
+	
+	/**
+	 * The identifier of this entity, unique among all entities
 	 */
-	private Vector pos = new Vector(0,0);
+	private final long id = entitycount.getAndIncrement();
+	
+	/**
+	 * Returns the identifier of this entity. Entities created later have a larger identifier.
+	 */
+	@Basic @Immutable
+	public long getId() {
+		return this.id;
+	}
+	
+	
+	
+	/**
+	 * The position of the entity expressed as a mutable vector with two coordinates, which is updated in place
+	 */
+	private final MutableVector pos = new MutableVector(0,0);
 	
 	/**
 	 * Returns the position of this entity as a vector.
 	 */
 	@Basic
 	public Vector getPos() {
-		return this.pos;
+		return new Vector(this.getXPosition(), this.getYPosition());
+	}
+	
+	/**
+	 * Returns the x coordinate of the position of this entity.
+	 * 
+	 * @return The x coordinate of the position vector of this entity.
+	 *  | result == this.getPos().getX()
+	 */
+	public double getXPosition() {
+		if (this.getStore() != null)
+			return this.getStore().xpositions[this.getSlot()];
+		return this.pos.getX();
+	}
+	
+	/**
+	 * Returns the y coordinate of the position of this entity.
+	 * 
+	 * @return The y coordinate of the position vector of this entity.
+	 *  | result == this.getPos().getY()
+	 */
+	public double getYPosition() {
+		if (this.getStore() != null)
+			return this.getStore().ypositions[this.getSlot()];
+		return this.pos.getY();
 	}
 	
 	/**
@@ -48,7 +94,92 @@ public abstract class Entity {
 	 *  | new.getPos() == vector
 	 */
 	public void setPos(Vector vector) {
-		this.pos = vector;
+		this.setPosition(vector.getX(), vector.getY());
+	}
+	
+	/**
+	 * Sets this entity's position to the given coordinates.
+	 * 
+	 * @param xposition
+	 *  The new x coordinate of this entity
+	 * @param yposition
+	 *  The new y coordinate of this entity
+	 * @post This entity's position has the given coordinates.
+	 *  | new.getXPosition() == xposition && new.getYPosition() == yposition
+	 */
+	private void setPosition(double xposition, double yposition) {
+		if (this.getStore() != null) {
+			this.getStore().xpositions[this.getSlot()] = xposition;
+			this.getStore().ypositions[this.getSlot()] = yposition;
+		}
+		else
+			this.pos.set(xposition, yposition);
+		if (this.getWorld() != null)
+			this.getWorld().advanceEpoch();
+	}
+	
+	
+	
+	
+	/**
+	 * The store keeping the state of this entity, null if this entity keeps its own state
+	 */
+	private EntityStore store = null;
+	
+	/**
+	 * The slot of this entity in its store
+	 */
+	private int slot = -1;
+	
+	/**
+	 * Returns the store keeping the state of this entity, null if this entity keeps its own state.
+	 */
+	@Basic
+	EntityStore getStore() {
+		return this.store;
+	}
+	
+	/**
+	 * Returns the slot of this entity in its store.
+	 */
+	@Basic
+	int getSlot() {
+		return this.slot;
+	}
+	
+	/**
+	 * Lets this entity keep its state in the given slot of the given store.
+	 * 
+	 * @param store
+	 *  The store keeping the state of this entity
+	 * @param slot
+	 *  The slot of this entity in the given store
+	 * @post This entity uses the given slot of the given store.
+	 *  | new.getStore() == store && new.getSlot() == slot
+	 */
+	void attach(EntityStore store, int slot) {
+		this.store = store;
+		this.slot = slot;
+	}
+	
+	/**
+	 * Lets this entity keep its own state again, copying its state out of its store.
+	 * 
+	 * @post This entity keeps its own state, which is equal to its state in the store.
+	 *  | new.getStore() == null && new.getPos().equals(this.getPos()) && new.getVel().equals(this.getVel())
+	 *  | 	&& new.getRadius() == this.getRadius() && new.getMass() == this.getMass()
+	 */
+	void detach() {
+		EntityStore store = this.getStore();
+		if (store == null)
+			return;
+		int slot = this.getSlot();
+		this.store = null;
+		this.slot = -1;
+		this.pos.set(store.xpositions[slot], store.ypositions[slot]);
+		this.vel.set(store.xvelocities[slot], store.yvelocities[slot]);
+		this.radius = store.radii[slot];
+		this.mass = store.masses[slot];
 	}
 	
 
@@ -88,7 +219,7 @@ public abstract class Entity {
 		if (! isValidXPosition(this.getWorld(), xposition))
 			throw new IllegalArgumentException("Position is not a real value!");
 		else
-			this.setPos(new Vector(xposition, getPos().getY()));
+			this.setPosition(xposition, this.getYPosition());
 	}
 
 	
@@ -129,7 +260,7 @@ public abstract class Entity {
 		if (! isValidYPosition(this.getWorld(), yposition))
 			throw new IllegalArgumentException("Position is not a real value!");
 		else
-			this.setPos(new Vector(getPos().getX(), yposition));
+			this.setPosition(this.getXPosition(), yposition);
 	}
 	
 	
@@ -144,7 +275,7 @@ public abstract class Entity {
 	 *  | result == this.getPos().getX() - other.getPos().getX()
 	 */
 	public double getXDifference(Entity other) {
-		return this.getPos().getX() - other.getPos().getX();
+		return this.getXPosition() - other.getXPosition();
 	}
 
 	/**
@@ -156,7 +287,7 @@ public abstract class Entity {
 	 *  | result == this.getPos().getY() - other.getPos().getY()
 	 */
 	public double getYDifference(Entity other) {
-		return  this.getPos().getY() - other.getPos().getY();
+		return  this.getYPosition() - other.getYPosition();
 	}
 
 	/**
@@ -171,8 +302,8 @@ public abstract class Entity {
 	 * 	| result == Math.sqrt( this.getXDifference(other)^2 + this.getYDifference(other)^2 ) - this.getRadius() - other.getRadius()
 	 */
 	public double getDistanceBetween(Entity other) {
-		Vector d = new Vector(this.getXDifference(other), this.getYDifference(other));
-		return d.getMagnitude() - this.getRadius() - other.getRadius();
+		return MutableVector.getMagnitude(this.getXDifference(other), this.getYDifference(other))
+				- this.getRadius() - other.getRadius();
 	}
 	
 	/**
@@ -184,8 +315,7 @@ public abstract class Entity {
 	 *  | result == Math.sqrt( this.getXDifference(other)^2 + this.getYDifference(other)^2 )
 	 */
 	public double getDistanceCenters(Entity other) {
-		Vector d = new Vector(this.getXDifference(other), this.getYDifference(other));
-		return d.getMagnitude();
+		return MutableVector.getMagnitude(this.getXDifference(other), this.getYDifference(other));
 	}
 
 	/**
@@ -241,6 +371,8 @@ public abstract class Entity {
 	 */
 	@Basic @Immutable
 	public double getRadius() {
+		if (this.getStore() != null)
+			return this.getStore().radii[this.getSlot()];
 		return this.radius;
 	}
 
@@ -284,24 +416,52 @@ public abstract class Entity {
 	public void setRadius(double radius) throws IllegalArgumentException{
 		if (! isValidRadius(radius))
 			throw new IllegalArgumentException("The given radius is invalid.");
+		else if (this.getStore() != null)
+			this.getStore().radii[this.getSlot()] = radius;
 		else
 			this.radius = radius;
+		if (this.getWorld() != null)
+			this.getWorld().advanceEpoch();
 	}
 
 	
 	
 	
 	/**
-	 * A vector representing the velocity of this entity
+	 * A mutable vector representing the velocity of this entity, which is updated in place
 	 */
-	private Vector vel  = new Vector(0,0);
+	private final MutableVector vel = new MutableVector(0,0);
 
 	/**
 	 * Returns the velocity of this entity as a vector.
 	 */
 	@Basic
 	public Vector getVel() {
-		return this.vel;
+		return new Vector(this.getXVelocity(), this.getYVelocity());
+	}
+	
+	/**
+	 * Returns the x component of the velocity of this entity.
+	 * 
+	 * @return The x component of the velocity vector of this entity.
+	 *  | result == this.getVel().getX()
+	 */
+	public double getXVelocity() {
+		if (this.getStore() != null)
+			return this.getStore().xvelocities[this.getSlot()];
+		return this.vel.getX();
+	}
+	
+	/**
+	 * Returns the y component of the velocity of this entity.
+	 * 
+	 * @return The y component of the velocity vector of this entity.
+	 *  | result == this.getVel().getY()
+	 */
+	public double getYVelocity() {
+		if (this.getStore() != null)
+			return this.getStore().yvelocities[this.getSlot()];
+		return this.vel.getY();
 	}
 	
 	/**
@@ -313,7 +473,28 @@ public abstract class Entity {
 	 *  | new.getVel() == vector
 	 */
 	public void setVel(Vector vector) {
-		this.vel = vector;
+		this.setVelocity(vector.getX(), vector.getY());
+	}
+	
+	/**
+	 * Sets this entity's velocity to the given components.
+	 * 
+	 * @param xvelocity
+	 *  The new x component of the velocity of this entity
+	 * @param yvelocity
+	 *  The new y component of the velocity of this entity
+	 * @post This entity's velocity has the given components.
+	 *  | new.getXVelocity() == xvelocity && new.getYVelocity() == yvelocity
+	 */
+	private void setVelocity(double xvelocity, double yvelocity) {
+		if (this.getStore() != null) {
+			this.getStore().xvelocities[this.getSlot()] = xvelocity;
+			this.getStore().yvelocities[this.getSlot()] = yvelocity;
+		}
+		else
+			this.vel.set(xvelocity, yvelocity);
+		if (this.getWorld() != null)
+			this.getWorld().advanceEpoch();
 	}
 	
 	/**
@@ -333,7 +514,7 @@ public abstract class Entity {
 	 *  | result == this.getVel().getMagnitude()
 	 */
 	public double getTotalSpeed() {
-		return this.getVel().getMagnitude();
+		return MutableVector.getMagnitude(this.getXVelocity(), this.getYVelocity());
 	}
 	
 	/**
@@ -433,14 +614,11 @@ public abstract class Entity {
 	public void setSpeed(double xvel, double yvel) {
 		double newxvel = correctVelocity(xvel);
 		double newyvel = correctVelocity(yvel);
-		Vector newspeed = new Vector(newxvel, newyvel);
-		if (isValidSpeed(newspeed.getMagnitude())) {
-			this.setVel(newspeed);
-		}
-		else {
-			newspeed = new Vector(this.getMaxSpeed()*(newxvel/newspeed.getMagnitude()), this.getMaxSpeed()*(newyvel/newspeed.getMagnitude()));
-			this.setVel(newspeed);
-		}
+		double newspeed = MutableVector.getMagnitude(newxvel, newyvel);
+		if (isValidSpeed(newspeed))
+			this.setVelocity(newxvel, newyvel);
+		else
+			this.setVelocity(this.getMaxSpeed()*(newxvel/newspeed), this.getMaxSpeed()*(newyvel/newspeed));
 	}
 
 	/**
@@ -517,6 +695,8 @@ public abstract class Entity {
 	 */
 	@Basic
 	public double getMass() {
+		if (this.getStore() != null)
+			return this.getStore().masses[this.getSlot()];
 		return this.mass;
 	}
 
@@ -544,10 +724,11 @@ public abstract class Entity {
 	 *  | new.mass = this.getMinMass()
 	 */
 	public void setMass(double mass) {
-		if (this instanceof Ship && mass > this.getMinMass())
-			this.mass = mass;
+		double newmass = (this instanceof Ship && mass > this.getMinMass()) ? mass : this.getMinMass();
+		if (this.getStore() != null)
+			this.getStore().masses[this.getSlot()] = newmass;
 		else
-			this.mass = this.getMinMass();
+			this.mass = newmass;
 	}
 
 	
@@ -630,7 +811,7 @@ public abstract class Entity {
 	 *  | result == isValidXPosition(world, this.getPos().getX()) && isValidYPosition(world, this.getPos().getY())
 	 */
 	public boolean isInBoundaries(World world) {
-		return (isValidXPosition(world, this.getPos().getX()) && isValidYPosition(world, this.getPos().getY()));
+		return (isValidXPosition(world, this.getXPosition()) && isValidYPosition(world, this.getYPosition()));
 	}
 	
 	/**
@@ -664,8 +845,8 @@ public abstract class Entity {
 	public void move(double time) throws IllegalArgumentException {
 		if (time < 0)
 			throw new IllegalArgumentException("Time must be a positive value!");
-		this.getWorld().removePosition(this.getPos().getX(), this.getPos().getY());
-		this.setPos(this.getPos().add(new Vector(time*this.getVel().getX(), time*this.getVel().getY())));
+		this.getWorld().removePosition(this.getXPosition(), this.getYPosition());
+		this.setPosition(this.getXPosition() + time*this.getXVelocity(), this.getYPosition() + time*this.getYVelocity());
 		this.getWorld().addPosition(this);
 	}
 	
@@ -723,9 +904,9 @@ public abstract class Entity {
 	 *  |	then result == true
 	 */
 	public boolean collidesX(World world) {
-		boolean collidesleft = (this.getPos().getX() > (0.99*this.getRadius()) && this.getPos().getX() < (1.01*this.getRadius()));
-		boolean collidesright = (this.getPos().getX() < (world.getWidth() - 0.99*this.getRadius()) 
-								 && this.getPos().getX() > (world.getWidth() - 1.01*this.getRadius()));
+		boolean collidesleft = (this.getXPosition() > (0.99*this.getRadius()) && this.getXPosition() < (1.01*this.getRadius()));
+		boolean collidesright = (this.getXPosition() < (world.getWidth() - 0.99*this.getRadius()) 
+								 && this.getXPosition() > (world.getWidth() - 1.01*this.getRadius()));
 		return (collidesleft || collidesright);
 	}
 	
@@ -745,15 +926,38 @@ public abstract class Entity {
 	 *  |	then result == true
 	 */
 	public boolean collidesY(World world) {
-		boolean collidesbottom = (this.getPos().getY() > (0.99*this.getRadius()) && this.getPos().getY() < (1.01*this.getRadius()));
-		boolean collidestop = (this.getPos().getY() < (world.getHeight() - 0.99*this.getRadius()) 
-							   && this.getPos().getY() > (world.getHeight() - 1.01*this.getRadius()));
+		boolean collidesbottom = (this.getYPosition() > (0.99*this.getRadius()) && this.getYPosition() < (1.01*this.getRadius()));
+		boolean collidestop = (this.getYPosition() < (world.getHeight() - 0.99*this.getRadius()) 
+							   && this.getYPosition() > (world.getHeight() - 1.01*this.getRadius()));
 		return (collidestop || collidesbottom);
 	}
 	
 	
 	
 	
+	/**
+	 * The number of times the predicted collisions of this entity have been invalidated
+	 */
+	private int eventcount = 0;
+	
+	/**
+	 * Returns the number of times the predicted collisions of this entity have been invalidated.
+	 */
+	@Basic
+	int getEventCount() {
+		return this.eventcount;
+	}
+	
+	/**
+	 * Invalidates all collisions that have been predicted for this entity.
+	 * 
+	 * @post The number of invalidations of this entity is incremented by one.
+	 *  | new.getEventCount() == this.getEventCount() + 1
+	 */
+	void invalidateEvents() {
+		this.eventcount++;
+	}
+	
 	/**
 	 * Returns the time until two entities are going to collide with each other expressed in seconds.
 	 * If they never collide, the method will return positive infinity.
@@ -787,14 +991,14 @@ public abstract class Entity {
 			double dx = this.getXDifference(other);
 			double dy = this.getYDifference(other);
 			
-			double dvx = this.getVel().getX() - other.getVel().getX();
-			double dvy = this.getVel().getY() - other.getVel().getY();
+			double dvx = this.getXVelocity() - other.getXVelocity();
+			double dvy = this.getYVelocity() - other.getYVelocity();
 			
-			double drr = Math.pow(dx, 2) + Math.pow(dy, 2);
-			double dvv = Math.pow(dvx, 2) + Math.pow(dvy, 2);
-			double dvr = dvx*dx + dvy*dy;
+			double drr = MutableVector.dot(dx, dy, dx, dy);
+			double dvv = MutableVector.dot(dvx, dvy, dvx, dvy);
+			double dvr = MutableVector.dot(dvx, dvy, dx, dy);
 			
-			double d = Math.pow(dvr, 2) - dvv*(drr - Math.pow(sigma, 2));
+			double d = dvr*dvr - dvv*(drr - sigma*sigma);
 			
 			if (dvr >= 0)
 				return Double.POSITIVE_INFINITY;
@@ -818,12 +1022,12 @@ public abstract class Entity {
 	 */
 	public double getXTime() {
 		double xtime;
-		if (this.getVel().getX() == 0)
+		if (this.getXVelocity() == 0)
 			return Double.POSITIVE_INFINITY;
-		else if (this.getVel().getX() > 0)
-			xtime = (this.getWorld().getWidth() - this.getPos().getX() - this.getRadius())/this.getVel().getX();
+		else if (this.getXVelocity() > 0)
+			xtime = (this.getWorld().getWidth() - this.getXPosition() - this.getRadius())/this.getXVelocity();
 		else
-			xtime = (this.getPos().getX() - this.getRadius())/this.getVel().getX();
+			xtime = (this.getXPosition() - this.getRadius())/this.getXVelocity();
 		return Math.abs(xtime);
 	}
 	
@@ -840,12 +1044,12 @@ public abstract class Entity {
 	 */
 	public double getYTime() {
 		double ytime;
-		if (this.getVel().getY() == 0)
+		if (this.getYVelocity() == 0)
 			return Double.POSITIVE_INFINITY;
-		else if (this.getVel().getY() > 0)
-			ytime = (this.getWorld().getHeight() - this.getPos().getY() - this.getRadius())/this.getVel().getY();
+		else if (this.getYVelocity() > 0)
+			ytime = (this.getWorld().getHeight() - this.getYPosition() - this.getRadius())/this.getYVelocity();
 		else
-			ytime = (this.getPos().getY() - this.getRadius())/this.getVel().getY();
+			ytime = (this.getYPosition() - this.getRadius())/this.getYVelocity();
 		return Math.abs(ytime);
 	}
 	
@@ -904,11 +1108,11 @@ public abstract class Entity {
 				return null;}
 			else {
 				double sigma = this.getRadius() + other.getRadius();
-				double dx = this.getXDifference(other) - other.getVel().getX()*time + this.getVel().getX()*time;
-				double dy = this.getYDifference(other) - other.getVel().getY()*time + this.getVel().getY()*time;
+				double dx = this.getXDifference(other) - other.getXVelocity()*time + this.getXVelocity()*time;
+				double dy = this.getYDifference(other) - other.getYVelocity()*time + this.getYVelocity()*time;
 					
-				double xcollision = this.getPos().getX() + this.getVel().getX()*time - dx*this.getRadius()/sigma;
-				double ycollision = this.getPos().getY() + this.getVel().getY()*time - dy*this.getRadius()/sigma;
+				double xcollision = this.getXPosition() + this.getXVelocity()*time - dx*this.getRadius()/sigma;
+				double ycollision = this.getYPosition() + this.getYVelocity()*time - dy*this.getRadius()/sigma;
 				double[] collision = {xcollision, ycollision};
 				return collision;
 			}
@@ -935,15 +1139,15 @@ public abstract class Entity {
 		double newx;
 		double newy;
 		if (this.getXTime() < this.getYTime()) {
-			newy = this.getPos().getY() + time*this.getVel().getY();
-			if (this.getVel().getX() > 0)
+			newy = this.getYPosition() + time*this.getYVelocity();
+			if (this.getXVelocity() > 0)
 				newx = this.getWorld().getWidth();
 			else
 				newx = 0;
 			}
 		else {
-			newx = this.getPos().getX() + time*this.getVel().getX();
-			if (this.getVel().getY() > 0)
+			newx = this.getXPosition() + time*this.getXVelocity();
+			if (this.getYVelocity() > 0)
 				newy = this.getWorld().getHeight();
 			else
 				newy = 0;
@@ -967,8 +1171,8 @@ public abstract class Entity {
 	 *  The world this entity will collide with
 	 */
 	public void collide(World world) {
-		double newXVelocity = this.getVel().getX();
-		double newYVelocity = this.getVel().getY();
+		double newXVelocity = this.getXVelocity();
+		double newYVelocity = this.getYVelocity();
 		if (this.collidesX(world))
 			newXVelocity = -newXVelocity;
 		if (this.collidesY(world))
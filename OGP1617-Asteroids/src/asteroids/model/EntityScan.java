@@ -0,0 +1,125 @@
+package asteroids.model;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+/**
+ * A class of tasks scanning a range of entities and combining the results of the scanned parts. Ranges larger than
+ * a threshold are split in two halves that are scanned in parallel. The results of both halves are always combined
+ * with the result of the first half as first argument, so for an associative combiner the result does not depend
+ * on how the range was split.
+ *
+ * @param <R>
+ *  The type of the results of the scan
+ *
+ * @version 2.0
+ * @author Bernardo Saniz, Elien Vlaeyen
+ */
+@SuppressWarnings("serial")
+class EntityScan<R> extends RecursiveTask<R> {
+
+	/**
+	 * An interface for scanning a range of entities.
+	 *
+	 * @param <R>
+	 *  The type of the result of a scan
+	 */
+	@FunctionalInterface
+	interface Scanner<R> {
+
+		/**
+		 * Scans the entities from the given start index up to, but not including, the given end index.
+		 */
+		R scan(Entity[] entities, int from, int to);
+	}
+
+	/**
+	 * Initializes this task for the given range of entities.
+	 *
+	 * @param entities
+	 *  The entities to be scanned
+	 * @param from
+	 *  The index of the first entity of the range
+	 * @param to
+	 *  The index after the last entity of the range
+	 * @param threshold
+	 *  The largest range that is scanned without splitting it
+	 * @param scanner
+	 *  The scanner for parts of the range
+	 * @param combiner
+	 *  The combiner of the results of two consecutive parts
+	 */
+	private EntityScan(Entity[] entities, int from, int to, int threshold, Scanner<R> scanner, BinaryOperator<R> combiner) {
+		this.entities = entities;
+		this.from = from;
+		this.to = to;
+		this.threshold = threshold;
+		this.scanner = scanner;
+		this.combiner = combiner;
+	}
+
+	/**
+	 * The entities to be scanned
+	 */
+	private final Entity[] entities;
+
+	/**
+	 * The index of the first entity of the range of this task
+	 */
+	private final int from;
+
+	/**
+	 * The index after the last entity of the range of this task
+	 */
+	private final int to;
+
+	/**
+	 * The largest range that is scanned without splitting it
+	 */
+	private final int threshold;
+
+	/**
+	 * The scanner for parts of the range
+	 */
+	private final Scanner<R> scanner;
+
+	/**
+	 * The combiner of the results of two consecutive parts
+	 */
+	private final BinaryOperator<R> combiner;
+
+	@Override
+	protected R compute() {
+		if (this.to - this.from <= this.threshold)
+			return this.scanner.scan(this.entities, this.from, this.to);
+		int middle = (this.from + this.to) >>> 1;
+		EntityScan<R> first = new EntityScan<R>(this.entities, this.from, middle, this.threshold, this.scanner, this.combiner);
+		EntityScan<R> second = new EntityScan<R>(this.entities, middle, this.to, this.threshold, this.scanner, this.combiner);
+		second.fork();
+		R result = first.compute();
+		return this.combiner.apply(result, second.join());
+	}
+
+	/**
+	 * Scans all given entities. If there are no more entities than the given threshold, they are scanned
+	 * sequentially in the calling thread; otherwise the scan is split over the given pool.
+	 *
+	 * @param pool
+	 *  The pool in which the parts of the scan are executed
+	 * @param threshold
+	 *  The largest number of entities that is scanned without splitting
+	 * @param entities
+	 *  The entities to be scanned
+	 * @param scanner
+	 *  The scanner for parts of the entities
+	 * @param combiner
+	 *  The combiner of the results of two consecutive parts
+	 * @return The combined result of the scanner over all entities.
+	 */
+	static <R> R scan(ForkJoinPool pool, int threshold, Entity[] entities, Scanner<R> scanner, BinaryOperator<R> combiner) {
+		if (entities.length <= threshold)
+			return scanner.scan(entities, 0, entities.length);
+		return pool.invoke(new EntityScan<R>(entities, 0, entities.length, threshold, scanner, combiner));
+	}
+}
@@ -0,0 +1,158 @@
+package asteroids.model;
+
+import java.util.Arrays;
+
+/**
+ * A class of stores keeping the state of the entities in a world in parallel arrays of primitive values.
+ * Each entity in the store occupies one slot; the slots of the entities in a store are always 0 up to the number
+ * of entities, so that all arrays can be traversed without gaps.
+ * The position, velocity, radius and mass of an entity in a store are only kept in the store. The getters and
+ * setters of the entity read and write the slot of the entity.
+ *
+ * @invar Each entity in the store occupies the slot it knows about.
+ *  | for i in 0..size()-1: getEntity(i).getSlot() == i
+ *
+ * @version 2.0
+ * @author Bernardo Saniz, Elien Vlaeyen
+ */
+class EntityStore {
+
+	/**
+	 * The initial number of slots of any store
+	 */
+	private static final int initialcapacity = 16;
+
+	/**
+	 * The entities in each slot
+	 */
+	private Entity[] entities = new Entity[initialcapacity];
+
+	/**
+	 * The x coordinates of the positions of the entities in each slot
+	 */
+	double[] xpositions = new double[initialcapacity];
+
+	/**
+	 * The y coordinates of the positions of the entities in each slot
+	 */
+	double[] ypositions = new double[initialcapacity];
+
+	/**
+	 * The x components of the velocities of the entities in each slot
+	 */
+	double[] xvelocities = new double[initialcapacity];
+
+	/**
+	 * The y components of the velocities of the entities in each slot
+	 */
+	double[] yvelocities = new double[initialcapacity];
+
+	/**
+	 * The radii of the entities in each slot
+	 */
+	double[] radii = new double[initialcapacity];
+
+	/**
+	 * The masses of the entities in each slot
+	 */
+	double[] masses = new double[initialcapacity];
+
+	/**
+	 * The number of entities in this store
+	 */
+	private int size = 0;
+
+	/**
+	 * Returns the number of entities in this store.
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Returns the entity in the given slot.
+	 *
+	 * @param slot
+	 *  The slot of the entity
+	 */
+	public Entity getEntity(int slot) {
+		return this.entities[slot];
+	}
+
+
+
+
+	/**
+	 * Adds the given entity to this store. The state of the entity is copied into a new slot, and from then on
+	 * the entity reads and writes its state in this store.
+	 *
+	 * @param entity
+	 *  The entity to be added
+	 * @effect The entity uses the new slot of this store.
+	 *  | entity.attach(this, this.size())
+	 */
+	public void add(Entity entity) {
+		if (this.size == this.entities.length)
+			this.grow();
+		int slot = this.size++;
+		this.entities[slot] = entity;
+		this.xpositions[slot] = entity.getXPosition();
+		this.ypositions[slot] = entity.getYPosition();
+		this.xvelocities[slot] = entity.getXVelocity();
+		this.yvelocities[slot] = entity.getYVelocity();
+		this.radii[slot] = entity.getRadius();
+		this.masses[slot] = entity.getMass();
+		entity.attach(this, slot);
+	}
+
+	/**
+	 * Removes the given entity from this store. The entity gets its own copy of its state back, and the entity in
+	 * the last slot takes over the slot of the given entity.
+	 *
+	 * @param entity
+	 *  The entity to be removed
+	 * @effect The entity keeps its state by itself.
+	 *  | entity.detach()
+	 */
+	public void remove(Entity entity) {
+		if (entity.getStore() != this)
+			return;
+		int slot = entity.getSlot();
+		entity.detach();
+		int last = --this.size;
+		if (slot != last) {
+			Entity moved = this.entities[last];
+			this.entities[slot] = moved;
+			this.xpositions[slot] = this.xpositions[last];
+			this.ypositions[slot] = this.ypositions[last];
+			this.xvelocities[slot] = this.xvelocities[last];
+			this.yvelocities[slot] = this.yvelocities[last];
+			this.radii[slot] = this.radii[last];
+			this.masses[slot] = this.masses[last];
+			moved.attach(this, slot);
+		}
+		this.entities[last] = null;
+	}
+
+	/**
+	 * Removes all entities from this store.
+	 */
+	public void clear() {
+		while (this.size > 0)
+			this.remove(this.entities[this.size - 1]);
+	}
+
+	/**
+	 * Doubles the number of slots of this store.
+	 */
+	private void grow() {
+		int capacity = 2 * this.entities.length;
+		this.entities = Arrays.copyOf(this.entities, capacity);
+		this.xpositions = Arrays.copyOf(this.xpositions, capacity);
+		this.ypositions = Arrays.copyOf(this.ypositions, capacity);
+		this.xvelocities = Arrays.copyOf(this.xvelocities, capacity);
+		this.yvelocities = Arrays.copyOf(this.yvelocities, capacity);
+		this.radii = Arrays.copyOf(this.radii, capacity);
+		this.masses = Arrays.copyOf(this.masses, capacity);
+	}
+}
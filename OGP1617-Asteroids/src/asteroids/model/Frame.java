@@ -0,0 +1,96 @@
+package asteroids.model;
+
+/**
+ * A class of frames in which compiled programs are executed. The frame of the main statement of a program only
+ * gives access to the global variables of the program; every call of a function gets a new frame with the
+ * arguments of the call and room for the local variables of the function.
+ * Variables are kept in slots, as resolved by the scope in which the program was compiled. An empty slot holds
+ * null, a variable to which null has been assigned holds the marker for null.
+ *
+ * @version 3.0
+ * @author Bernardo Saniz, Elien Vlaeyen
+ */
+public class Frame {
+
+	/**
+	 * Initializes this frame as the frame of the main statement of the given program.
+	 *
+	 * @param program
+	 *  The program executed in this frame
+	 */
+	public Frame(Program program) {
+		this(program, null, 0);
+	}
+
+	/**
+	 * Initializes this frame as the frame of a call of a function of the given program.
+	 *
+	 * @param program
+	 *  The program of the function
+	 * @param arguments
+	 *  The values of the arguments of the call
+	 * @param nblocals
+	 *  The number of local variables of the function
+	 */
+	public Frame(Program program, Object[] arguments, int nblocals) {
+		this.program = program;
+		this.arguments = arguments;
+		this.locals = new Object[nblocals];
+	}
+
+	/**
+	 * The marker held by a variable to which null has been assigned
+	 */
+	public static final Object NULL = new Object();
+
+	/**
+	 * The program executed in this frame
+	 */
+	private final Program program;
+
+	/**
+	 * The values of the arguments of the function call of this frame, null for the main statement
+	 */
+	private final Object[] arguments;
+
+	/**
+	 * The slots of the local variables of this frame
+	 */
+	private final Object[] locals;
+
+	/**
+	 * Returns the program executed in this frame.
+	 */
+	public Program getProgram() {
+		return this.program;
+	}
+
+	/**
+	 * Returns the ship executing the program of this frame.
+	 */
+	public Ship getShip() {
+		return this.program.getShip();
+	}
+
+	/**
+	 * Returns the values of the arguments of the function call of this frame, null for the main statement.
+	 */
+	public Object[] getArguments() {
+		return this.arguments;
+	}
+
+	/**
+	 * Returns the slots of the local variables of this frame.
+	 */
+	public Object[] getLocals() {
+		return this.locals;
+	}
+
+	/**
+	 * Returns the slots of the global variables of the program of this frame.
+	 */
+	public Object[] getGlobals() {
+		return this.program.getGlobals();
+	}
+
+}
@@ -1,8 +1,6 @@
 package asteroids.model;
 
-import java.util.List;
-import java.util.Stack;
-
+import asteroids.expressions.CompiledExpression;
 import asteroids.part3.programs.SourceLocation;
 import asteroids.statements.*;
 
@@ -11,7 +9,6 @@ public class Function {
 	public Function(String functionName, Statement body, SourceLocation sourceLocation) {
 		this.name = functionName;
 		this.body = body;
-		this.getBody().setFunction(this);
 	}
 	
 	private String name;
@@ -26,27 +23,26 @@ public class Function {
 		return this.body;
 	}
 	
-	private Program program;
-
-	public Program getProgram() {
-		return this.program;
-	}
+	private CompiledExpression<Object> code;
 	
-	public void setProgram(Program program){
-		this.program = program;
-		this.getBody().setProgram(program);
-	}
+	private int nblocals;
 	
-	public Stack<List<Object>> parameterdata = new Stack<List<Object>>();
+	public void typeCheck(Scope program) throws IllegalArgumentException {
+		Scope scope = program.getScope(this);
+		scope.check(this.getBody() instanceof Returnable, "No Returnable in function");
+		if (this.getBody() instanceof Returnable)
+			scope.setReturnType(this, ((Returnable)this.getBody()).typeCheckReturn(scope));
+	}
 	
-	public Stack<List<Object>> getParameterData() {
-		return parameterdata;
+	public void compile(Scope program) {
+		Scope scope = program.getScope(this);
+		this.code = ((Returnable)this.getBody()).compileReturn(scope);
+		this.nblocals = scope.getLocalCount();
 	}
 	
-	public Object run() throws BreakException, TimerException {
-		if (! (this.getBody() instanceof Returnable))
-			throw new IllegalArgumentException("No Returnable in function");
-		return ((Returnable)this.getBody()).returnValue();
+	public Object call(Program program, Object[] arguments) throws BreakException {
+		program.spend();
+		return this.code.evaluate(new Frame(program, arguments, this.nblocals));
 	}
 	
 }
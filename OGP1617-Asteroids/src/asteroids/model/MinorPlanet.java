@@ -21,16 +21,16 @@ public abstract class MinorPlanet extends Entity {
 		double sigma = this.getRadius() + other.getRadius();
 		double dx = other.getXDifference(this);
 		double dy = other.getYDifference(this);
-		double dvx = other.getVel().getX() - this.getVel().getX();
-		double dvy = other.getVel().getY() - this.getVel().getY();
-		double dvr = dvx*dx + dvy*dy;
+		double dvx = other.getXVelocity() - this.getXVelocity();
+		double dvy = other.getYVelocity() - this.getYVelocity();
+		double dvr = MutableVector.dot(dvx, dvy, dx, dy);
 	
-		double j = (2*this.getMass()*((MinorPlanet)other).getMass()*dvr)/(sigma*(this.getMass() + ((MinorPlanet)other).getMass()));
+		double j = (2*this.getMass()*other.getMass()*dvr)/(sigma*(this.getMass() + other.getMass()));
 		double jx = j*dx/sigma;
 		double jy = j*dy/sigma;
 	
-		this.setSpeed(this.getVel().getX() + jx/this.getMass(), this.getVel().getY() + jy/this.getMass());
-		other.setSpeed(other.getVel().getX() - jx/((MinorPlanet)other).getMass(), other.getVel().getY() - jy/((MinorPlanet)other).getMass());
+		this.setSpeed(this.getXVelocity() + jx/this.getMass(), this.getYVelocity() + jy/this.getMass());
+		other.setSpeed(other.getXVelocity() - jx/other.getMass(), other.getYVelocity() - jy/other.getMass());
 	}
 	
 }
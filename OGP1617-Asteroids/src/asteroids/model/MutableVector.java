@@ -0,0 +1,108 @@
+package asteroids.model;
+
+import be.kuleuven.cs.som.annotate.Basic;
+
+/**
+ * A class of mutable vectors containing an x coordinate and a y coordinate. Unlike vectors, mutable vectors are
+ * changed in place, so that the state of entities can be updated without creating new objects. They are never
+ * handed out of the model; the immutable vector stays the type by which positions and velocities are exposed.
+ *
+ * @version 2.0
+ * @author Bernardo Saniz, Elien Vlaeyen
+ */
+class MutableVector {
+
+	/**
+	 * Initializes this vector with a given x and y coordinate.
+	 *
+	 * @param x
+	 *  The given x coordinate
+	 * @param y
+	 *  The given y coordinate
+	 * @post The coordinates of this vector are equal to the given coordinates.
+	 *  | new.getX() == x && new.getY() == y
+	 */
+	MutableVector(double x, double y) {
+		this.x = x;
+		this.y = y;
+	}
+
+
+
+
+	/**
+	 * The x value of this vector
+	 */
+	private double x;
+
+	/**
+	 * The y value of this vector
+	 */
+	private double y;
+
+	/**
+	 * Returns the x value of this vector.
+	 */
+	@Basic
+	public double getX() {
+		return this.x;
+	}
+
+	/**
+	 * Returns the y value of this vector.
+	 */
+	@Basic
+	public double getY() {
+		return this.y;
+	}
+
+	/**
+	 * Sets the coordinates of this vector to the given values.
+	 *
+	 * @param x
+	 *  The new x coordinate
+	 * @param y
+	 *  The new y coordinate
+	 * @post The coordinates of this vector are equal to the given coordinates.
+	 *  | new.getX() == x && new.getY() == y
+	 */
+	public void set(double x, double y) {
+		this.x = x;
+		this.y = y;
+	}
+
+
+
+
+	/**
+	 * Returns the magnitude of the vector with the given coordinates.
+	 *
+	 * @param x
+	 *  The x coordinate of the vector
+	 * @param y
+	 *  The y coordinate of the vector
+	 * @return The square root of the sum of the squares of the coordinates.
+	 *  | result == sqrt(x^2 + y^2)
+	 */
+	public static double getMagnitude(double x, double y) {
+		return Math.sqrt(x*x + y*y);
+	}
+
+	/**
+	 * Returns the dot product of the vectors with the given coordinates.
+	 *
+	 * @param x1
+	 *  The x coordinate of the first vector
+	 * @param y1
+	 *  The y coordinate of the first vector
+	 * @param x2
+	 *  The x coordinate of the second vector
+	 * @param y2
+	 *  The y coordinate of the second vector
+	 * @return The sum of the products of the coordinates.
+	 *  | result == x1*x2 + y1*y2
+	 */
+	public static double dot(double x1, double y1, double x2, double y2) {
+		return x1*x2 + y1*y2;
+	}
+}
@@ -0,0 +1,194 @@
+package asteroids.model;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A class of k-d trees over the centers of a fixed list of entities, used to find the entity closest to another
+ * entity. Distances are measured between the edges of the entities, as by getDistanceBetween, so every node of the
+ * tree also knows the largest radius in its subtree.
+ * Of several entities at the same distance, the one that comes first in the list is found.
+ *
+ * @version 3.0
+ * @author Bernardo Saniz, Elien Vlaeyen
+ */
+class NearestIndex {
+
+	/**
+	 * Initializes this index with the given entities, in the given order.
+	 *
+	 * @param entities
+	 *  The entities to be indexed
+	 */
+	public NearestIndex(List<? extends Entity> entities) {
+		int size = entities.size();
+		this.entities = entities.toArray(new Entity[size]);
+		Integer[] order = new Integer[size];
+		for (int i = 0; i < size; i++)
+			order[i] = i;
+		this.build(order, 0, size, 0);
+		this.nodes = new Entity[size];
+		this.ranks = new int[size];
+		this.xs = new double[size];
+		this.ys = new double[size];
+		this.minxs = new double[size];
+		this.maxxs = new double[size];
+		this.minys = new double[size];
+		this.maxys = new double[size];
+		this.maxradii = new double[size];
+		for (int i = 0; i < size; i++) {
+			Entity entity = this.entities[order[i]];
+			this.nodes[i] = entity;
+			this.ranks[i] = order[i];
+			this.xs[i] = entity.getXPosition();
+			this.ys[i] = entity.getYPosition();
+		}
+		this.summarize(0, size);
+	}
+
+	/**
+	 * The indexed entities, in their original order
+	 */
+	private final Entity[] entities;
+
+	/**
+	 * The entities in the order of the tree: the root of a subtree spanning a range is in the middle of the range
+	 */
+	private final Entity[] nodes;
+
+	/**
+	 * The positions of the entities of the tree in the original order
+	 */
+	private final int[] ranks;
+
+	/**
+	 * The coordinates of the centers of the entities of the tree
+	 */
+	private final double[] xs, ys;
+
+	/**
+	 * For the root of every subtree, the bounding box of the centers in the subtree and the largest radius in it
+	 */
+	private final double[] minxs, maxxs, minys, maxys, maxradii;
+
+	/**
+	 * Returns the number of entities in this index.
+	 */
+	public int size() {
+		return this.entities.length;
+	}
+
+	/**
+	 * Orders the given range of entity numbers as a subtree split on the given axis, 0 for x and 1 for y.
+	 */
+	private void build(Integer[] order, int from, int to, int axis) {
+		if (to - from < 2)
+			return;
+		Comparator<Integer> comparator = (axis == 0) ?
+				Comparator.comparingDouble(i -> this.entities[i].getXPosition()) :
+				Comparator.comparingDouble(i -> this.entities[i].getYPosition());
+		Arrays.sort(order, from, to, comparator);
+		int middle = (from + to) >>> 1;
+		this.build(order, from, middle, 1 - axis);
+		this.build(order, middle + 1, to, 1 - axis);
+	}
+
+	/**
+	 * Computes the bounding box and the largest radius of the subtree spanning the given range.
+	 */
+	private void summarize(int from, int to) {
+		if (from >= to)
+			return;
+		int middle = (from + to) >>> 1;
+		this.summarize(from, middle);
+		this.summarize(middle + 1, to);
+		this.minxs[middle] = this.maxxs[middle] = this.xs[middle];
+		this.minys[middle] = this.maxys[middle] = this.ys[middle];
+		this.maxradii[middle] = this.nodes[middle].getRadius();
+		if (from < middle)
+			this.include(middle, (from + middle) >>> 1);
+		if (middle + 1 < to)
+			this.include(middle, (middle + 1 + to) >>> 1);
+	}
+
+	/**
+	 * Extends the summary of the subtree with the given root with the summary of the subtree with the given child
+	 * as its root.
+	 */
+	private void include(int root, int child) {
+		this.minxs[root] = Math.min(this.minxs[root], this.minxs[child]);
+		this.maxxs[root] = Math.max(this.maxxs[root], this.maxxs[child]);
+		this.minys[root] = Math.min(this.minys[root], this.minys[child]);
+		this.maxys[root] = Math.max(this.maxys[root], this.maxys[child]);
+		this.maxradii[root] = Math.max(this.maxradii[root], this.maxradii[child]);
+	}
+
+	/**
+	 * Returns the entity in this index closest to the given entity, other than the given entity itself.
+	 *
+	 * @param entity
+	 *  The entity whose closest entity is looked for
+	 * @return The entity in this index, other than the given entity, with the smallest distance to the given
+	 *  entity, the first one in the original order if there are several. Null if there is no such entity.
+	 */
+	public Entity getNearest(Entity entity) {
+		Search search = new Search(entity);
+		search.visit(0, this.size(), 0);
+		return search.nearest;
+	}
+
+	/**
+	 * A class of searches for the entity closest to a given entity.
+	 */
+	private class Search {
+
+		private Search(Entity entity) {
+			this.entity = entity;
+			this.x = entity.getXPosition();
+			this.y = entity.getYPosition();
+			this.radius = entity.getRadius();
+		}
+
+		private final Entity entity;
+
+		private final double x, y, radius;
+
+		private Entity nearest = null;
+
+		private int rank = Integer.MAX_VALUE;
+
+		private double distance = Double.POSITIVE_INFINITY;
+
+		private void visit(int from, int to, int axis) {
+			if (from >= to)
+				return;
+			int middle = (from + to) >>> 1;
+			double dx = Math.max(0, Math.max(minxs[middle] - this.x, this.x - maxxs[middle]));
+			double dy = Math.max(0, Math.max(minys[middle] - this.y, this.y - maxys[middle]));
+			double bound = Math.sqrt(dx * dx + dy * dy) - this.radius - maxradii[middle];
+			if (bound - 1e-9 * (1 + Math.abs(this.distance)) > this.distance)
+				return;
+			Entity candidate = nodes[middle];
+			if (candidate != this.entity) {
+				double distance = this.entity.getDistanceBetween(candidate);
+				if (distance < this.distance || (distance == this.distance && ranks[middle] < this.rank)) {
+					this.nearest = candidate;
+					this.rank = ranks[middle];
+					this.distance = distance;
+				}
+			}
+			double offset = (axis == 0) ? this.x - xs[middle] : this.y - ys[middle];
+			if (offset < 0) {
+				this.visit(from, middle, 1 - axis);
+				this.visit(middle + 1, to, 1 - axis);
+			}
+			else {
+				this.visit(middle + 1, to, 1 - axis);
+				this.visit(from, middle, 1 - axis);
+			}
+		}
+
+	}
+
+}
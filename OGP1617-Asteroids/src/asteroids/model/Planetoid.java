@@ -128,8 +128,7 @@ public class Planetoid extends MinorPlanet {
 	@Override
 	public void move(double time) throws IllegalArgumentException{
 		super.move(time);
-		Vector dist = new Vector(time*this.getVel().getX(), time*this.getVel().getY());
-		double distance = dist.getMagnitude();
+		double distance = MutableVector.getMagnitude(time*this.getXVelocity(), time*this.getYVelocity());
 		this.setTraveledDistance(this.getTraveledDistance() + distance);
 		try {
 		this.setRadius(this.getRadius() - 0.000001*this.getTraveledDistance());
@@ -182,7 +181,7 @@ public class Planetoid extends MinorPlanet {
 		Random r = new Random();
 		double randomx = ship.getRadius() + (maxx - ship.getRadius())*r.nextDouble();
 		double randomy = ship.getRadius() + (maxy - ship.getRadius())*r.nextDouble();
-		ship.getWorld().removePosition(ship.getPos().getX(), ship.getPos().getY());
+		ship.getWorld().removePosition(ship.getXPosition(), ship.getYPosition());
 		ship.setXPosition(randomx);
 		ship.setYPosition(randomy);
 		ship.getWorld().addPosition(ship);
@@ -242,8 +241,8 @@ public class Planetoid extends MinorPlanet {
 		double dy  = Math.sin(direction)*this.getRadius()/2;
 		double xvel = 1.5*Math.cos(direction)*this.getTotalSpeed();
 		double yvel = 1.5*Math.sin(direction)*this.getTotalSpeed();
-		Asteroid child1 = new Asteroid(this.getPos().getX() + dx, this.getPos().getY() + dy, xvel, yvel, this.getRadius()/2);
-		Asteroid child2 = new Asteroid(this.getPos().getX() - dx, this.getPos().getY() - dy, -xvel, -yvel, this.getRadius()/2);
+		Asteroid child1 = new Asteroid(this.getXPosition() + dx, this.getYPosition() + dy, xvel, yvel, this.getRadius()/2);
+		Asteroid child2 = new Asteroid(this.getXPosition() - dx, this.getYPosition() - dy, -xvel, -yvel, this.getRadius()/2);
 		world.addEntity(child1);
 		world.addEntity(child2);
 	}
@@ -0,0 +1,248 @@
+package asteroids.model;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A class of maps from exact positions to the entities at those positions. The coordinates of the positions are
+ * stored as the bits of their double values in an open-addressing table, so no keys have to be created to look up
+ * or update the entity at a position.
+ * Two positions are equal if their coordinates have the same bits, which for the coordinates of entities is the
+ * same as the two positions having the same textual representation.
+ *
+ * @invar The number of entities in this index is smaller than half of its capacity.
+ *  | size() < capacity / 2
+ *
+ * @version 2.0
+ * @author Bernardo Saniz, Elien Vlaeyen
+ */
+class PositionIndex {
+
+	/**
+	 * The initial number of slots of the table of any index
+	 */
+	private static final int initialcapacity = 16;
+
+	/**
+	 * The bits of the x coordinates of the positions in each slot
+	 */
+	private long[] xbits = new long[initialcapacity];
+
+	/**
+	 * The bits of the y coordinates of the positions in each slot
+	 */
+	private long[] ybits = new long[initialcapacity];
+
+	/**
+	 * The entities in each slot, null for empty slots
+	 */
+	private Entity[] entities = new Entity[initialcapacity];
+
+	/**
+	 * The number of entities in this index
+	 */
+	private int size = 0;
+
+	/**
+	 * Returns the number of entities in this index.
+	 */
+	public int size() {
+		return this.size;
+	}
+
+
+
+
+	/**
+	 * Returns the entity at the given position, null if there is none.
+	 *
+	 * @param x
+	 *  The x coordinate of the position
+	 * @param y
+	 *  The y coordinate of the position
+	 */
+	public Entity get(double x, double y) {
+		long xkey = Double.doubleToLongBits(x);
+		long ykey = Double.doubleToLongBits(y);
+		int mask = this.entities.length - 1;
+		for (int slot = hash(xkey, ykey) & mask; this.entities[slot] != null; slot = (slot + 1) & mask)
+			if (this.xbits[slot] == xkey && this.ybits[slot] == ykey)
+				return this.entities[slot];
+		return null;
+	}
+
+	/**
+	 * Maps the given position to the given entity, replacing the entity that was at that position.
+	 *
+	 * @param x
+	 *  The x coordinate of the position
+	 * @param y
+	 *  The y coordinate of the position
+	 * @param entity
+	 *  The entity at the given position
+	 */
+	public void put(double x, double y, Entity entity) {
+		long xkey = Double.doubleToLongBits(x);
+		long ykey = Double.doubleToLongBits(y);
+		int mask = this.entities.length - 1;
+		int slot = hash(xkey, ykey) & mask;
+		for (; this.entities[slot] != null; slot = (slot + 1) & mask)
+			if (this.xbits[slot] == xkey && this.ybits[slot] == ykey) {
+				this.entities[slot] = entity;
+				return;
+			}
+		this.xbits[slot] = xkey;
+		this.ybits[slot] = ykey;
+		this.entities[slot] = entity;
+		this.size++;
+		if (2 * this.size >= this.entities.length)
+			this.resize(2 * this.entities.length);
+	}
+
+	/**
+	 * Removes the entity at the given position, if any.
+	 * The entries following the removed one in its run of occupied slots are shifted back, so that no
+	 * markers for removed entries are needed.
+	 *
+	 * @param x
+	 *  The x coordinate of the position
+	 * @param y
+	 *  The y coordinate of the position
+	 */
+	public void remove(double x, double y) {
+		long xkey = Double.doubleToLongBits(x);
+		long ykey = Double.doubleToLongBits(y);
+		int mask = this.entities.length - 1;
+		int slot = hash(xkey, ykey) & mask;
+		while (this.entities[slot] != null && (this.xbits[slot] != xkey || this.ybits[slot] != ykey))
+			slot = (slot + 1) & mask;
+		if (this.entities[slot] == null)
+			return;
+		this.size--;
+		int empty = slot;
+		for (int next = (slot + 1) & mask; this.entities[next] != null; next = (next + 1) & mask) {
+			int home = hash(this.xbits[next], this.ybits[next]) & mask;
+			if (((next - home) & mask) >= ((next - empty) & mask)) {
+				this.xbits[empty] = this.xbits[next];
+				this.ybits[empty] = this.ybits[next];
+				this.entities[empty] = this.entities[next];
+				empty = next;
+			}
+		}
+		this.entities[empty] = null;
+	}
+
+	/**
+	 * Removes all entities from this index.
+	 */
+	public void clear() {
+		this.xbits = new long[initialcapacity];
+		this.ybits = new long[initialcapacity];
+		this.entities = new Entity[initialcapacity];
+		this.size = 0;
+	}
+
+	/**
+	 * Moves all entries of this index to a table with the given number of slots.
+	 */
+	private void resize(int capacity) {
+		long[] oldxbits = this.xbits;
+		long[] oldybits = this.ybits;
+		Entity[] oldentities = this.entities;
+		this.xbits = new long[capacity];
+		this.ybits = new long[capacity];
+		this.entities = new Entity[capacity];
+		int mask = capacity - 1;
+		for (int i = 0; i < oldentities.length; i++) {
+			if (oldentities[i] == null)
+				continue;
+			int slot = hash(oldxbits[i], oldybits[i]) & mask;
+			while (this.entities[slot] != null)
+				slot = (slot + 1) & mask;
+			this.xbits[slot] = oldxbits[i];
+			this.ybits[slot] = oldybits[i];
+			this.entities[slot] = oldentities[i];
+		}
+	}
+
+	/**
+	 * Returns the hash of the position with the given coordinate bits.
+	 */
+	private static int hash(long xkey, long ykey) {
+		long hash = xkey * 0x9E3779B97F4A7C15L + ykey;
+		hash ^= (hash >>> 32);
+		hash *= 0xD6E8FEB86659FD93L;
+		return (int) (hash ^ (hash >>> 32));
+	}
+
+
+
+
+	/**
+	 * Returns an unmodifiable view of this index as a map from textual positions to entities. The key of each
+	 * position is its x coordinate followed by "x", followed by its y coordinate and "y".
+	 */
+	public Map<String, Entity> asMap() {
+		return new AbstractMap<String, Entity>() {
+
+			@Override
+			public int size() {
+				return PositionIndex.this.size();
+			}
+
+			@Override
+			public Set<Map.Entry<String, Entity>> entrySet() {
+				return new AbstractSet<Map.Entry<String, Entity>>() {
+
+					@Override
+					public int size() {
+						return PositionIndex.this.size();
+					}
+
+					@Override
+					public Iterator<Map.Entry<String, Entity>> iterator() {
+						return new EntryIterator();
+					}
+				};
+			}
+		};
+	}
+
+	/**
+	 * A class of iterators over the entries of the map view of this index.
+	 */
+	private class EntryIterator implements Iterator<Map.Entry<String, Entity>> {
+
+		/**
+		 * The slot of the next entry, or the length of the table if there is none
+		 */
+		private int slot = this.findFrom(0);
+
+		private int findFrom(int start) {
+			Entity[] entities = PositionIndex.this.entities;
+			while (start < entities.length && entities[start] == null)
+				start++;
+			return start;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return this.slot < PositionIndex.this.entities.length;
+		}
+
+		@Override
+		public Map.Entry<String, Entity> next() {
+			if (! this.hasNext())
+				throw new NoSuchElementException();
+			String key = Double.toString(Double.longBitsToDouble(PositionIndex.this.xbits[this.slot])) + "x"
+					+ Double.toString(Double.longBitsToDouble(PositionIndex.this.ybits[this.slot])) + "y";
+			Entity entity = PositionIndex.this.entities[this.slot];
+			this.slot = this.findFrom(this.slot + 1);
+			return new AbstractMap.SimpleImmutableEntry<String, Entity>(key, entity);
+		}
+	}
+}
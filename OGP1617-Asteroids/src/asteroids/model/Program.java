@@ -1,25 +1,55 @@
 package asteroids.model;
  
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Stack;
 
+import asteroids.statements.Action;
 import asteroids.statements.BreakException;
+import asteroids.statements.Instruction;
 import asteroids.statements.Statement;
-import asteroids.statements.TimerException;
  
 public class Program { 
  
 	public Program(List<Function> functions, Statement main ) {
+		this(functions, main, true);
+	}
+	
+	protected Program(List<Function> functions, Statement main, boolean interpreted) {
 		if (main == null)
 			throw new NullPointerException("main null");
 		this.main = main;
-		this.getMain().setProgram(this);
-		for (Function function : functions)
-			function.setProgram(this);
 		this.functions = this.functionMap(functions);
 		this.setTimer(new Timer(0));
+		this.scope = new Scope(this.getFunctions());
+		try {
+			this.typeCheck();
+		} catch (IllegalArgumentException e) {
+			this.typeerror = e.getMessage();
+		}
+		this.code = (interpreted && this.isWellTyped()) ? this.compile() : null;
+		this.globals = (this.code != null) ? new Object[this.scope.getGlobalCount()] : null;
+		this.frame = (this.code != null) ? new Frame(this) : null;
+		this.cache = new QueryCache(this.scope.getCacheSlotCount());
+	}
+	
+	protected Program(Program template) {
+		this.main = template.getMain();
+		this.functions = template.getFunctions();
+		this.setTimer(new Timer(0));
+		this.scope = template.getScope();
+		this.typeerror = template.getTypeError();
+		this.stepbudget = template.getStepBudget();
+		this.fuel = this.stepbudget;
+		this.code = template.code;
+		this.globals = (this.code != null) ? new Object[this.scope.getGlobalCount()] : null;
+		this.frame = (this.code != null) ? new Frame(this) : null;
+		this.cache = new QueryCache(this.scope.getCacheSlotCount());
+	}
+	
+	public Program instantiate() {
+		return new Program(this);
 	}
 	
 	private Map<String, Function> functions;
@@ -35,18 +65,73 @@ public class Program {
 		return funmap;
 	}
 	
-	public Stack<HashMap<String, Object>> variabledata =  new Stack<HashMap<String, Object>>();
-	
-	public Stack<HashMap<String, Object>> getVariableData() {
-		return variabledata;
-	}
-
 	private Statement main;
 	
 	public Statement getMain() {
 		return this.main;
 	}
 	
+	private Scope scope;
+	
+	public Scope getScope() {
+		return this.scope;
+	}
+	
+	private String typeerror;
+	
+	public boolean isWellTyped() {
+		return this.typeerror == null;
+	}
+	
+	public String getTypeError() {
+		return this.typeerror;
+	}
+	
+	private void typeCheck() throws IllegalArgumentException {
+		Scope scope = this.getScope();
+		do {
+			scope.resetChanged();
+			this.typeCheck(scope);
+		} while (scope.isChanged());
+		scope.startReporting();
+		this.typeCheck(scope);
+	}
+	
+	private void typeCheck(Scope scope) throws IllegalArgumentException {
+		for (Function function : this.getFunctions().values())
+			function.typeCheck(scope);
+		this.getMain().typeCheck(scope);
+	}
+	
+	private final Code code;
+	
+	private int pc;
+	
+	private final Object[] globals;
+	
+	public Object[] getGlobals() {
+		return this.globals;
+	}
+	
+	private final Frame frame;
+	
+	private Code compile() {
+		Scope scope = this.getScope();
+		for (Function function : this.getFunctions().values())
+			function.compile(scope);
+		return new Code(this.getMain(), scope);
+	}
+	
+	private QueryCache cache;
+	
+	public QueryCache getCache() {
+		return this.cache;
+	}
+	
+	protected void setCache(QueryCache cache) {
+		this.cache = cache;
+	}
+	
 	private Ship ship;
 
 	public Ship getShip() {
@@ -67,9 +152,89 @@ public class Program {
 		this.timer = timer;
 	}
 	
-	public void run() throws BreakException, TimerException {
-		this.getVariableData().push(new HashMap<String, Object>());
-		main.evaluate();
+	private long stepbudget = Long.MAX_VALUE;
+	
+	private long fuel = Long.MAX_VALUE;
+	
+	private long steps = 0;
+	
+	public long getStepBudget() {
+		return this.stepbudget;
+	}
+	
+	public void setStepBudget(long budget) throws IllegalArgumentException {
+		if (budget < 1)
+			throw new IllegalArgumentException("Step budget must be positive");
+		this.stepbudget = budget;
+		this.fuel = budget;
+	}
+	
+	public long getSteps() {
+		return this.steps;
+	}
+	
+	public long getFuel() {
+		return this.fuel;
+	}
+	
+	public void refuel() {
+		this.fuel = this.getStepBudget();
+	}
+	
+	public boolean step() {
+		if (this.fuel <= 0)
+			return false;
+		this.fuel--;
+		this.steps++;
+		return true;
+	}
+	
+	public void spend() throws IllegalArgumentException {
+		if (this.fuel <= -this.getStepBudget())
+			throw new IllegalArgumentException("Program exceeded its step budget");
+		this.fuel--;
+		this.steps++;
+	}
+	
+	private List<Action> actions;
+	
+	public boolean isBuffering() {
+		return this.actions != null;
+	}
+	
+	public void bufferActions() {
+		this.actions = new ArrayList<Action>();
+	}
+	
+	public void perform(Action action) throws IllegalArgumentException {
+		if (this.isBuffering())
+			this.actions.add(action);
+		else
+			action.perform(this.getShip());
+	}
+	
+	public void applyActions() throws IllegalArgumentException {
+		List<Action> buffered = this.actions;
+		this.actions = null;
+		for (Action action : buffered)
+			action.perform(this.getShip());
+	}
+	
+	public boolean run() throws BreakException {
+		while (this.pc < this.code.size()) {
+			int next;
+			try {
+				next = this.code.get(this.pc).execute(this.frame, this.pc);
+			} catch (BreakException e) {
+				next = this.code.getBreakTarget(this.pc);
+				if (next < 0)
+					throw e;
+			}
+			if (next == Instruction.SUSPEND)
+				return false;
+			this.pc = next;
+		}
+		return true;
 	}
 	
 }
\ No newline at end of file
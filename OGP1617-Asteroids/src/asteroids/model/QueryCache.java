@@ -0,0 +1,102 @@
+package asteroids.model;
+
+import java.util.Arrays;
+
+import asteroids.expressions.EntityExpression;
+
+/**
+ * A class of caches of the entities found by the entity expressions of a program. The entity expressions of the
+ * program of the same class, which find the same entity for the same ship, share a slot in the cache. The entity
+ * in a slot is reused as long as the ship of the program stays in the same world and the epoch of that world does
+ * not advance.
+ * A cache is only used by the program it belongs to, so it is not thread-safe.
+ *
+ * @version 3.0
+ * @author Bernardo Saniz, Elien Vlaeyen
+ */
+public class QueryCache {
+
+	/**
+	 * Initializes this cache with the given number of slots, all empty.
+	 *
+	 * @param size
+	 *  The number of slots of this cache
+	 */
+	public QueryCache(int size) {
+		this.entities = new Entity[size];
+		this.epochs = new long[size];
+		Arrays.fill(this.epochs, -1);
+	}
+
+	/**
+	 * The entities in the slots of this cache
+	 */
+	private final Entity[] entities;
+
+	/**
+	 * The epochs of the world in which the entities in the slots of this cache were found, -1 for empty slots
+	 */
+	private final long[] epochs;
+
+	/**
+	 * The world in which the entities in this cache were found
+	 */
+	private World world = null;
+
+	/**
+	 * The number of entities found in this cache, and the number of entities that had to be looked up
+	 */
+	private long hits = 0, misses = 0;
+
+	/**
+	 * Returns the number of slots of this cache.
+	 */
+	public int size() {
+		return this.entities.length;
+	}
+
+	/**
+	 * Returns the number of times an entity was found in this cache.
+	 */
+	public long getHits() {
+		return this.hits;
+	}
+
+	/**
+	 * Returns the number of times an entity was not found in this cache and had to be looked up.
+	 */
+	public long getMisses() {
+		return this.misses;
+	}
+
+	/**
+	 * Returns the entity given by the given expression for the given ship, using the given slot of this cache.
+	 *
+	 * @param slot
+	 *  The slot of the given expression
+	 * @param expression
+	 *  The expression giving the entity
+	 * @param ship
+	 *  The ship for which the expression is evaluated
+	 * @return The entity given by the expression for the ship.
+	 *  | result == expression.getEntity(ship)
+	 */
+	public Entity getEntity(int slot, EntityExpression<?> expression, Ship ship) {
+		World world = ship.getWorld();
+		if (world != this.world) {
+			Arrays.fill(this.epochs, -1);
+			this.world = world;
+		}
+		long epoch = (world == null) ? -1 : world.getEpoch();
+		if (epoch >= 0 && this.epochs[slot] == epoch) {
+			this.hits++;
+			return this.entities[slot];
+		}
+		this.misses++;
+		Entity entity = expression.getEntity(ship);
+		this.entities[slot] = entity;
+		this.epochs[slot] = epoch;
+		return entity;
+	}
+
+}
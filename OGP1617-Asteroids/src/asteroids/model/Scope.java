@@ -0,0 +1,332 @@
+package asteroids.model;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import asteroids.expressions.Type;
+
+/**
+ * A class of scopes used while compiling a program. A scope resolves the names of variables to slots in the
+ * frames in which a program is executed, so that no names have to be looked up while the program runs.
+ * The scope of the main statement of a program only knows global variables; the scope of a function body also
+ * has its own local variables, which shadow the global variables with the same name once they are assigned.
+ * Scopes also record the static types of the variables and functions of a program while it is type checked. The
+ * types of a program are found by checking it until they no longer change; only the last check reports errors.
+ *
+ * @version 3.0
+ * @author Bernardo Saniz, Elien Vlaeyen
+ */
+public class Scope {
+
+	/**
+	 * Initializes this scope as the scope of the main statement of a program with the given functions.
+	 *
+	 * @param functions
+	 *  The functions of the program, mapped to their names
+	 */
+	public Scope(Map<String, Function> functions) {
+		this.functions = functions;
+		this.globals = new HashMap<String, Integer>();
+		this.globaltypes = new HashMap<String, EnumSet<Type>>();
+		this.returntypes = new HashMap<Function, Type>();
+		this.scopes = new HashMap<Function, Scope>();
+		this.program = this;
+		this.function = null;
+		this.locals = null;
+		this.localtypes = null;
+	}
+
+	/**
+	 * Initializes this scope as the scope of the body of the given function, nested in the given scope.
+	 *
+	 * @param program
+	 *  The scope of the main statement of the program of the function
+	 * @param function
+	 *  The function whose body is compiled in this scope
+	 */
+	public Scope(Scope program, Function function) {
+		this.functions = program.functions;
+		this.globals = program.globals;
+		this.globaltypes = program.globaltypes;
+		this.returntypes = program.returntypes;
+		this.scopes = null;
+		this.program = program;
+		this.function = function;
+		this.locals = new HashMap<String, Integer>();
+		this.localtypes = new HashMap<String, EnumSet<Type>>();
+	}
+
+	/**
+	 * The functions of the program, mapped to their names
+	 */
+	private final Map<String, Function> functions;
+
+	/**
+	 * The slots of the global variables of the program, shared by all scopes of the program
+	 */
+	private final Map<String, Integer> globals;
+
+	/**
+	 * The function whose body is compiled in this scope, null for the main statement
+	 */
+	private final Function function;
+
+	/**
+	 * The slots of the local variables of the function, null for the main statement
+	 */
+	private final Map<String, Integer> locals;
+
+	/**
+	 * The types assigned to the global variables of the program, shared by all scopes of the program
+	 */
+	private final Map<String, EnumSet<Type>> globaltypes;
+
+	/**
+	 * The types assigned to the local variables of the function, null for the main statement
+	 */
+	private final Map<String, EnumSet<Type>> localtypes;
+
+	/**
+	 * The types of the values returned by the functions of the program, shared by all scopes of the program
+	 */
+	private final Map<Function, Type> returntypes;
+
+	/**
+	 * The scopes of the bodies of the functions of the program, null for the scope of a function body
+	 */
+	private final Map<Function, Scope> scopes;
+
+	/**
+	 * The scope of the main statement of the program
+	 */
+	private final Scope program;
+
+	/**
+	 * The slots in the query cache of the program, mapped to the classes of the expressions using them, only used
+	 * in the scope of the main statement
+	 */
+	private final Map<Class<?>, Integer> cacheslots = new HashMap<Class<?>, Integer>();
+
+	/**
+	 * The number of while loops around the statement being checked
+	 */
+	private int loops;
+
+	/**
+	 * Whether a type has changed since this scope was last reset, only used in the scope of the main statement
+	 */
+	private boolean changed;
+
+	/**
+	 * Whether type errors are reported, only used in the scope of the main statement
+	 */
+	private boolean reporting;
+
+	/**
+	 * Returns whether this is the scope of a function body.
+	 */
+	public boolean isInFunction() {
+		return this.function != null;
+	}
+
+	/**
+	 * Returns the function with the given name, null if there is none.
+	 */
+	public Function getFunction(String name) {
+		return this.functions.get(name);
+	}
+
+	/**
+	 * Returns the scope of the body of the given function of the program.
+	 */
+	public Scope getScope(Function function) {
+		Scope scope = this.program.scopes.get(function);
+		if (scope == null) {
+			scope = new Scope(this.program, function);
+			this.program.scopes.put(function, scope);
+		}
+		return scope;
+	}
+
+	/**
+	 * Returns the slot of the global variable with the given name, assigning a new slot if it has none yet.
+	 */
+	public int getGlobalSlot(String name) {
+		Integer slot = this.globals.get(name);
+		if (slot == null) {
+			slot = this.globals.size();
+			this.globals.put(name, slot);
+		}
+		return slot;
+	}
+
+	/**
+	 * Returns the slot of the local variable with the given name, assigning a new slot if it has none yet.
+	 *
+	 * @throws IllegalStateException if this is not the scope of a function body.
+	 *  | ! isInFunction()
+	 */
+	public int getLocalSlot(String name) throws IllegalStateException {
+		if (! this.isInFunction())
+			throw new IllegalStateException("No local variables outside function");
+		Integer slot = this.locals.get(name);
+		if (slot == null) {
+			slot = this.locals.size();
+			this.locals.put(name, slot);
+		}
+		return slot;
+	}
+
+	/**
+	 * Returns the slot in the query cache of the program shared by all expressions of the given class, assigning a
+	 * new slot if the class has none yet.
+	 */
+	public int getCacheSlot(Class<?> type) {
+		Map<Class<?>, Integer> slots = this.program.cacheslots;
+		Integer slot = slots.get(type);
+		if (slot == null) {
+			slot = slots.size();
+			slots.put(type, slot);
+		}
+		return slot;
+	}
+
+	/**
+	 * Returns the number of slots in the query cache of the program.
+	 */
+	public int getCacheSlotCount() {
+		return this.program.cacheslots.size();
+	}
+
+	/**
+	 * Returns the number of global variables of the program.
+	 */
+	public int getGlobalCount() {
+		return this.globals.size();
+	}
+
+	/**
+	 * Returns the number of local variables of the function, zero for the main statement.
+	 */
+	public int getLocalCount() {
+		return (this.locals == null) ? 0 : this.locals.size();
+	}
+
+	/**
+	 * Returns the type of the value of the variable with the given name read in this scope, null if no value of
+	 * a known type has been assigned to it yet.
+	 */
+	public Type getVariableType(String name) {
+		Type type = typeOf(this.globaltypes.get(name));
+		if (this.isInFunction())
+			type = Type.join(typeOf(this.localtypes.get(name)), type);
+		return type;
+	}
+
+	/**
+	 * Returns the type of the values assigned in this scope to the variable with the given name, null if no value
+	 * of a known type has been assigned to it yet.
+	 */
+	public Type getAssignedType(String name) {
+		return typeOf((this.isInFunction() ? this.localtypes : this.globaltypes).get(name));
+	}
+
+	/**
+	 * Records that a value of the given type is assigned in this scope to the variable with the given name.
+	 *
+	 * @throws IllegalArgumentException if type errors are reported and values of different known types are
+	 *  assigned to the variable.
+	 */
+	public void addVariableType(String name, Type type) throws IllegalArgumentException {
+		if (type == null)
+			return;
+		Map<String, EnumSet<Type>> types = this.isInFunction() ? this.localtypes : this.globaltypes;
+		EnumSet<Type> assigned = types.get(name);
+		if (assigned == null) {
+			assigned = EnumSet.noneOf(Type.class);
+			types.put(name, assigned);
+		}
+		if (assigned.add(type))
+			this.program.changed = true;
+		this.check(assigned.size() == 1 || (assigned.size() == 2 && assigned.contains(Type.ANY)),
+				"Cannot change variable type");
+	}
+
+	private static Type typeOf(EnumSet<Type> types) {
+		if (types == null || types.isEmpty())
+			return null;
+		if (types.size() > 1)
+			return Type.ANY;
+		return types.iterator().next();
+	}
+
+	/**
+	 * Returns the type of the values returned by the given function, null if it is not known yet.
+	 */
+	public Type getReturnType(Function function) {
+		return this.returntypes.get(function);
+	}
+
+	/**
+	 * Sets the type of the values returned by the given function to the given type.
+	 */
+	public void setReturnType(Function function, Type type) {
+		if (this.returntypes.get(function) != type)
+			this.program.changed = true;
+		this.returntypes.put(function, type);
+	}
+
+	/**
+	 * Registers that the statements checked from now on are in one more while loop.
+	 */
+	public void enterLoop() {
+		this.loops++;
+	}
+
+	/**
+	 * Registers that the statements checked from now on are in one while loop less.
+	 */
+	public void exitLoop() {
+		this.loops--;
+	}
+
+	/**
+	 * Returns whether the statement being checked is in a while loop.
+	 */
+	public boolean isInLoop() {
+		return this.loops > 0;
+	}
+
+	/**
+	 * Returns whether a type of the program has changed since the last reset.
+	 */
+	public boolean isChanged() {
+		return this.program.changed;
+	}
+
+	/**
+	 * Forgets whether a type of the program has changed.
+	 */
+	public void resetChanged() {
+		this.program.changed = false;
+	}
+
+	/**
+	 * Makes this scope and the scopes of the functions of the program report type errors from now on.
+	 */
+	public void startReporting() {
+		this.program.reporting = true;
+	}
+
+	/**
+	 * Reports a type error with the given message if type errors are reported and the given condition is false.
+	 *
+	 * @throws IllegalArgumentException if type errors are reported and the given condition is false.
+	 */
+	public void check(boolean condition, String message) throws IllegalArgumentException {
+		if (this.program.reporting && ! condition)
+			throw new IllegalArgumentException(message);
+	}
+
+}
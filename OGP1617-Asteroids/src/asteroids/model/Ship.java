@@ -8,7 +8,6 @@ import java.util.Set;
 
 import asteroids.model.Program;
 import asteroids.statements.BreakException;
-import asteroids.statements.TimerException;
 import be.kuleuven.cs.som.annotate.Basic;
 import be.kuleuven.cs.som.annotate.Immutable;
 import be.kuleuven.cs.som.annotate.Raw;
@@ -177,6 +176,8 @@ public class Ship extends Entity {
 	 */
 	public void setOrientation(double orientation) {
 		this.orientation = orientation;
+		if (this.getWorld() != null)
+			this.getWorld().advanceEpoch();
 	}
 	
 	
@@ -260,8 +261,8 @@ public class Ship extends Entity {
 	// and the bullet is always smaller than the ship. The bullet's position is therefore always valid.
 	@Raw
 	public void recoverBullet(Bullet bullet) throws IllegalArgumentException, NullPointerException {
-		bullet.setXPosition(this.getPos().getX());
-		bullet.setYPosition(this.getPos().getY());
+		bullet.setXPosition(this.getXPosition());
+		bullet.setYPosition(this.getYPosition());
 		this.bulletlist.add(bullet);
 		bullet.setWorld(null);
 		bullet.setShip(this);
@@ -352,8 +353,8 @@ public class Ship extends Entity {
 	 */
 	@Raw
 	public void prepareToFireBullet(Bullet bullet) throws IllegalArgumentException {
-		bullet.setXPosition(this.getPos().getX() + (bullet.getRadius() + this.getRadius())*Math.cos(this.getOrientation()));
-		bullet.setYPosition(this.getPos().getY() + (bullet.getRadius() + this.getRadius())*Math.sin(this.getOrientation()));
+		bullet.setXPosition(this.getXPosition() + (bullet.getRadius() + this.getRadius())*Math.cos(this.getOrientation()));
+		bullet.setYPosition(this.getYPosition() + (bullet.getRadius() + this.getRadius())*Math.sin(this.getOrientation()));
 		bullet.setSpeed(250*Math.cos(this.getOrientation()), 250*Math.sin(this.getOrientation()));
 		if(! bullet.isInBoundaries(this.getWorld()))
 			throw new IllegalArgumentException("Bullet is out of boundaries!");
@@ -493,8 +494,8 @@ public class Ship extends Entity {
 	 */
 	public void accelerate(double time) {
 		double a = this.getAcceleration();
-		double newxspeed = this.getVel().getX() + time*a*Math.cos(this.getOrientation());
-		double newyspeed = this.getVel().getY() + time*a*Math.sin(this.getOrientation());
+		double newxspeed = this.getXVelocity() + time*a*Math.cos(this.getOrientation());
+		double newyspeed = this.getYVelocity() + time*a*Math.sin(this.getOrientation());
 		this.setSpeed(newxspeed, newyspeed);
 	}
 	
@@ -521,8 +522,8 @@ public class Ship extends Entity {
 		super.move(time);
 		this.accelerate(time);
 		for (Bullet bullet : this.getBulletList()) {
-			bullet.setXPosition(this.getPos().getX());
-			bullet.setYPosition(this.getPos().getY());
+			bullet.setXPosition(this.getXPosition());
+			bullet.setYPosition(this.getYPosition());
 		}	
 	}
 	
@@ -546,16 +547,16 @@ public class Ship extends Entity {
 			double sigma = this.getRadius() + other.getRadius();
 			double dx = other.getXDifference(this);
 			double dy = other.getYDifference(this);
-			double dvx = other.getVel().getX() - this.getVel().getX();
-			double dvy = other.getVel().getY() - this.getVel().getY();
-			double dvr = dvx*dx + dvy*dy;
+			double dvx = other.getXVelocity() - this.getXVelocity();
+			double dvy = other.getYVelocity() - this.getYVelocity();
+			double dvr = MutableVector.dot(dvx, dvy, dx, dy);
 		
 			double j = (2*this.getTotalMass()*((Ship)other).getTotalMass()*dvr)/(sigma*(this.getTotalMass() + ((Ship)other).getTotalMass()));
 			double jx = j*dx/sigma;
 			double jy = j*dy/sigma;
 		
-			this.setSpeed(this.getVel().getX() + jx/this.getTotalMass(), this.getVel().getY() + jy/this.getTotalMass());
-			other.setSpeed(other.getVel().getX() - jx/((Ship)other).getTotalMass(), other.getVel().getY() - jy/((Ship)other).getTotalMass());
+			this.setSpeed(this.getXVelocity() + jx/this.getTotalMass(), this.getYVelocity() + jy/this.getTotalMass());
+			other.setSpeed(other.getXVelocity() - jx/((Ship)other).getTotalMass(), other.getYVelocity() - jy/((Ship)other).getTotalMass());
 		}
 		
 		else
@@ -617,8 +618,12 @@ public class Ship extends Entity {
 	 *  The program to be loaded
 	 * @post The given program will be loaded onto this ship.
 	 *  | new.getProgram() == program
+	 * @throws IllegalArgumentException The given program is not well typed.
+	 *  | ! program.isWellTyped()
 	 */
-	public void setProgram(Program program) {
+	public void setProgram(Program program) throws IllegalArgumentException {
+		if (! program.isWellTyped())
+			throw new IllegalArgumentException(program.getTypeError());
 		this.program = program;
 		program.setShip(this);
 	}
@@ -628,18 +633,19 @@ public class Ship extends Entity {
 	 * 
 	 * @param time
 	 *  The time duration for the execution of the program
-	 * @return The list of objects printed during the execution of this ship's program.
-	 *  | result == this.getItems()
+	 * @return The list of objects printed during the execution of this ship's program, if the program has
+	 *  completed, null if it has been suspended until it gets more time or more steps. The program gets as
+	 *  many steps as its step budget for every run.
+	 *  | if (getProgram().run()) then result == this.getItems() else result == null
 	 * @throws BreakException When a break statement called incorrectly.
+	 * @throws IllegalArgumentException When a function call of the program runs out of steps.
 	 */
-	public List<Object> doProgram(double time) throws BreakException {
+	public List<Object> doProgram(double time) throws BreakException, IllegalArgumentException {
 		this.getProgram().getTimer().addTime(time);
-		try {
-		this.getProgram().run();
-		return this.getItems();
-		} catch (TimerException e) {
+		this.getProgram().refuel();
+		if (! this.getProgram().run())
 			return null;
-		}
+		return this.getItems();
 	}
 	
 }
@@ -101,7 +101,7 @@ public class Vector {
 	 * 	| result == sqrt(this.getX()^2 + this.getY()^2)
 	 */
 	public double getMagnitude() {
-		return Math.sqrt(Math.pow(this.getX(), 2) + Math.pow(this.getY(), 2));
+		return MutableVector.getMagnitude(this.getX(), this.getY());
 	}
 	
 	
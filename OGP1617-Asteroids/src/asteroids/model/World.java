@@ -1,13 +1,23 @@
 package asteroids.model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
 
 import asteroids.part2.CollisionListener;
+import asteroids.statements.BreakException;
 import be.kuleuven.cs.som.annotate.Basic;
 import be.kuleuven.cs.som.annotate.Immutable;
 import be.kuleuven.cs.som.annotate.Raw;
@@ -37,8 +47,42 @@ public class World {
 	 */
 	@Raw
 	public World(double width, double height) {
+		this(width, height, false);
+	}
+	
+	/**
+	 * Creates a new world with a given height and width, containing no ships or bullets. If requested, the
+	 * position, velocity, radius and mass of the entities in the world are kept in parallel arrays while they
+	 * are in this world.
+	 * 
+	 * @param height
+	 * 	The height of the new world expressed in kilometers
+	 * @param width
+	 * 	The width of the new world expressed in kilometers
+	 * @param packed
+	 *  True if the state of the entities in the new world has to be kept in arrays
+	 * @post The new world keeps the state of its entities in arrays if and only if packed is true.
+	 *  | new.isPacked() == packed
+	 */
+	@Raw
+	public World(double width, double height, boolean packed) {
 		this.setWidth(width);
 		this.setHeight(height);
+		if (packed)
+			this.store = new EntityStore();
+	}
+	
+	/**
+	 * The store keeping the state of the entities in this world, null if the entities keep their own state
+	 */
+	private EntityStore store = null;
+	
+	/**
+	 * Returns whether or not this world keeps the state of its entities in arrays.
+	 */
+	@Basic @Immutable
+	public boolean isPacked() {
+		return this.store != null;
 	}
 	
 	
@@ -161,9 +205,14 @@ public class World {
 
 
 	/**
-	 * A set containing all the entities in this world
+	 * A set containing all the entities in this world, in the order in which they were added
+	 */
+	private Set<Entity> entitylist = new LinkedHashSet<Entity>();
+	
+	/**
+	 * A map from the classes of the entities in this world to the entities of exactly that class
 	 */
-	private Set<Entity> entitylist = new HashSet<Entity>();
+	private final Map<Class<? extends Entity>, Set<Entity>> entityclasses = new HashMap<Class<? extends Entity>, Set<Entity>>();
 	
 	/**
 	 * Places the given entity in this world.
@@ -191,8 +240,14 @@ public class World {
 			throw new IllegalArgumentException("Entity is out of bounds");
 		try {
 			this.entitylist.add(entity);
+			this.getClassSet(entity.getClass()).add(entity);
+			this.advanceEpoch();
 			this.addPosition(entity);
 			entity.setWorld(this);
+			if (this.store != null)
+				this.store.add(entity);
+			if (this.scheduler != null)
+				this.scheduler.invalidate(entity);
 		} catch (IllegalArgumentException e) {
 			this.removeEntity(entity);
 			throw new IllegalArgumentException("Entity could not be added!");
@@ -218,7 +273,12 @@ public class World {
 		if (entity.getWorld() != this)
 			throw new IllegalArgumentException("Entity is not in world");
 		this.entitylist.remove(entity);
-		this.removePosition(entity.getPos().getX(), entity.getPos().getY());
+		this.getClassSet(entity.getClass()).remove(entity);
+		this.advanceEpoch();
+		this.removePosition(entity.getXPosition(), entity.getYPosition());
+		this.grid.remove(entity);
+		if (this.store != null)
+			this.store.remove(entity);
 		entity.setWorld(null);
 		
 	}
@@ -233,6 +293,8 @@ public class World {
 	
 	/**
 	 * Returns a set containing all entities of the given subclass within this world.
+	 * The entities are copied from the sets of entities per class that this world keeps up to date, so the cost of
+	 * this method only depends on the number of entities returned.
 	 * 
 	 * @param type
 	 *  The subclass that the set is to contain
@@ -245,30 +307,106 @@ public class World {
 	 */
 	@SuppressWarnings("unchecked")
 	public <T extends Entity> Set<T> getSpecificList(Class<? extends Entity> type) {
-		Set<T> list = new HashSet<T>();
 		if (type.equals(Entity.class))
-			list.addAll((Set<T>) this.getEntityList());
-		else
-			list = (Set<T>) this.getEntityList().stream()
-												.filter(e -> e.getClass().isAssignableFrom(type))
-												.collect(Collectors.toSet());
-		
+			return new HashSet<T>((Set<T>) this.getEntityList());
+		Set<T> list = new HashSet<T>();
+		for (Class<?> superclass = type; superclass != null && Entity.class.isAssignableFrom(superclass);
+				superclass = superclass.getSuperclass()) {
+			Set<Entity> entities = this.entityclasses.get(superclass);
+			if (entities != null)
+				list.addAll((Set<T>) entities);
+		}
 		return list;
 	}
 	
+	/**
+	 * The indices used to find the entity of a given class closest to another entity, mapped to that class. The
+	 * indices are built when they are first needed, and forgotten whenever the epoch of this world advances, so
+	 * they are built at most once between two steps of an evolution.
+	 */
+	private final Map<Class<? extends Entity>, NearestIndex> nearestindices =
+			new ConcurrentHashMap<Class<? extends Entity>, NearestIndex>();
+	
+	/**
+	 * Returns the entity of the given class in this world that is closest to the given entity, other than the given
+	 * entity itself. Distances are measured between the edges of the entities. Of several entities at the same
+	 * distance, the one that was added to this world first is returned.
+	 * This method may be called from several threads at once, as long as this world does not change meanwhile.
+	 * 
+	 * @param entity
+	 *  The entity whose closest entity is looked for
+	 * @param type
+	 *  The class of the entity looked for
+	 * @return The entity of the given class in this world, other than the given entity, whose distance to the
+	 *  given entity is the smallest, null if there is none.
+	 *  | for each other in this.getEntityList()
+	 *  |	if type.isInstance(other) && other != entity
+	 *  |		then result != null && entity.getDistanceBetween(result) <= entity.getDistanceBetween(other)
+	 */
+	public <T extends Entity> T getNearest(Entity entity, Class<T> type) {
+		NearestIndex index = this.nearestindices.computeIfAbsent(type, key -> {
+			List<Entity> entities = new ArrayList<Entity>();
+			for (Entity other : this.getEntityList())
+				if (key.isInstance(other))
+					entities.add(other);
+			return new NearestIndex(entities);
+		});
+		return type.cast(index.getNearest(entity));
+	}
+	
+	/**
+	 * The epoch of this world, advanced whenever something that programs can query changes in this world
+	 */
+	private long epoch = 0;
+	
+	/**
+	 * Returns the epoch of this world. As long as the epoch of this world stays the same, queries about the
+	 * entities in this world give the same results.
+	 */
+	@Basic
+	public long getEpoch() {
+		return this.epoch;
+	}
+	
+	/**
+	 * Advances the epoch of this world, and forgets the indices of this world used to find the closest entities.
+	 * 
+	 * @post The epoch of this world is advanced.
+	 *  | new.getEpoch() == this.getEpoch() + 1
+	 */
+	void advanceEpoch() {
+		this.epoch++;
+		if (! this.nearestindices.isEmpty())
+			this.nearestindices.clear();
+	}
+	
+	/**
+	 * Returns the set of entities in this world of exactly the given class.
+	 */
+	private Set<Entity> getClassSet(Class<? extends Entity> type) {
+		Set<Entity> set = this.entityclasses.get(type);
+		if (set == null) {
+			set = new HashSet<Entity>();
+			this.entityclasses.put(type, set);
+		}
+		return set;
+	}
+	
 	
 	
 	/**
-	 * A map containing all the entities in this world, with their position as their key.
+	 * An index containing all the entities in this world, with their exact position as their key.
 	 */
-	private HashMap<String, Entity> entitypositions = new HashMap<String, Entity>();
+	private final PositionIndex entitypositions = new PositionIndex();
 	
 	/**
 	 * Returns a map containing all the entities in this world, mapped to their positions.
+	 * The map is an unmodifiable view, the key of each position is its x coordinate followed by "x",
+	 * followed by its y coordinate and "y".
 	 */
 	@Basic
-	public HashMap<String, Entity> getEntityPositions() {
-		return this.entitypositions;
+	public Map<String, Entity> getEntityPositions() {
+		return this.entitypositions.asMap();
 	}
 	
 	/**
@@ -286,12 +424,7 @@ public class World {
 	 *  |	then result == null
 	 */
 	public Entity getEntityAt(double xpos, double ypos) {
-		String key = Double.toString(xpos)+"x"+Double.toString(ypos)+"y"; 
-		if (this.getEntityPositions().containsKey(key))
-			return this.getEntityPositions().get(key);
-		else{
-			return null;
-			}
+		return this.entitypositions.get(xpos, ypos);
 	}
 	
 	/**
@@ -307,8 +440,8 @@ public class World {
 	 *  | 		Double.toString(entity.getPos().getX()) + "x" + Double.toString(entity.getPos().getY()) + "y") == entity
 	 */
 	public void addPosition(Entity entity) {
-		String key = Double.toString(entity.getPos().getX())+"x"+Double.toString(entity.getPos().getY())+"y"; 
-		this.entitypositions.put(key, entity);
+		this.entitypositions.put(entity.getXPosition(), entity.getYPosition(), entity);
+		this.grid.update(entity);
 	}
 	
 	/**
@@ -322,33 +455,35 @@ public class World {
 	 *  | ! new.getEntityPositions().containsKey(Double.toString(xpos) + "x" + Double.toString(ypos) + "y")
 	 */
 	public void removePosition(double xpos, double ypos) {
-		String key = Double.toString(xpos)+"x"+Double.toString(ypos)+"y";
-		this.entitypositions.remove(key);
+		this.entitypositions.remove(xpos, ypos);
 	}
 	
 	
 	
 	
+	/**
+	 * A uniform grid containing the entities in this world, used to find the next collision
+	 */
+	private final CollisionGrid grid = new CollisionGrid();
+	
+	/**
+	 * Returns the grid containing the entities in this world.
+	 */
+	@Basic
+	CollisionGrid getGrid() {
+		return this.grid;
+	}
+	
 	/**
 	 * Returns the time until the next collision in this world occurs.
 	 * 
 	 * @return The shortest time until one of the entities in this world collides with its boundaries or with another entity.
 	 */
 	public double getTimeNextCollision() {
-		double time = Double.POSITIVE_INFINITY;
-		for (Entity entity : this.getEntityList()) {
-			double collisiontime = entity.getTimeToCollision();
-			if (collisiontime < time && collisiontime > 0)
-				time = collisiontime;
-			for (Entity other : this.getEntityList()) {
-				if(entity.equals(other))
-					continue;
-				collisiontime = entity.getTimeToCollision(other);
-				if (collisiontime < time && collisiontime > 0)
-					time = collisiontime;
-			}
-		}
-		return time;
+		List<CollisionEvent> next = this.getNextCollisions(false);
+		if (next.isEmpty())
+			return Double.POSITIVE_INFINITY;
+		return next.get(0).getTime();
 	}
 	
 	/**
@@ -357,95 +492,435 @@ public class World {
 	 * @return The position of the next collision in this world.
 	 */
 	public double[] getPositionNextCollision() {
-		double time = Double.POSITIVE_INFINITY;
-		Entity collided1 = null;
-		Entity collided2 = null;
-		for (Entity entity : this.getEntityList()) {
-			double collisiontime = entity.getTimeToCollision();
-			if (collisiontime < time && collisiontime >= 0) {
-				time = collisiontime;
-				collided1 = entity;
-				collided2 = null;
-			}
-			for (Entity other : this.getEntityList()) {
-				if(entity.equals(other))
-					continue;
-				collisiontime = entity.getTimeToCollision(other);
-				if (collisiontime < time && collisiontime >= 0) {
-					time = collisiontime;
-					collided1 = entity;
-					collided2 = other;
-				}
-			}
-		}
-		double[] pos;
-		if (time == Double.POSITIVE_INFINITY)
+		List<CollisionEvent> next = this.getNextCollisions(true);
+		if (next.isEmpty())
 			return null;
-		else if (collided2 == null)
-			pos = collided1.getCollisionPosition();
+		return next.get(0).getPosition();
+	}
+	
+	/**
+	 * Returns the next collisions in this world, all happening at the same time and ordered as described in
+	 * CollisionEvent.
+	 * The earliest boundary collision bounds the time in which any two entities can collide first. Each entity is
+	 * then only checked against the entities in the cells of the grid it can reach within that time.
+	 * If this world contains more entities than its parallel threshold, both passes are split over the collision
+	 * pool of this world. Since collisions are totally ordered, the result is the same as for a sequential search.
+	 * 
+	 * @param includenow
+	 *  True if collisions happening right now have to be taken into account
+	 * @return The earliest collisions in this world with a positive time, or a time of zero if includenow is true.
+	 * 		   An empty list if no collision will happen.
+	 * @throws IllegalArgumentException if two entities in this world overlap.
+	 */
+	List<CollisionEvent> getNextCollisions(boolean includenow) throws IllegalArgumentException {
+		Entity[] entities = this.getEntityList().toArray(new Entity[0]);
+		BoundarySummary summary = EntityScan.scan(this.getCollisionPool(), this.getParallelThreshold(), entities,
+				(range, from, to) -> {
+					List<CollisionEvent> earliest = new ArrayList<CollisionEvent>();
+					double maxradius = 0;
+					double maxspeed = 0;
+					for (int i = from; i < to; i++) {
+						double time = range[i].getTimeToCollision();
+						if (isValidCollisionTime(time, includenow))
+							CollisionEvent.offer(earliest, new CollisionEvent(time, range[i], null));
+						maxradius = Math.max(maxradius, range[i].getRadius());
+						maxspeed = Math.max(maxspeed, range[i].getTotalSpeed());
+					}
+					return new BoundarySummary(earliest, maxradius, maxspeed);
+				}, BoundarySummary::combine);
+		this.fitGrid(summary.maxradius, summary.maxspeed,
+				summary.earliest.isEmpty() ? Double.POSITIVE_INFINITY : summary.earliest.get(0).getTime());
+		List<CollisionEvent> next = EntityScan.scan(this.getCollisionPool(), this.getParallelThreshold(), entities,
+				(range, from, to) -> {
+					List<CollisionEvent> earliest = new ArrayList<CollisionEvent>(summary.earliest);
+					List<Entity> candidates = new ArrayList<Entity>();
+					for (int i = from; i < to; i++) {
+						Entity entity = range[i];
+						double horizon = earliest.isEmpty() ? Double.POSITIVE_INFINITY : earliest.get(0).getTime();
+						double reach = entity.getRadius() + summary.maxradius;
+						double speed = entity.getTotalSpeed() + summary.maxspeed;
+						if (speed > 0)
+							reach += speed * horizon;
+						candidates.clear();
+						Collection<Entity> others = candidates;
+						if (! this.grid.collect(entity.getXPosition(), entity.getYPosition(), reach, candidates))
+							others = Arrays.asList(range);
+						for (Entity other : others) {
+							if (other.getId() <= entity.getId())
+								continue;
+							double time = entity.getTimeToCollision(other);
+							if (isValidCollisionTime(time, includenow) && time <= horizon)
+								CollisionEvent.offer(earliest, new CollisionEvent(time, entity, other));
+						}
+					}
+					return earliest;
+				}, CollisionEvent::merge);
+		Collections.sort(next);
+		List<CollisionEvent> result = new ArrayList<CollisionEvent>(next.size());
+		for (CollisionEvent event : next)
+			if (result.isEmpty() || ! event.equals(result.get(result.size() - 1)))
+				result.add(event);
+		return result;
+	}
+	
+	/**
+	 * A class of summaries of the boundary collisions, radii and speeds of a group of entities.
+	 */
+	private static class BoundarySummary {
+		
+		/**
+		 * Initializes this summary with the given earliest boundary collision, largest radius and largest speed.
+		 */
+		private BoundarySummary(List<CollisionEvent> earliest, double maxradius, double maxspeed) {
+			this.earliest = earliest;
+			this.maxradius = maxradius;
+			this.maxspeed = maxspeed;
+		}
+		
+		/**
+		 * The earliest boundary collisions of the entities, all happening at the same time
+		 */
+		private final List<CollisionEvent> earliest;
+		
+		/**
+		 * The largest radius of the entities
+		 */
+		private final double maxradius;
+		
+		/**
+		 * The largest speed of the entities
+		 */
+		private final double maxspeed;
+		
+		/**
+		 * Returns the summary of the entities of both given summaries.
+		 */
+		private static BoundarySummary combine(BoundarySummary first, BoundarySummary second) {
+			return new BoundarySummary(CollisionEvent.merge(first.earliest, second.earliest),
+					Math.max(first.maxradius, second.maxradius), Math.max(first.maxspeed, second.maxspeed));
+		}
+	}
+	
+	
+	
+	
+	/**
+	 * The pool in which the search for collisions in this world, and the execution of the programs of its ships,
+	 * are split over several threads
+	 */
+	private ForkJoinPool collisionpool = ForkJoinPool.commonPool();
+	
+	/**
+	 * The largest number of entities for which collisions are searched in one thread
+	 */
+	private int parallelthreshold = 512;
+	
+	/**
+	 * Returns the pool in which the search for collisions in this world is split over several threads.
+	 */
+	@Basic
+	public ForkJoinPool getCollisionPool() {
+		return this.collisionpool;
+	}
+	
+	/**
+	 * Sets the pool in which the search for collisions in this world is split over several threads.
+	 * 
+	 * @param pool
+	 *  The new pool
+	 * @post If the given pool is null, the common pool is used.
+	 *  | if pool == null
+	 *  |	then new.getCollisionPool() == ForkJoinPool.commonPool()
+	 * @post Otherwise the given pool is used.
+	 *  | new.getCollisionPool() == pool
+	 */
+	public void setCollisionPool(ForkJoinPool pool) {
+		if (pool == null)
+			this.collisionpool = ForkJoinPool.commonPool();
 		else
-			pos = collided1.getCollisionPosition(collided2);
-		return pos;
+			this.collisionpool = pool;
+	}
+	
+	/**
+	 * Returns the largest number of entities for which collisions are searched in one thread. Worlds with fewer
+	 * entities are searched sequentially.
+	 */
+	@Basic
+	public int getParallelThreshold() {
+		return this.parallelthreshold;
+	}
+	
+	/**
+	 * Sets the largest number of entities for which collisions are searched in one thread.
+	 * 
+	 * @param threshold
+	 *  The new threshold
+	 * @post The threshold of this world is equal to the given threshold.
+	 *  | new.getParallelThreshold() == threshold
+	 * @throws IllegalArgumentException if the given threshold is not positive.
+	 *  | if threshold < 1
+	 *  |	then throw new IllegalArgumentException()
+	 */
+	public void setParallelThreshold(int threshold) throws IllegalArgumentException {
+		if (threshold < 1)
+			throw new IllegalArgumentException("The threshold must be positive!");
+		this.parallelthreshold = threshold;
+	}
+	
+	/**
+	 * Checks whether the given time is a valid time for an upcoming collision.
+	 * 
+	 * @param time
+	 *  The time to be checked
+	 * @param includenow
+	 *  True if a time of zero is valid
+	 * @return True if and only if the time is finite and positive, or zero if includenow is true.
+	 *  | result == (time < Double.POSITIVE_INFINITY && (time > 0 || (includenow && time == 0)))
+	 */
+	private static boolean isValidCollisionTime(double time, boolean includenow) {
+		return time < Double.POSITIVE_INFINITY && (time > 0 || (includenow && time == 0));
+	}
+	
+	/**
+	 * Rebuilds the grid of this world if it does not contain all entities in this world, or if its cells are
+	 * too small or too large for the given sizes and speeds.
+	 * 
+	 * @param maxradius
+	 *  The largest radius of the entities in this world
+	 * @param maxspeed
+	 *  The largest speed of the entities in this world
+	 * @param horizon
+	 *  The time within which collisions are looked for
+	 */
+	void fitGrid(double maxradius, double maxspeed, double horizon) {
+		double cellsize = 2 * maxradius;
+		if (maxspeed > 0 && maxspeed * horizon > cellsize)
+			cellsize = maxspeed * horizon;
+		cellsize = Math.min(cellsize, Math.max(this.getWidth(), this.getHeight()));
+		if (! (cellsize > 0))
+			cellsize = 1;
+		if (! this.grid.isBuilt() || this.grid.size() != this.getEntityList().size()
+				|| cellsize > 4 * this.grid.getCellSize() || 4 * cellsize < this.grid.getCellSize())
+			this.grid.rebuild(this.getEntityList(), cellsize);
 	}
 	
+	/**
+	 * The scheduler of the collisions in this world while it is evolving, null if it is not evolving
+	 */
+	private CollisionScheduler scheduler = null;
+	
+	/**
+	 * Evolves this world for the given duration. All entities move until the next collision, which is resolved,
+	 * until the given duration has passed.
+	 * The collisions are kept in a queue ordered by their time. After a collision only the entities that took part
+	 * in it, and the entities whose velocity or radius changed while moving, have their collisions predicted again.
+	 * 
+	 * @param time
+	 *  The duration of the evolution
+	 * @param collisionListener
+	 *  The listener to be notified of collisions
+	 * @throws IllegalArgumentException if the given time is negative, infinite or not a number.
+	 *  | if time < 0 || Double.isNaN(time) || time == Double.POSITIVE_INFINITY
+	 *  |	then throw new IllegalArgumentException()
+	 */
 	// No try/catch for move, exception is only thrown if time < 0; but here that's not possible.
 	public void evolve(double time, CollisionListener collisionListener) throws IllegalArgumentException  {
 		if (time < 0 || Double.isNaN(time) || time == Double.POSITIVE_INFINITY)
 			throw new IllegalArgumentException("Time must be a real positive value!");
-		double movetime;
-		double collisiontime;
-		while (time > 0) {
-			movetime = time;
-			boolean nocollision = true;
-			collisiontime = this.getTimeNextCollision();
-			if (collisiontime <= movetime) {
-				movetime = collisiontime;
-				nocollision = false;
+		if (time == 0)
+			return;
+		CollisionScheduler scheduler = new CollisionScheduler(this, time);
+		this.scheduler = scheduler;
+		try {
+			scheduler.start();
+			ContactSet contacts = new ContactSet();
+			CollisionEvent next = scheduler.next();
+			while (next != null) {
+				this.moveEntities(next.getTime() - scheduler.getTime(), scheduler);
+				scheduler.setTime(next.getTime());
+				contacts.clear();
+				contacts.add(next);
+				scheduler.pollSimultaneous(next.getTime(), contacts);
+				contacts.resolve(this, collisionListener);
+				contacts.invalidate(scheduler);
+				scheduler.update();
+				next = scheduler.next();
 			}
-			for (Entity entity : this.getEntityList())
-				entity.move(movetime);
-			if (nocollision)
-				return;
-			doCollisions(collisionListener);
-			time = time - movetime;
+			this.moveEntities(time - scheduler.getTime(), scheduler);
+		} finally {
+			this.scheduler = null;
+			this.advanceEpoch();
 		}
 	}
 	
-	public void doCollisions(CollisionListener collisionListener) {
-		List<Entity> boundarycollisions = new ArrayList<Entity>();
-		List<Entity> entitycollisions = new ArrayList<Entity>();
-		for (Entity entity : this.getEntityList()) {
-			if (entity.apparentlyCollides(this))
-				boundarycollisions.add(entity);
-			for (Entity other : this.getEntityList()) {
-				if ((entity.apparentlyCollides(other))) {
-					if (! entitycollisions.contains(entity)){
-						entitycollisions.add(entity);
-						entitycollisions.add(other);
-					}
-				}
+	/**
+	 * Moves all entities in this world for the given duration. Entities whose velocity or radius changed while
+	 * moving are invalidated in the given scheduler.
+	 * If this world is packed, the entities are moved in the order of their slots, starting from the last one.
+	 * An entity that leaves this world while moving is replaced in its slot by an entity that has already moved,
+	 * and entities added while moving take slots that are not visited anymore.
+	 * 
+	 * @param time
+	 *  The duration of the movement
+	 * @param scheduler
+	 *  The scheduler of the collisions in this world
+	 */
+	private void moveEntities(double time, CollisionScheduler scheduler) {
+		if (this.store != null) {
+			for (int slot = this.store.size() - 1; slot >= 0; slot--)
+				if (slot < this.store.size())
+					this.moveEntity(this.store.getEntity(slot), time, scheduler);
+		}
+		else {
+			int size = this.getEntityList().size();
+			if (this.movebuffer.length < size + 1)
+				this.movebuffer = new Entity[2 * size + 1];
+			Entity[] entities = this.getEntityList().toArray(this.movebuffer);
+			for (int i = 0; i < size; i++) {
+				Entity entity = entities[i];
+				entities[i] = null;
+				if (entity.getWorld() == this)
+					this.moveEntity(entity, time, scheduler);
 			}
 		}
-		doBoundaryCollisions(boundarycollisions, collisionListener);
-		doEntityCollisions(entitycollisions, collisionListener);
+		scheduler.update();
 	}
 	
-	public void doBoundaryCollisions(List<Entity> boundarycollisions, CollisionListener collisionListener) {
-		while (boundarycollisions.size() > 0) {
-			Entity collided = boundarycollisions.iterator().next();
-			collided.collide(this);
-			boundarycollisions.remove(collided);
+	/**
+	 * The array reused by moveEntities to hold the entities to be moved, so that moving all entities does not
+	 * create a new array after every collision
+	 */
+	private Entity[] movebuffer = new Entity[0];
+	
+	/**
+	 * Moves the given entity for the given duration. The entity is invalidated in the given scheduler if its
+	 * velocity or radius changed while moving.
+	 * 
+	 * @param entity
+	 *  The entity to be moved
+	 * @param time
+	 *  The duration of the movement
+	 * @param scheduler
+	 *  The scheduler of the collisions in this world
+	 */
+	private void moveEntity(Entity entity, double time, CollisionScheduler scheduler) {
+		double xvelocity = entity.getXVelocity();
+		double yvelocity = entity.getYVelocity();
+		double radius = entity.getRadius();
+		entity.move(time);
+		if (entity.getWorld() == this && (xvelocity != entity.getXVelocity() || yvelocity != entity.getYVelocity()
+				|| radius != entity.getRadius()))
+			scheduler.invalidate(entity);
+	}
+	
+	/**
+	 * Resolves the collisions happening now in this world: every entity that apparently collides with the
+	 * boundaries of this world or with another entity. Boundary collisions are resolved first, and every collision
+	 * is resolved exactly once. This method does not depend on an earlier search for the next collision.
+	 * 
+	 * @param collisionListener
+	 *  The listener to be notified of collisions, or null
+	 * @effect The contacts happening now are resolved in this world, notifying the given listener.
+	 *  | getCurrentContacts().resolve(this, collisionListener)
+	 */
+	public void doCollisions(CollisionListener collisionListener) {
+		this.getCurrentContacts().resolve(this, collisionListener);
+	}
+	
+	/**
+	 * Returns the contacts happening now in this world. Each entity is only checked against the entities in the
+	 * cells of the grid it can touch.
+	 * 
+	 * @return A set containing a boundary contact for every entity that apparently collides with the boundaries of
+	 * 		   this world, and an entity contact for every two entities that apparently collide.
+	 */
+	ContactSet getCurrentContacts() {
+		Entity[] entities = this.getEntityList().toArray(new Entity[0]);
+		double maxradius = 0;
+		for (Entity entity : entities)
+			maxradius = Math.max(maxradius, entity.getRadius());
+		this.fitGrid(maxradius, 0, 0);
+		ContactSet contacts = new ContactSet();
+		List<Entity> candidates = new ArrayList<Entity>();
+		for (Entity entity : entities) {
+			if (entity.apparentlyCollides(this))
+				contacts.add(new CollisionEvent(0, entity, null));
+			candidates.clear();
+			Collection<Entity> others = candidates;
+			if (! this.grid.collect(entity.getXPosition(), entity.getYPosition(),
+					1.01 * (entity.getRadius() + maxradius), candidates))
+				others = Arrays.asList(entities);
+			for (Entity other : others)
+				if (other.getId() > entity.getId() && entity.apparentlyCollides(other))
+					contacts.add(new CollisionEvent(0, entity, other));
 		}
+		return contacts;
 	}
 	
-	public void doEntityCollisions(List<Entity> entitycollisions, CollisionListener collisionListener) {
-		while (entitycollisions.size() > 0) {
-			Entity collided1 = entitycollisions.iterator().next();
-			entitycollisions.remove(collided1);
-			Entity collided2 = entitycollisions.iterator().next();
-			entitycollisions.remove(collided2);
-			collided1.collide(collided2);
+	/**
+	 * Executes the programs of all ships in this world that have a program, for the given duration.
+	 * The programs are executed concurrently in the collision pool of this world. While they run, nothing in this
+	 * world changes: the actions of the programs are buffered, so that every program reads the state of this world
+	 * as it was before any of them ran, including the orientation and thruster of its own ship. Afterwards the
+	 * buffered actions are performed ship by ship, in the order in which the ships were added to this world, and
+	 * for each ship in the order in which its program executed them. The result does not depend on the scheduling
+	 * of the threads.
+	 * 
+	 * @param time
+	 *  The duration for which every program is executed
+	 * @return A map from the ships with a program to the result of executing their program, in the order in which
+	 *  the ships were added to this world. 
+	 *  | for each ship in getSpecificList(Ship.class)
+	 *  |	if ship.getProgram() != null
+	 *  |		then result.get(ship) == ship.doProgram(time)
+	 * @throws BreakException if a program executes a break statement outside a loop. The actions of all programs
+	 *  are still performed; the exception of the first such ship is thrown.
+	 * @throws IllegalArgumentException if a program executes an incorrect statement, or an action cannot be
+	 *  performed. The actions of all other programs are still performed; the exception of the first such ship is
+	 *  thrown.
+	 */
+	public Map<Ship, List<Object>> executePrograms(double time) throws BreakException, IllegalArgumentException {
+		List<Ship> ships = new ArrayList<Ship>();
+		for (Entity entity : this.getEntityList())
+			if (entity instanceof Ship && ((Ship)entity).getProgram() != null)
+				ships.add((Ship)entity);
+		List<Object> outcomes = Arrays.asList(new Object[ships.size()]);
+		for (Ship ship : ships)
+			ship.getProgram().bufferActions();
+		this.getCollisionPool().invoke(ForkJoinTask.adapt(() -> IntStream.range(0, ships.size()).parallel()
+				.forEach(i -> {
+					try {
+						outcomes.set(i, ships.get(i).doProgram(time));
+					} catch (BreakException | RuntimeException e) {
+						outcomes.set(i, e);
+					}
+				})));
+		Map<Ship, List<Object>> results = new LinkedHashMap<Ship, List<Object>>();
+		Exception failure = null;
+		for (int i = 0; i < ships.size(); i++) {
+			Ship ship = ships.get(i);
+			Object outcome = outcomes.get(i);
+			try {
+				ship.getProgram().applyActions();
+			} catch (IllegalArgumentException e) {
+				if (! (outcome instanceof Exception))
+					outcome = e;
+			}
+			if (outcome instanceof Exception) {
+				if (failure == null)
+					failure = (Exception)outcome;
+			}
+			else {
+				@SuppressWarnings("unchecked")
+				List<Object> items = (List<Object>)outcome;
+				results.put(ship, items);
+			}
 		}
+		if (failure instanceof BreakException)
+			throw (BreakException)failure;
+		if (failure != null)
+			throw (RuntimeException)failure;
+		return results;
 	}
 	
 	
@@ -477,10 +952,16 @@ public class World {
 	 *  | new.getEntityPositions().isEmpty() == true
 	 */
 	public void terminate() {
+		if (this.store != null)
+			this.store.clear();
 		for (Entity entity : this.getEntityList())
 			entity.setWorld(null);
 		this.entitylist.clear();
+		this.advanceEpoch();
+		for (Set<Entity> set : this.entityclasses.values())
+			set.clear();
 		this.entitypositions.clear();
+		this.grid.clear();
 		this.terminated = true;
 	}
 }
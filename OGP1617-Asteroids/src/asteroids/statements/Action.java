@@ -0,0 +1,22 @@
+package asteroids.statements;
+
+import asteroids.model.Ship;
+
+@FunctionalInterface
+public interface Action {
+	
+	public static final Action FIRE = ship -> ship.fireBullet();
+	
+	public static final Action THRUST_ON = ship -> ship.thrustOn();
+	
+	public static final Action THRUST_OFF = ship -> ship.thrustOff();
+	
+	public static final Action SKIP = ship -> {};
+	
+	public static Action turn(double angle) {
+		return ship -> ship.turn(angle);
+	}
+	
+	public void perform(Ship ship) throws IllegalArgumentException;
+
+}
@@ -1,21 +1,35 @@
 package asteroids.statements;
 
-import asteroids.model.Function;
-import asteroids.model.Program;
+import asteroids.expressions.CompiledExpression;
+import asteroids.model.Code;
+import asteroids.model.Scope;
+import asteroids.model.Timer;
 
 public abstract class ActionStatement extends Statement{
 
 	@Override
-	public void setSubProgram(Program program) {
+	public void typeCheck(Scope scope) {
+		scope.check(! scope.isInFunction(), "ActionStatement in function");
 	}
-
+	
 	@Override
-	public void setSubFunction(Function function) {
+	public CompiledStatement compile(Scope scope) {
+		throw new IllegalStateException("ActionStatement outside code");
 	}
 	
 	@Override
-	public void complete() {
-		this.setExecuted(false);
+	public void compile(Scope scope, Code code) {
+		CompiledExpression<Action> action = this.compileAction(scope);
+		code.add((frame, pc) -> {
+			Timer timer = frame.getProgram().getTimer();
+			if (timer.getTime() < 0.2)
+				return Instruction.SUSPEND;
+			frame.getProgram().perform(action.evaluate(frame));
+			timer.setTime(timer.getTime() - 0.2);
+			return pc + 1;
+		});
 	}
-
+	
+	protected abstract CompiledExpression<Action> compileAction(Scope scope);
+	
 }
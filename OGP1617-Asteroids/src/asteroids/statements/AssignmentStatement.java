@@ -1,10 +1,10 @@
 package asteroids.statements;
 
-import java.util.HashMap;
-
+import asteroids.expressions.CompiledExpression;
 import asteroids.expressions.Expression;
-import asteroids.model.Function;
-import asteroids.model.Program;
+import asteroids.expressions.Type;
+import asteroids.model.Frame;
+import asteroids.model.Scope;
 import asteroids.part3.programs.SourceLocation;
 
 public class AssignmentStatement extends Statement{
@@ -13,7 +13,6 @@ public class AssignmentStatement extends Statement{
 		this.setVariable(variableName);
 		this.setValue(value);
 		this.setLocation(sourceLocation);
-		this.setExecuted(false);
 	}
 	
 	private String variable;
@@ -36,60 +35,39 @@ public class AssignmentStatement extends Statement{
 		this.value = value;
 	}
 	
-	public HashMap<String, Object> getTop() {
-		return this.getProgram().getVariableData().peek();
-	}
-	
-	public HashMap<String, Object> getBottm() {
-		return this.getProgram().getVariableData().firstElement();
+	@Override
+	public void typeCheck(Scope scope) {
+		Type type = this.getValue().typeCheck(scope);
+		scope.check(scope.isInFunction() || scope.getFunction(getVariableName()) == null,
+				"Name already used for Function");
+		scope.addVariableType(getVariableName(), type);
 	}
 	
 	@Override
-	public void evaluate() throws BreakException, TimerException {
-		if (this.wasExecuted() && this.getFunction() == null)
-			return;
-		Object newvalue = getValue().evaluate();
-		if (this.getFunction() != null) {
-			Object oldvalue = getTop().get(getVariableName());
-			if (oldvalue == null)
-				getTop().put(getVariableName(), newvalue);
-			else if (oldvalue.getClass() != newvalue.getClass())
-				throw new IllegalArgumentException("Cannot change variable type");
-			else
-				getTop().put(getVariableName(), newvalue);
+	public CompiledStatement compile(Scope scope) {
+		CompiledExpression<?> value = this.getValue().compile(scope);
+		Type type = scope.getAssignedType(getVariableName());
+		boolean fixed = (type == Type.DOUBLE) || (type == Type.BOOLEAN);
+		if (scope.isInFunction()) {
+			int local = scope.getLocalSlot(getVariableName());
+			if (fixed)
+				return frame -> frame.getLocals()[local] = value.evaluate(frame);
+			return frame -> assign(frame.getLocals(), local, value.evaluate(frame));
 		}
-		else if (! this.getProgram().getFunctions().containsKey(getVariableName())) {
-			Object oldvalue = getBottm().get(getVariableName());
-			if (oldvalue == null)
-				getBottm().put(getVariableName(), newvalue);
-			else if (oldvalue.getClass() != newvalue.getClass())
-				throw new IllegalArgumentException("Cannot change variable type");
-			else
-				getBottm().put(getVariableName(), newvalue);
-		}
-		else
-			throw new IllegalArgumentException("Name already used for Function");
-		this.setExecuted(true);
+		int global = scope.getGlobalSlot(getVariableName());
+		if (fixed)
+			return frame -> frame.getGlobals()[global] = value.evaluate(frame);
+		return frame -> assign(frame.getGlobals(), global, value.evaluate(frame));
 	}
 	
-	
-	
-	
-	@Override
-	public void complete() {
-		this.setExecuted(false);
-	}
-
-	@Override
-	public void setSubProgram(Program program) {
-		this.getValue().setProgram(getProgram());
-	}
-
-	@Override
-	public void setSubFunction(Function function) {
-		this.getValue().setFunction(function);
+	private static void assign(Object[] variables, int slot, Object newvalue) {
+		Object oldvalue = variables[slot];
+		if (oldvalue != null && oldvalue != Frame.NULL && (newvalue == null || oldvalue.getClass() != newvalue.getClass()))
+			throw new IllegalArgumentException("Cannot change variable type");
+		variables[slot] = (newvalue == null) ? Frame.NULL : newvalue;
 	}
 	
 	
+	
 
 }
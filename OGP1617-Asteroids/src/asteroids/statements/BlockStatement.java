@@ -2,8 +2,10 @@ package asteroids.statements;
 
 import java.util.List;
 
-import asteroids.model.Function;
-import asteroids.model.Program;
+import asteroids.expressions.CompiledExpression;
+import asteroids.expressions.Type;
+import asteroids.model.Code;
+import asteroids.model.Scope;
 import asteroids.part3.programs.SourceLocation;
 
 public class BlockStatement extends Statement implements Returnable {
@@ -20,38 +22,58 @@ public class BlockStatement extends Statement implements Returnable {
 	}
 
 	@Override
-	public void evaluate() throws BreakException, TimerException {
-		for (Statement statement : statements)
-			statement.evaluate();
+	public void typeCheck(Scope scope) {
+		for (Statement statement : this.getStatements())
+			statement.typeCheck(scope);
 	}
 
-	@Override
-	public void setSubProgram(Program program) {
-		for (Statement s : this.getStatements())
-			s.setProgram(program);		
+	private CompiledStatement[] compileStatements(Scope scope, int count) {
+		CompiledStatement[] compiled = new CompiledStatement[count];
+		for (int i = 0; i < count; i++)
+			compiled[i] = this.getStatements().get(i).compile(scope);
+		return compiled;
 	}
 
 	@Override
-	public void setSubFunction(Function function) {
-		for (Statement s : this.getStatements())
-			s.setFunction(function);
+	public CompiledStatement compile(Scope scope) {
+		CompiledStatement[] statements = this.compileStatements(scope, this.getStatements().size());
+		return frame -> {
+			for (CompiledStatement statement : statements)
+				statement.execute(frame);
+		};
 	}
 	
 	@Override
-	public void complete() {
-		for (Statement s : this.getStatements())
-			s.complete();
+	public void compile(Scope scope, Code code) {
+		for (Statement statement : this.getStatements())
+			statement.compile(scope, code);
 	}
-
+	
+	@Override
+	public Type typeCheckReturn(Scope scope) {
+		int size = this.getStatements().size();
+		scope.check(size > 0, "Function does not end in return");
+		if (size == 0)
+			return null;
+		for (int i = 0; i < size - 1; i++)
+			this.getStatements().get(i).typeCheck(scope);
+		Statement last = this.getStatements().get(size - 1);
+		scope.check(last instanceof ReturnStatement, "Function does not end in return");
+		if (! (last instanceof ReturnStatement))
+			return null;
+		return ((ReturnStatement)last).typeCheckReturn(scope);
+	}
+	
 	@Override
-	public Object returnValue() throws BreakException, TimerException {
-		statements = this.getStatements();
-		for (int i = 0; i < statements.size() - 1; i++)
-			statements.get(i).evaluate();
-		if (! (statements.get(statements.size() - 1) instanceof ReturnStatement))
-			throw new IllegalArgumentException("Function does not end in return");
-		else
-			return ((ReturnStatement)statements.get(statements.size() - 1)).returnValue();
+	public CompiledExpression<Object> compileReturn(Scope scope) {
+		int size = this.getStatements().size();
+		CompiledStatement[] statements = this.compileStatements(scope, size - 1);
+		CompiledExpression<Object> result = ((ReturnStatement)this.getStatements().get(size - 1)).compileReturn(scope);
+		return frame -> {
+			for (CompiledStatement statement : statements)
+				statement.execute(frame);
+			return result.evaluate(frame);
+		};
 	}
 
 }
@@ -1,7 +1,7 @@
 package asteroids.statements;
 
-import asteroids.model.Function;
-import asteroids.model.Program;
+import asteroids.model.Code;
+import asteroids.model.Scope;
 import asteroids.part3.programs.SourceLocation;
 
 public class BreakStatement extends Statement {
@@ -22,21 +22,25 @@ public class BreakStatement extends Statement {
 	
 	
 	@Override
-	public void evaluate() throws BreakException {
-		throw new BreakException();
+	public void typeCheck(Scope scope) {
+		scope.check(scope.isInFunction() || scope.isInLoop(), "Illegal BreakStatement");
 	}
-
-	@Override
-	public void setSubProgram(Program program) {
-	}
-
+	
 	@Override
-	public void setSubFunction(Function function) {
+	public CompiledStatement compile(Scope scope) {
+		return frame -> {
+			throw new BreakException();
+		};
 	}
 	
 	@Override
-	public void complete() {
-		this.setExecuted(false);
+	public void compile(Scope scope, Code code) {
+		code.add((frame, pc) -> {
+			int target = code.getBreakTarget(pc);
+			if (target < 0)
+				throw new BreakException();
+			return target;
+		});
 	}
-
+	
 }
@@ -0,0 +1,10 @@
+package asteroids.statements;
+
+import asteroids.model.Frame;
+
+@FunctionalInterface
+public interface CompiledStatement {
+	
+	public void execute(Frame frame) throws BreakException;
+
+}
@@ -1,8 +1,10 @@
 package asteroids.statements;
 
+import asteroids.expressions.CompiledExpression;
 import asteroids.expressions.Expression;
-import asteroids.model.Function;
-import asteroids.model.Program;
+import asteroids.expressions.Type;
+import asteroids.model.Code;
+import asteroids.model.Scope;
 import asteroids.part3.programs.SourceLocation;
 
 public class IfStatement extends Statement implements Returnable {
@@ -50,51 +52,65 @@ public class IfStatement extends Statement implements Returnable {
 	
 
 	@Override
-	public void evaluate() throws BreakException, TimerException {
-		if (! (this.getCondition().evaluate() instanceof Boolean))
-			throw new IllegalArgumentException("Non-boolean condition");
-		if ((boolean)this.getCondition().evaluate() == true)
-			this.getStatement1().evaluate();
-		else
-			if (getStatement2() != null)
-				this.getStatement2().evaluate();
+	public void typeCheck(Scope scope) {
+		Expression.checkType(this.getCondition(), Type.BOOLEAN, scope, "Non-boolean condition");
+		this.getStatement1().typeCheck(scope);
+		if (getStatement2() != null)
+			this.getStatement2().typeCheck(scope);
 	}
 
 	@Override
-	public void setSubProgram(Program program) {
-		this.getCondition().setProgram(program);
-		this.getStatement1().setProgram(program);
-		if (getStatement2() != null)
-			this.getStatement2().setProgram(program);
+	public CompiledStatement compile(Scope scope) {
+		CompiledExpression<?> condition = Expression.compile(this.getCondition(), Type.BOOLEAN, scope);
+		CompiledStatement statement1 = this.getStatement1().compile(scope);
+		CompiledStatement statement2 = (getStatement2() != null) ? this.getStatement2().compile(scope) : null;
+		return frame -> {
+			if ((boolean)condition.evaluate(frame))
+				statement1.execute(frame);
+			else
+				if (statement2 != null)
+					statement2.execute(frame);
+		};
 	}
-
+	
 	@Override
-	public void setSubFunction(Function function) {
-		this.getCondition().setFunction(function);
-		this.getStatement1().setFunction(function);
-		if (getStatement2() != null)
-			this.getStatement2().setFunction(function);
+	public void compile(Scope scope, Code code) {
+		CompiledExpression<?> condition = Expression.compile(this.getCondition(), Type.BOOLEAN, scope);
+		int test = code.add((Instruction)null);
+		this.getStatement1().compile(scope, code);
+		int jump = -1;
+		if (getStatement2() != null) {
+			jump = code.add((Instruction)null);
+			this.getStatement2().compile(scope, code);
+		}
+		int otherwise = (jump < 0) ? code.size() : jump + 1;
+		int end = code.size();
+		code.set(test, (frame, pc) -> (boolean)condition.evaluate(frame) ? pc + 1 : otherwise);
+		if (jump >= 0)
+			code.set(jump, (frame, pc) -> end);
 	}
 	
+	private static Type typeCheckReturn(Statement statement, Scope scope) {
+		scope.check(statement instanceof Returnable, "No Returnable in function");
+		if (! (statement instanceof Returnable))
+			return null;
+		return ((Returnable)statement).typeCheckReturn(scope);
+	}
+
 	@Override
-	public void complete() {
-		this.getStatement1().complete();
-		if (getStatement2() != null)
-			this.getStatement2().complete();
+	public Type typeCheckReturn(Scope scope) {
+		Expression.checkType(this.getCondition(), Type.BOOLEAN, scope, "Non-boolean condition");
+		Type type1 = typeCheckReturn(this.getStatement1(), scope);
+		Type type2 = typeCheckReturn(this.getStatement2(), scope);
+		return Type.join(type1, type2);
 	}
 
 	@Override
-	public Object returnValue() throws BreakException, TimerException {
-		if ((boolean)this.getCondition().evaluate() == true) {
-			if (! (this.getStatement1() instanceof Returnable))
-				throw new IllegalArgumentException("No Returnable in function");
-			return ((Returnable)this.getStatement1()).returnValue();
-			}
-		else {
-			if (! (this.getStatement2() instanceof Returnable))
-				throw new IllegalArgumentException("No Returnable in function");
-			return ((Returnable)this.getStatement2()).returnValue();
-			}
+	public CompiledExpression<Object> compileReturn(Scope scope) {
+		CompiledExpression<?> condition = Expression.compile(this.getCondition(), Type.BOOLEAN, scope);
+		CompiledExpression<Object> statement1 = ((Returnable)this.getStatement1()).compileReturn(scope);
+		CompiledExpression<Object> statement2 = ((Returnable)this.getStatement2()).compileReturn(scope);
+		return frame -> (boolean)condition.evaluate(frame) ? statement1.evaluate(frame) : statement2.evaluate(frame);
 	}
 
 }
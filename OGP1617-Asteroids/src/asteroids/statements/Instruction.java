@@ -0,0 +1,12 @@
+package asteroids.statements;
+
+import asteroids.model.Frame;
+
+@FunctionalInterface
+public interface Instruction {
+	
+	public static final int SUSPEND = -1;
+	
+	public int execute(Frame frame, int pc) throws BreakException;
+
+}
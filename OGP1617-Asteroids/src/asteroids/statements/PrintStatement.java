@@ -1,8 +1,8 @@
 package asteroids.statements;
 
+import asteroids.expressions.CompiledExpression;
 import asteroids.expressions.Expression;
-import asteroids.model.Function;
-import asteroids.model.Program;
+import asteroids.model.Scope;
 import asteroids.part3.programs.SourceLocation;
 
 public class PrintStatement extends Statement {
@@ -23,32 +23,21 @@ public class PrintStatement extends Statement {
 	}
 	
 	@Override
-	public void evaluate() throws BreakException, TimerException {
-		if (this.wasExecuted() && this.getFunction() == null)
-			return;
-		if (this.getFunction() != null)
-			throw new IllegalArgumentException("Print in function");
-		Object o = this.getExpression().evaluate();
-		if (o != null)
-			System.out.println(o.toString());
-		this.getProgram().getShip().getItems().add(o);
-		this.setExecuted(true);
-	}
-
-	@Override
-	public void setSubProgram(Program program) {
-		this.getExpression().setProgram(program);
-	}
-
-	@Override
-	public void setSubFunction(Function function) {
-		this.getExpression().setFunction(function);
+	public void typeCheck(Scope scope) {
+		scope.check(! scope.isInFunction(), "Print in function");
+		this.getExpression().typeCheck(scope);
 	}
 	
 	@Override
-	public void complete() {
-		this.setExecuted(false);
+	public CompiledStatement compile(Scope scope) {
+		CompiledExpression<?> expression = this.getExpression().compile(scope);
+		return frame -> {
+			Object o = expression.evaluate(frame);
+			if (o != null)
+				System.out.println(o.toString());
+			frame.getShip().getItems().add(o);
+		};
 	}
-
+	
 	
 }
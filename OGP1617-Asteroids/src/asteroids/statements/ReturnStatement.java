@@ -1,8 +1,9 @@
 package asteroids.statements;
 
+import asteroids.expressions.CompiledExpression;
 import asteroids.expressions.Expression;
-import asteroids.model.Function;
-import asteroids.model.Program;
+import asteroids.expressions.Type;
+import asteroids.model.Scope;
 import asteroids.part3.programs.SourceLocation;
 
 public class ReturnStatement extends Statement implements Returnable {
@@ -22,28 +23,26 @@ public class ReturnStatement extends Statement implements Returnable {
 		this.expression = expression;
 	}
 
-	public Object returnValue() throws BreakException, TimerException {
-		return this.getExpression().evaluate();
+	@Override
+	public Type typeCheckReturn(Scope scope) {
+		return this.getExpression().typeCheck(scope);
 	}
 
 	@Override
-	public void evaluate() throws BreakException {
-		throw new IllegalArgumentException("return outside fuction");
+	public CompiledExpression<Object> compileReturn(Scope scope) {
+		CompiledExpression<?> expression = this.getExpression().compile(scope);
+		return frame -> expression.evaluate(frame);
 	}
 
 	@Override
-	public void setSubProgram(Program program) {
-		this.getExpression().setProgram(program);
+	public void typeCheck(Scope scope) {
+		scope.check(false, "return outside fuction");
 	}
 
 	@Override
-	public void setSubFunction(Function function) {
-		this.getExpression().setFunction(function);
+	public CompiledStatement compile(Scope scope) {
+		throw new IllegalStateException("return outside fuction");
 	}
 	
-	@Override
-	public void complete() {
-		this.setExecuted(false);
-	}
 	
 }
@@ -1,7 +1,13 @@
 package asteroids.statements;
 
+import asteroids.expressions.CompiledExpression;
+import asteroids.expressions.Type;
+import asteroids.model.Scope;
+
 public interface Returnable {
 	
-	public Object returnValue() throws BreakException, TimerException;
+	public Type typeCheckReturn(Scope scope) throws IllegalArgumentException;
+	
+	public CompiledExpression<Object> compileReturn(Scope scope);
 
 }
@@ -1,7 +1,7 @@
 package asteroids.statements;
 
-import asteroids.model.Function;
-import asteroids.model.Program;
+import asteroids.model.Code;
+import asteroids.model.Scope;
 import asteroids.part3.programs.SourceLocation;
 import be.kuleuven.cs.som.annotate.Basic;
 
@@ -18,44 +18,12 @@ public abstract class Statement {
 		this.location = location;
 	}
 	
-	private boolean executed;
+	public abstract void typeCheck(Scope scope) throws IllegalArgumentException;
 	
-	public boolean wasExecuted() {
-		return executed;
-	}
-	
-	public void setExecuted(boolean b) {
-		this.executed = b;
-	}
-	
-	public abstract void complete();
-
-	public abstract void evaluate() throws BreakException, TimerException ;
-	
-	protected Program program;
-
-	public Program getProgram() {
-		return this.program;
-	}
+	public abstract CompiledStatement compile(Scope scope);
 	
-	public void setProgram(Program program) {
-		this.program = program;
-		this.setSubProgram(program);
+	public void compile(Scope scope, Code code) {
+		code.add(this.compile(scope));
 	}
 	
-	public abstract void setSubProgram(Program program);
-	
-	protected Function function;
-	
-	public Function getFunction() {
-		return this.function;
-	}
-	
-	public void setFunction(Function function) {
-		this.function = function;
-		this.setSubFunction(function);
-	}
-	
-	public abstract void setSubFunction(Function function);
-	
 }
@@ -1,9 +0,0 @@
-package asteroids.statements;
-
-public class TimerException extends Exception {
-
-	public TimerException() {
-		
-	}
-	
-}
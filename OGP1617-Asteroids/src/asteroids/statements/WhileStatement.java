@@ -1,11 +1,10 @@
 package asteroids.statements;
 
-import asteroids.expressions.EqualityExpression;
+import asteroids.expressions.CompiledExpression;
 import asteroids.expressions.Expression;
-import asteroids.expressions.LessThanExpression;
-import asteroids.expressions.NotExpression;
-import asteroids.model.Function;
-import asteroids.model.Program;
+import asteroids.expressions.Type;
+import asteroids.model.Code;
+import asteroids.model.Scope;
 import asteroids.part3.programs.SourceLocation;
 
 public class WhileStatement extends Statement {
@@ -29,38 +28,37 @@ public class WhileStatement extends Statement {
 	}
 	
 	@Override
-	public void evaluate() throws BreakException, TimerException {
-		if(canHaveAsCondition(this.getCondition()))
+	public void typeCheck(Scope scope) {
+		Expression.checkType(this.getCondition(), Type.BOOLEAN, scope, "Condition in while statement is incorrect");
+		scope.enterLoop();
+		this.getBody().typeCheck(scope);
+		scope.exitLoop();
+	}
+	
+	@Override
+	public CompiledStatement compile(Scope scope) {
+		CompiledExpression<?> condition = Expression.compile(this.getCondition(), Type.BOOLEAN, scope);
+		CompiledStatement body = this.getBody().compile(scope);
+		return frame -> {
 			try {
-			while ((boolean)this.getCondition().evaluate() == true) {
-				getBody().evaluate();
-				getBody().complete();
+			while ((boolean)condition.evaluate(frame) == true) {
+				body.execute(frame);
+				frame.getProgram().spend();
 			}
 			} catch (BreakException e) {}
-		else
-			throw new IllegalArgumentException("Condition in while statement is incorrect");
-	}
-
-	@Override
-	public void setSubProgram(Program program) {
-		this.getCondition().setProgram(program);
-		this.getBody().setProgram(program);
-	}
-
-	@Override
-	public void setSubFunction(Function function) {
-		this.getCondition().setFunction(function);
-		this.getBody().setFunction(function);
-	}
-	
-	public boolean canHaveAsCondition(Expression<?> expression) {
-		return (expression.getClass() == EqualityExpression.class) || (expression.getClass() == LessThanExpression.class) ||
-				(expression.getClass() == NotExpression.class);
+		};
 	}
 	
 	@Override
-	public void complete() {
-		this.getBody().complete();
+	public void compile(Scope scope, Code code) {
+		CompiledExpression<?> condition = Expression.compile(this.getCondition(), Type.BOOLEAN, scope);
+		code.openLoop();
+		int test = code.add((Instruction)null);
+		this.getBody().compile(scope, code);
+		code.add((frame, pc) -> frame.getProgram().step() ? test : Instruction.SUSPEND);
+		code.closeLoop();
+		int end = code.size();
+		code.set(test, (frame, pc) -> ((boolean)condition.evaluate(frame) == true) ? pc + 1 : end);
 	}
-
+	
 }
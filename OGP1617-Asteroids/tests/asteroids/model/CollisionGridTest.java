@@ -0,0 +1,117 @@
+package asteroids.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class CollisionGridTest {
+
+	private static final double EPSILON = 0.0001;
+
+	private static void assertSameNextCollisions(World world) {
+		List<CollisionEvent> expected = RandomWorlds.getNextCollisions(world, false);
+		assertEquals(expected, world.getNextCollisions(false));
+		assertEquals(RandomWorlds.getNextCollisions(world, true), world.getNextCollisions(true));
+		double time = expected.isEmpty() ? Double.POSITIVE_INFINITY : expected.get(0).getTime();
+		assertEquals(time, world.getTimeNextCollision(), 0);
+	}
+
+	@Test
+	public void testSparseWorlds() {
+		for (long seed = 0; seed < 100; seed++)
+			assertSameNextCollisions(RandomWorlds.create(seed, 1000, 1000, 2 + (int) seed % 60, 5, 40, 100));
+	}
+
+	@Test
+	public void testEntitiesInSameCell() {
+		for (long seed = 0; seed < 100; seed++) {
+			World world = new World(400, 400);
+			world.addEntity(new Asteroid(200, 200, 1, -1, 80));
+			for (Entity entity : RandomWorlds.create(seed, 400, 400, 80, 1, 6, 30).getEntityList().toArray(new Entity[0])) {
+				entity.getWorld().removeEntity(entity);
+				if (RandomWorlds.isFree(world, entity))
+					world.addEntity(entity);
+			}
+			assertTrue(world.getEntityList().size() > 20);
+			assertSameNextCollisions(world);
+			assertTrue(world.getGrid().size() > 0);
+		}
+	}
+
+	@Test
+	public void testFastEntitiesCrossingCells() {
+		for (long seed = 0; seed < 100; seed++)
+			assertSameNextCollisions(RandomWorlds.create(seed, 1000, 1000, 40, 5, 12, 5000));
+	}
+
+	@Test
+	public void testBoundaryCollisions() {
+		for (long seed = 0; seed < 100; seed++)
+			assertSameNextCollisions(RandomWorlds.create(seed, 120, 90, 6, 5, 20, 50));
+	}
+
+	@Test
+	public void testEntitiesOnCellBorder() {
+		World world = new World(1000, 1000);
+		Asteroid moving = new Asteroid(490, 500, 1, 0, 10);
+		Asteroid resting = new Asteroid(520, 500, 0, 0, 10);
+		world.addEntity(moving);
+		world.addEntity(resting);
+		world.addEntity(new Asteroid(100, 100, 0, 0, 10));
+		assertSameNextCollisions(world);
+		assertEquals(500, world.getGrid().getCellSize(), EPSILON);
+		assertEquals(10, world.getTimeNextCollision(), EPSILON);
+		List<CollisionEvent> next = world.getNextCollisions(false);
+		assertEquals(1, next.size());
+		assertTrue(next.get(0).getFirstEntity() == moving && next.get(0).getSecondEntity() == resting);
+	}
+
+	@Test
+	public void testAfterRemovalMovementAndAddition() {
+		for (long seed = 0; seed < 100; seed++) {
+			Random random = new Random(seed);
+			World world = RandomWorlds.create(seed, 1000, 1000, 60, 5, 30, 100);
+			assertSameNextCollisions(world);
+			List<Entity> removed = new ArrayList<Entity>();
+			for (Entity entity : world.getEntityList().toArray(new Entity[0]))
+				if (random.nextInt(3) == 0) {
+					world.removeEntity(entity);
+					removed.add(entity);
+				}
+			assertSameNextCollisions(world);
+			for (CollisionEvent event : world.getNextCollisions(true))
+				assertTrue(! removed.contains(event.getFirstEntity()) && ! removed.contains(event.getSecondEntity()));
+			double time = world.getTimeNextCollision();
+			if (time < Double.POSITIVE_INFINITY)
+				RandomWorlds.moveAll(world, time / 2);
+			assertSameNextCollisions(world);
+			for (Entity entity : RandomWorlds.create(seed + 1000, 1000, 1000, 20, 5, 30, 100).getEntityList()
+					.toArray(new Entity[0])) {
+				entity.getWorld().removeEntity(entity);
+				if (RandomWorlds.isFree(world, entity))
+					world.addEntity(entity);
+			}
+			assertSameNextCollisions(world);
+		}
+	}
+
+	@Test
+	public void testCurrentContacts() {
+		int contacts = 0;
+		for (long seed = 0; seed < 100; seed++) {
+			World world = RandomWorlds.create(seed, 600, 600, 40, 5, 30, 100);
+			double time = world.getTimeNextCollision();
+			if (time < Double.POSITIVE_INFINITY)
+				RandomWorlds.moveAll(world, time);
+			int expected = RandomWorlds.countCurrentContacts(world);
+			assertEquals(expected, world.getCurrentContacts().size());
+			contacts += expected;
+		}
+		assertTrue(contacts >= 100);
+	}
+}
@@ -0,0 +1,109 @@
+package asteroids.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class CollisionSchedulerTest {
+
+	private static final double EPSILON = 0.0001;
+
+	/**
+	 * Evolves two worlds generated from the same seed, one with evolve and one by brute force, and checks that all
+	 * entities end up in the same state. Returns the number of entities whose velocity changed or that left the
+	 * world.
+	 */
+	private static int assertSameEvolution(long seed, double width, double height, int count, double maxradius,
+			double maxspeed, double time) {
+		World world = RandomWorlds.create(seed, width, height, count, 5, maxradius, maxspeed);
+		World expectedworld = RandomWorlds.create(seed, width, height, count, 5, maxradius, maxspeed);
+		List<Entity> entities = new ArrayList<Entity>(world.getEntityList());
+		List<Entity> expecteds = new ArrayList<Entity>(expectedworld.getEntityList());
+		double[] xvelocities = new double[entities.size()];
+		for (int i = 0; i < entities.size(); i++)
+			xvelocities[i] = entities.get(i).getXVelocity();
+		world.evolve(time, null);
+		RandomWorlds.evolve(expectedworld, time);
+		int changed = 0;
+		for (int i = 0; i < entities.size(); i++) {
+			Entity entity = entities.get(i);
+			Entity expected = expecteds.get(i);
+			assertEquals(expected.getWorld() == null, entity.getWorld() == null);
+			assertEquals(expected.getXPosition(), entity.getXPosition(), EPSILON);
+			assertEquals(expected.getYPosition(), entity.getYPosition(), EPSILON);
+			assertEquals(expected.getXVelocity(), entity.getXVelocity(), EPSILON);
+			assertEquals(expected.getYVelocity(), entity.getYVelocity(), EPSILON);
+			if (entity.getWorld() == null || entity.getXVelocity() != xvelocities[i])
+				changed++;
+		}
+		assertEquals(expectedworld.getEntityList().size(), world.getEntityList().size());
+		return changed;
+	}
+
+	@Test
+	public void testSparseWorlds() {
+		int changed = 0;
+		for (long seed = 0; seed < 100; seed++)
+			changed += assertSameEvolution(seed, 1000, 1000, 30, 30, 100, 5);
+		assertTrue(changed > 100);
+	}
+
+	@Test
+	public void testDenseWorlds() {
+		int changed = 0;
+		for (long seed = 0; seed < 50; seed++)
+			changed += assertSameEvolution(seed, 300, 300, 60, 15, 60, 2);
+		assertTrue(changed > 100);
+	}
+
+	@Test
+	public void testBoundaryCollisions() {
+		int changed = 0;
+		for (long seed = 0; seed < 100; seed++)
+			changed += assertSameEvolution(seed, 120, 90, 6, 20, 50, 4);
+		assertTrue(changed > 100);
+	}
+
+	@Test
+	public void testRemovedEntityInvalidatesPredictions() {
+		World world = new World(1000, 1000);
+		Bullet bullet = new Bullet(100, 500, 100, 0, 5);
+		Asteroid asteroid = new Asteroid(200, 500, 0, 0, 20);
+		Ship ship = new Ship(200, 800, 0, -100, 10, 0, 1.0E20);
+		world.addEntity(bullet);
+		world.addEntity(asteroid);
+		world.addEntity(ship);
+		assertEquals(0.75, world.getTimeNextCollision(), EPSILON);
+		world.evolve(5, null);
+		assertTrue(bullet.isTerminated());
+		assertTrue(asteroid.isTerminated());
+		assertFalse(ship.isTerminated());
+		assertEquals(200, ship.getXPosition(), EPSILON);
+		assertEquals(300, ship.getYPosition(), EPSILON);
+		assertEquals(-100, ship.getYVelocity(), EPSILON);
+		assertEquals(1, world.getEntityList().size());
+	}
+
+	@Test
+	public void testEntityRemovedWhileEvolving() {
+		World world = new World(1000, 1000);
+		Ship ship = new Ship(100, 500, 100, 0, 20, 0, 1.0E20);
+		Asteroid asteroid = new Asteroid(200, 500, 0, 0, 20);
+		Asteroid other = new Asteroid(400, 500, -100, 0, 20);
+		world.addEntity(ship);
+		world.addEntity(asteroid);
+		world.addEntity(other);
+		world.evolve(2, null);
+		assertTrue(ship.isTerminated());
+		assertFalse(asteroid.isTerminated());
+		assertEquals(0, other.getXVelocity(), EPSILON);
+		assertEquals(240, other.getXPosition(), EPSILON);
+		assertEquals(-100, asteroid.getXVelocity(), EPSILON);
+		assertEquals(160, asteroid.getXPosition(), EPSILON);
+	}
+}
@@ -0,0 +1,86 @@
+package asteroids.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class EntityScanTest {
+
+	private static List<Long> collectIds(Entity[] entities, int from, int to) {
+		List<Long> ids = new ArrayList<Long>();
+		for (int i = from; i < to; i++)
+			ids.add(entities[i].getId());
+		return ids;
+	}
+
+	private static List<Long> concatenate(List<Long> first, List<Long> second) {
+		first.addAll(second);
+		return first;
+	}
+
+	@Test
+	public void testScanKeepsOrder() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			Entity[] entities = new Entity[37];
+			for (int i = 0; i < entities.length; i++)
+				entities[i] = new Asteroid(100 * i, 100, 0, 0, 10);
+			List<Long> expected = collectIds(entities, 0, entities.length);
+			for (int threshold = 1; threshold <= entities.length + 1; threshold++)
+				assertEquals(expected, EntityScan.scan(pool, threshold, entities, EntityScanTest::collectIds,
+						EntityScanTest::concatenate));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testParallelSearchMatchesSequential() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (long seed = 0; seed < 20; seed++) {
+				World world = RandomWorlds.create(seed, 3000, 3000, 400, 5, 30, 100);
+				assertTrue(world.getEntityList().size() > 200);
+				List<CollisionEvent> sequential = world.getNextCollisions(false);
+				world.setCollisionPool(pool);
+				world.setParallelThreshold(8);
+				assertEquals(sequential, world.getNextCollisions(false));
+				assertEquals(RandomWorlds.getNextCollisions(world, false), world.getNextCollisions(false));
+				assertEquals(RandomWorlds.getNextCollisions(world, true), world.getNextCollisions(true));
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testParallelEvolveMatchesSequential() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (long seed = 0; seed < 10; seed++) {
+				World sequential = RandomWorlds.create(seed, 2000, 2000, 300, 5, 30, 100);
+				World parallel = RandomWorlds.create(seed, 2000, 2000, 300, 5, 30, 100);
+				parallel.setCollisionPool(pool);
+				parallel.setParallelThreshold(8);
+				List<Entity> expecteds = new ArrayList<Entity>(sequential.getEntityList());
+				List<Entity> entities = new ArrayList<Entity>(parallel.getEntityList());
+				sequential.evolve(3, null);
+				parallel.evolve(3, null);
+				for (int i = 0; i < entities.size(); i++) {
+					assertEquals(expecteds.get(i).getWorld() == null, entities.get(i).getWorld() == null);
+					assertEquals(expecteds.get(i).getXPosition(), entities.get(i).getXPosition(), 0);
+					assertEquals(expecteds.get(i).getYPosition(), entities.get(i).getYPosition(), 0);
+					assertEquals(expecteds.get(i).getXVelocity(), entities.get(i).getXVelocity(), 0);
+					assertEquals(expecteds.get(i).getYVelocity(), entities.get(i).getYVelocity(), 0);
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
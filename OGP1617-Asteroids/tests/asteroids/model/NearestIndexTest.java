@@ -0,0 +1,110 @@
+package asteroids.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class NearestIndexTest {
+
+	/**
+	 * Returns the entity of the given list closest to the given entity, other than the given entity itself, found by
+	 * checking every entity of the list. Of several entities at the same distance, the first one in the list is
+	 * returned.
+	 */
+	private static Entity getNearest(List<? extends Entity> entities, Entity entity) {
+		Entity nearest = null;
+		double distance = Double.POSITIVE_INFINITY;
+		for (Entity other : entities)
+			if (other != entity && entity.getDistanceBetween(other) < distance) {
+				nearest = other;
+				distance = entity.getDistanceBetween(other);
+			}
+		return nearest;
+	}
+
+	private static List<Entity> createEntities(Random random, int count, double size, double maxradius,
+			boolean lattice) {
+		List<Entity> entities = new ArrayList<Entity>();
+		for (int i = 0; i < count; i++) {
+			double x = lattice ? 10 * random.nextInt((int) size / 10) : random.nextDouble() * size;
+			double y = lattice ? 10 * random.nextInt((int) size / 10) : random.nextDouble() * size;
+			double radius = lattice ? 5 : 5 + random.nextDouble() * (maxradius - 5);
+			entities.add(new Asteroid(x, y, 0, 0, radius));
+		}
+		return entities;
+	}
+
+	private static void assertSameNearest(List<Entity> entities, List<Entity> queries) {
+		NearestIndex index = new NearestIndex(entities);
+		assertEquals(entities.size(), index.size());
+		for (Entity entity : entities)
+			assertTrue(index.getNearest(entity) == getNearest(entities, entity));
+		for (Entity query : queries)
+			assertTrue(index.getNearest(query) == getNearest(entities, query));
+	}
+
+	@Test
+	public void testRandomEntities() {
+		for (long seed = 0; seed < 100; seed++) {
+			Random random = new Random(seed);
+			assertSameNearest(createEntities(random, 1 + random.nextInt(200), 1000, 100, false),
+					createEntities(random, 20, 1000, 100, false));
+		}
+	}
+
+	@Test
+	public void testEntitiesAtEqualDistances() {
+		for (long seed = 0; seed < 100; seed++) {
+			Random random = new Random(seed);
+			assertSameNearest(createEntities(random, 1 + random.nextInt(200), 100, 5, true),
+					createEntities(random, 20, 100, 5, true));
+		}
+	}
+
+	@Test
+	public void testEntitiesOfVeryDifferentSizes() {
+		for (long seed = 0; seed < 50; seed++) {
+			Random random = new Random(seed);
+			List<Entity> entities = createEntities(random, 100, 1000, 10, false);
+			entities.add(random.nextInt(entities.size()),
+					new Asteroid(random.nextDouble() * 1000, random.nextDouble() * 1000, 0, 0, 400));
+			assertSameNearest(entities, createEntities(random, 20, 1000, 10, false));
+		}
+	}
+
+	@Test
+	public void testEmptyAndSingleEntity() {
+		Asteroid asteroid = new Asteroid(100, 100, 0, 0, 10);
+		assertNull(new NearestIndex(new ArrayList<Entity>()).getNearest(asteroid));
+		assertNull(new NearestIndex(Collections.singletonList(asteroid)).getNearest(asteroid));
+	}
+
+	@Test
+	public void testWorldPrefersEntityAddedFirst() {
+		for (boolean rightfirst : new boolean[] { true, false }) {
+			World world = new World(1000, 1000);
+			Ship ship = new Ship(500, 500, 0, 0, 20, 0, 1.0E20);
+			Asteroid right = new Asteroid(600, 500, 0, 0, 10);
+			Asteroid left = new Asteroid(400, 500, 0, 0, 10);
+			Asteroid above = new Asteroid(500, 600, 0, 0, 10);
+			world.addEntity(ship);
+			world.addEntity(rightfirst ? right : left);
+			world.addEntity(above);
+			world.addEntity(rightfirst ? left : right);
+			assertTrue(world.getNearest(ship, Asteroid.class) == (rightfirst ? right : left));
+			world.removeEntity(rightfirst ? right : left);
+			assertTrue(world.getNearest(ship, Asteroid.class) == above);
+			world.addEntity(rightfirst ? right : left);
+			assertTrue(world.getNearest(ship, Asteroid.class) == above);
+			world.removeEntity(above);
+			assertTrue(world.getNearest(ship, Asteroid.class) == (rightfirst ? left : right));
+		}
+	}
+}
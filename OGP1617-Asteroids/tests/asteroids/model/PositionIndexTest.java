@@ -0,0 +1,176 @@
+package asteroids.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class PositionIndexTest {
+
+	/**
+	 * Returns the slot in which a position with the given coordinates starts probing in a table of 16 slots,
+	 * computed in the same way as the index does.
+	 */
+	private static int getHomeSlot(double x, double y) {
+		long hash = Double.doubleToLongBits(x) * 0x9E3779B97F4A7C15L + Double.doubleToLongBits(y);
+		hash ^= (hash >>> 32);
+		hash *= 0xD6E8FEB86659FD93L;
+		return (int) (hash ^ (hash >>> 32)) & 15;
+	}
+
+	/**
+	 * Returns the given number of distinct positions that all start probing in the given slot of a table of 16
+	 * slots.
+	 */
+	private static List<double[]> getCollidingPositions(int slot, int count) {
+		List<double[]> positions = new ArrayList<double[]>();
+		for (int x = 0; positions.size() < count; x++)
+			if (getHomeSlot(x, 7) == slot)
+				positions.add(new double[] { x, 7 });
+		return positions;
+	}
+
+	private static String getKey(double x, double y) {
+		return Double.toString(x) + "x" + Double.toString(y) + "y";
+	}
+
+	@Test
+	public void testCollidingPositions() {
+		PositionIndex index = new PositionIndex();
+		List<double[]> positions = getCollidingPositions(3, 4);
+		Entity[] entities = new Entity[positions.size()];
+		for (int i = 0; i < entities.length; i++) {
+			entities[i] = new Asteroid(100, 100, 0, 0, 10);
+			index.put(positions.get(i)[0], positions.get(i)[1], entities[i]);
+		}
+		assertEquals(4, index.size());
+		for (int i = 0; i < entities.length; i++)
+			assertTrue(index.get(positions.get(i)[0], positions.get(i)[1]) == entities[i]);
+		Entity replacement = new Asteroid(100, 100, 0, 0, 10);
+		index.put(positions.get(2)[0], positions.get(2)[1], replacement);
+		assertEquals(4, index.size());
+		assertTrue(index.get(positions.get(2)[0], positions.get(2)[1]) == replacement);
+	}
+
+	@Test
+	public void testRemoveAlongProbeChain() {
+		PositionIndex index = new PositionIndex();
+		List<double[]> positions = getCollidingPositions(5, 3);
+		double[] neighbour = getCollidingPositions(6, 1).get(0);
+		Entity[] entities = new Entity[positions.size()];
+		for (int i = 0; i < entities.length; i++) {
+			entities[i] = new Asteroid(100, 100, 0, 0, 10);
+			index.put(positions.get(i)[0], positions.get(i)[1], entities[i]);
+		}
+		Entity other = new Asteroid(100, 100, 0, 0, 10);
+		index.put(neighbour[0], neighbour[1], other);
+		index.remove(positions.get(0)[0], positions.get(0)[1]);
+		assertEquals(3, index.size());
+		assertNull(index.get(positions.get(0)[0], positions.get(0)[1]));
+		assertTrue(index.get(positions.get(1)[0], positions.get(1)[1]) == entities[1]);
+		assertTrue(index.get(positions.get(2)[0], positions.get(2)[1]) == entities[2]);
+		assertTrue(index.get(neighbour[0], neighbour[1]) == other);
+		index.remove(positions.get(1)[0], positions.get(1)[1]);
+		assertTrue(index.get(positions.get(2)[0], positions.get(2)[1]) == entities[2]);
+		assertTrue(index.get(neighbour[0], neighbour[1]) == other);
+		index.remove(positions.get(1)[0], positions.get(1)[1]);
+		assertEquals(2, index.size());
+	}
+
+	@Test
+	public void testWrapAroundAtEndOfTable() {
+		PositionIndex index = new PositionIndex();
+		List<double[]> positions = getCollidingPositions(15, 4);
+		Entity[] entities = new Entity[positions.size()];
+		for (int i = 0; i < entities.length; i++) {
+			entities[i] = new Asteroid(100, 100, 0, 0, 10);
+			index.put(positions.get(i)[0], positions.get(i)[1], entities[i]);
+		}
+		for (int i = 0; i < entities.length; i++)
+			assertTrue(index.get(positions.get(i)[0], positions.get(i)[1]) == entities[i]);
+		index.remove(positions.get(0)[0], positions.get(0)[1]);
+		for (int i = 1; i < entities.length; i++)
+			assertTrue(index.get(positions.get(i)[0], positions.get(i)[1]) == entities[i]);
+		index.remove(positions.get(2)[0], positions.get(2)[1]);
+		assertTrue(index.get(positions.get(1)[0], positions.get(1)[1]) == entities[1]);
+		assertTrue(index.get(positions.get(3)[0], positions.get(3)[1]) == entities[3]);
+		assertNull(index.get(positions.get(2)[0], positions.get(2)[1]));
+		assertEquals(2, index.size());
+	}
+
+	@Test
+	public void testResize() {
+		PositionIndex index = new PositionIndex();
+		Entity[] entities = new Entity[1000];
+		for (int i = 0; i < entities.length; i++) {
+			entities[i] = new Asteroid(100, 100, 0, 0, 10);
+			index.put(i * 0.5, i * 1.5, entities[i]);
+		}
+		assertEquals(1000, index.size());
+		for (int i = 0; i < entities.length; i++)
+			assertTrue(index.get(i * 0.5, i * 1.5) == entities[i]);
+		for (int i = 0; i < entities.length; i += 2)
+			index.remove(i * 0.5, i * 1.5);
+		assertEquals(500, index.size());
+		for (int i = 0; i < entities.length; i++)
+			assertTrue(index.get(i * 0.5, i * 1.5) == ((i % 2 == 0) ? null : entities[i]));
+		index.clear();
+		assertEquals(0, index.size());
+		assertNull(index.get(1 * 0.5, 1 * 1.5));
+	}
+
+	@Test
+	public void testRandomOperations() {
+		for (long seed = 0; seed < 20; seed++) {
+			Random random = new Random(seed);
+			PositionIndex index = new PositionIndex();
+			Map<String, Entity> expected = new HashMap<String, Entity>();
+			for (int i = 0; i < 5000; i++) {
+				double x = random.nextInt(40);
+				double y = random.nextInt(40);
+				if (random.nextInt(3) == 0) {
+					index.remove(x, y);
+					expected.remove(getKey(x, y));
+				} else {
+					Entity entity = new Asteroid(100, 100, 0, 0, 10);
+					index.put(x, y, entity);
+					expected.put(getKey(x, y), entity);
+				}
+				assertTrue(index.get(x, y) == expected.get(getKey(x, y)));
+				assertEquals(expected.size(), index.size());
+			}
+			assertEquals(expected, index.asMap());
+		}
+	}
+
+	@Test
+	public void testAsMap() {
+		PositionIndex index = new PositionIndex();
+		Entity first = new Asteroid(100, 100, 0, 0, 10);
+		Entity second = new Asteroid(100, 100, 0, 0, 10);
+		Map<String, Entity> map = index.asMap();
+		index.put(1, 2.5, first);
+		index.put(-0.0, 0.0, second);
+		assertEquals(2, map.size());
+		assertTrue(map.get("1.0x2.5y") == first);
+		assertTrue(map.get("-0.0x0.0y") == second);
+		assertNull(map.get("0.0x0.0y"));
+		assertNull(index.get(0.0, 0.0));
+		index.remove(1, 2.5);
+		assertEquals(1, map.size());
+		assertNull(map.get("1.0x2.5y"));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testAsMapUnmodifiable() {
+		PositionIndex index = new PositionIndex();
+		index.asMap().put("1.0x2.0y", new Asteroid(100, 100, 0, 0, 10));
+	}
+}
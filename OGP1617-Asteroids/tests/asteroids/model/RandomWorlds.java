@@ -0,0 +1,134 @@
+package asteroids.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Randomly generated worlds, and brute-force versions of the collision search and of evolve, against which the
+ * collision search of worlds is checked. The brute-force versions check every entity against every other entity
+ * and search the whole world again after every collision, as worlds did before they had a grid and a scheduler.
+ */
+class RandomWorlds {
+
+	/**
+	 * Returns a new world of the given size with at most the given number of ships, asteroids and bullets, with
+	 * radii between the given bounds and speeds up to the given speed. Entities that would overlap with another
+	 * entity or touch the boundaries are left out. The same seed always gives the same world.
+	 */
+	static World create(long seed, double width, double height, int count, double minradius, double maxradius,
+			double maxspeed) {
+		Random random = new Random(seed);
+		World world = new World(width, height);
+		for (int i = 0; i < count; i++) {
+			double radius = minradius + random.nextDouble() * (maxradius - minradius);
+			double x = radius * 1.1 + random.nextDouble() * (width - radius * 2.2);
+			double y = radius * 1.1 + random.nextDouble() * (height - radius * 2.2);
+			double angle = random.nextDouble() * 2 * Math.PI;
+			double speed = random.nextDouble() * maxspeed;
+			double kind = random.nextDouble();
+			Entity entity;
+			if (kind < 0.3 && radius >= 10)
+				entity = new Ship(x, y, speed * Math.cos(angle), speed * Math.sin(angle), radius, 0, 1.0E20);
+			else if (kind < 0.45)
+				entity = new Bullet(x, y, speed * Math.cos(angle), speed * Math.sin(angle), Math.max(1, radius / 4));
+			else
+				entity = new Asteroid(x, y, speed * Math.cos(angle), speed * Math.sin(angle), Math.max(5, radius));
+			if (isFree(world, entity))
+				world.addEntity(entity);
+		}
+		return world;
+	}
+
+	/**
+	 * Returns whether the given entity lies well within the given world and well apart from its entities.
+	 */
+	static boolean isFree(World world, Entity entity) {
+		double radius = entity.getRadius();
+		if (entity.getXPosition() < 1.05 * radius || entity.getXPosition() > world.getWidth() - 1.05 * radius
+				|| entity.getYPosition() < 1.05 * radius || entity.getYPosition() > world.getHeight() - 1.05 * radius)
+			return false;
+		for (Entity other : world.getEntityList()) {
+			double dx = entity.getXPosition() - other.getXPosition();
+			double dy = entity.getYPosition() - other.getYPosition();
+			if (Math.sqrt(dx * dx + dy * dy) < 1.05 * (radius + other.getRadius()))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the earliest collisions in the given world, found by checking every entity against the boundaries
+	 * and against every other entity, sorted as collisions are sorted.
+	 */
+	static List<CollisionEvent> getNextCollisions(World world, boolean includenow) {
+		Entity[] entities = world.getEntityList().toArray(new Entity[0]);
+		List<CollisionEvent> earliest = new ArrayList<CollisionEvent>();
+		for (int i = 0; i < entities.length; i++) {
+			double time = entities[i].getTimeToCollision();
+			if (isValidTime(time, includenow))
+				CollisionEvent.offer(earliest, new CollisionEvent(time, entities[i], null));
+			for (int j = i + 1; j < entities.length; j++) {
+				Entity first = (entities[i].getId() < entities[j].getId()) ? entities[i] : entities[j];
+				Entity second = (first == entities[i]) ? entities[j] : entities[i];
+				time = first.getTimeToCollision(second);
+				if (isValidTime(time, includenow))
+					CollisionEvent.offer(earliest, new CollisionEvent(time, first, second));
+			}
+		}
+		Collections.sort(earliest);
+		return earliest;
+	}
+
+	private static boolean isValidTime(double time, boolean includenow) {
+		return time < Double.POSITIVE_INFINITY && (time > 0 || (includenow && time == 0));
+	}
+
+	/**
+	 * Returns the number of contacts happening now in the given world, found by checking every entity against the
+	 * boundaries and against every other entity.
+	 */
+	static int countCurrentContacts(World world) {
+		Entity[] entities = world.getEntityList().toArray(new Entity[0]);
+		int count = 0;
+		for (int i = 0; i < entities.length; i++) {
+			if (entities[i].apparentlyCollides(world))
+				count++;
+			for (int j = i + 1; j < entities.length; j++)
+				if (entities[i].apparentlyCollides(entities[j]))
+					count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Moves all entities of the given world for the given time.
+	 */
+	static void moveAll(World world, double time) {
+		for (Entity entity : world.getEntityList().toArray(new Entity[0]))
+			if (entity.getWorld() == world)
+				entity.move(time);
+	}
+
+	/**
+	 * Evolves the given world for the given time by searching the whole world for the next collisions, moving all
+	 * entities up to them and resolving them, until the time has passed.
+	 */
+	static void evolve(World world, double time) {
+		while (true) {
+			List<CollisionEvent> next = getNextCollisions(world, false);
+			if (next.isEmpty() || next.get(0).getTime() > time) {
+				moveAll(world, time);
+				return;
+			}
+			double collisiontime = next.get(0).getTime();
+			moveAll(world, collisiontime);
+			ContactSet contacts = new ContactSet();
+			for (CollisionEvent event : next)
+				contacts.add(event);
+			contacts.resolve(world, null);
+			time -= collisiontime;
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package asteroids.tests;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
@@ -15,6 +16,7 @@ import asteroids.model.Planetoid;
 import asteroids.model.Ship;
 import asteroids.model.World;
 import asteroids.facade.Facade;
+import asteroids.part2.CollisionListener;
 import asteroids.part3.facade.IFacade;
 import asteroids.util.ModelException;
 
@@ -343,6 +345,106 @@ public class Part2TestPartial {
 		assertTrue(world.getEntityList().isEmpty());
 		
 	}
+	
+	@Test
+	public void testEvolvePackedWorld() throws ModelException{
+		World world = new World(5000, 5000, true);
+		Ship ship1 = facade.createShip(1200,500,-100,0,100,0,500);
+		Ship ship2 = facade.createShip(3800,500,100,0,100,0,500);
+		Bullet bullet = facade.createBullet(1000, 1000, 0, 100, 10);
+		facade.addShipToWorld(world, ship1);
+		facade.addShipToWorld(world, ship2);
+		facade.addBulletToWorld(world, bullet);
+		assertTrue(world.isPacked());
+		world.evolve(40, null);
+		assertEquals(1800,ship1.getPos().getX(),EPSILON);
+		assertEquals(3200,ship2.getPos().getX(),EPSILON);
+		assertEquals(-100,ship1.getVel().getX(),EPSILON);
+		assertEquals(100,ship2.getVel().getX(),EPSILON);
+		assertEquals(1000,bullet.getPos().getX(),EPSILON);
+		assertEquals(4980,bullet.getPos().getY(),EPSILON);
+		facade.removeShipFromWorld(world, ship1);
+		assertEquals(1800,ship1.getPos().getX(),EPSILON);
+		assertEquals(-100,ship1.getVel().getX(),EPSILON);
+		assertEquals(100,ship1.getRadius(),EPSILON);
+	}
+	
+	private static class RecordingListener implements CollisionListener {
+		
+		private final List<Object[]> collisions = new ArrayList<Object[]>();
+		
+		@Override
+		public void boundaryCollision(Object entity, double x, double y) {
+			collisions.add(new Object[] {entity, null, x, y});
+		}
+		
+		@Override
+		public void objectCollision(Object entity1, Object entity2, double x, double y) {
+			collisions.add(new Object[] {entity1, entity2, x, y});
+		}
+	}
+	
+	@Test
+	public void testDoCollisionsWithoutSearch() throws ModelException{
+		World world = facade.createWorld(1000, 1000);
+		Ship ship1 = facade.createShip(100, 100, 10, 0, 10, 0, 500);
+		Ship ship2 = facade.createShip(120.05, 100, -10, 0, 10, 0, 500);
+		Ship ship3 = facade.createShip(10.05, 500, -5, 3, 10, 0, 500);
+		Ship ship4 = facade.createShip(500, 500, 5, 5, 10, 0, 500);
+		facade.addShipToWorld(world, ship1);
+		facade.addShipToWorld(world, ship2);
+		facade.addShipToWorld(world, ship3);
+		facade.addShipToWorld(world, ship4);
+		RecordingListener listener = new RecordingListener();
+		world.doCollisions(listener);
+		assertEquals(-10,ship1.getVel().getX(),0.2);
+		assertEquals(10,ship2.getVel().getX(),0.2);
+		assertEquals(5,ship3.getVel().getX(),EPSILON);
+		assertEquals(3,ship3.getVel().getY(),EPSILON);
+		assertEquals(5,ship4.getVel().getX(),EPSILON);
+		assertEquals(2,listener.collisions.size());
+		assertArrayEquals(new Object[] {ship3, null, 0.0, 500.0}, listener.collisions.get(0));
+		assertEquals(ship1,listener.collisions.get(1)[0]);
+		assertEquals(ship2,listener.collisions.get(1)[1]);
+		assertEquals(110.025,(double) listener.collisions.get(1)[2],EPSILON);
+		assertEquals(100,(double) listener.collisions.get(1)[3],EPSILON);
+	}
+	
+	@Test
+	public void testDoCollisionsAfterWorldChanged() throws ModelException{
+		World world = facade.createWorld(1000, 1000);
+		Ship ship1 = facade.createShip(100, 100, 10, 0, 10, 0, 500);
+		Ship ship2 = facade.createShip(200, 100, -10, 0, 10, 0, 500);
+		facade.addShipToWorld(world, ship1);
+		facade.addShipToWorld(world, ship2);
+		assertEquals(4,world.getTimeNextCollision(),EPSILON);
+		facade.removeShipFromWorld(world, ship2);
+		Ship ship3 = facade.createShip(500, 989.95, 0, 10, 10, 0, 500);
+		facade.addShipToWorld(world, ship3);
+		RecordingListener listener = new RecordingListener();
+		world.doCollisions(listener);
+		assertEquals(10,ship1.getVel().getX(),EPSILON);
+		assertEquals(-10,ship3.getVel().getY(),EPSILON);
+		assertEquals(1,listener.collisions.size());
+		assertArrayEquals(new Object[] {ship3, null, 500.0, 1000.0}, listener.collisions.get(0));
+	}
+	
+	@Test
+	public void testEvolveNotifiesListener() throws ModelException{
+		World world = facade.createWorld(1000, 1000);
+		Ship ship1 = facade.createShip(100, 100, 10, 0, 10, 0, 500);
+		Ship ship2 = facade.createShip(200, 100, -10, 0, 10, 0, 500);
+		facade.addShipToWorld(world, ship1);
+		facade.addShipToWorld(world, ship2);
+		RecordingListener listener = new RecordingListener();
+		world.evolve(5, listener);
+		assertEquals(1,listener.collisions.size());
+		assertEquals(ship1,listener.collisions.get(0)[0]);
+		assertEquals(ship2,listener.collisions.get(0)[1]);
+		assertEquals(150,(double) listener.collisions.get(0)[2],EPSILON);
+		assertEquals(100,(double) listener.collisions.get(0)[3],EPSILON);
+		assertEquals(-10,ship1.getVel().getX(),EPSILON);
+	}
 
 	
 	/**************
@@ -8,23 +8,42 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
 
 import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.Test;
 
+import asteroids.bytecode.BytecodeProgram;
+import asteroids.bytecode.BytecodeProgramFactory;
 import asteroids.model.Asteroid;
 import asteroids.model.Bullet;
 import asteroids.model.Planetoid;
 import asteroids.model.Ship;
 import asteroids.model.World;
 import asteroids.part3.facade.IFacade;
+import asteroids.part3.internal.OffscreenRenderer;
 import asteroids.model.Program;
 import asteroids.part3.programs.IProgramFactory;
+import asteroids.part3.programs.ProgramCache;
+import asteroids.part3.programs.ProgramLoader;
+import asteroids.part3.programs.internal.ParseOutcome;
 import asteroids.part3.programs.internal.ProgramParser;
+import asteroids.statements.BreakException;
 import asteroids.util.ModelException;
 
 public class Part3TestFull {
@@ -545,6 +564,78 @@ public class Part3TestFull {
     score += 3;
   }
 
+  private Set<Object> filterEntities(World world, Class<?> type) throws ModelException {
+    Set<Object> result = new HashSet<>();
+    for (Object entity : facade.getEntities(world))
+      if (type.isInstance(entity))
+        result.add(entity);
+    return result;
+  }
+
+  private void assertEntitiesPerClass(World world) throws ModelException {
+    assertEquals(filterEntities(world, Ship.class), facade.getWorldShips(world));
+    assertEquals(filterEntities(world, Bullet.class), facade.getWorldBullets(world));
+    assertEquals(filterEntities(world, Asteroid.class), facade.getWorldAsteroids(world));
+    assertEquals(filterEntities(world, Planetoid.class), facade.getWorldPlanetoids(world));
+    assertEquals(facade.getEntities(world).size(), facade.getWorldShips(world).size()
+        + facade.getWorldBullets(world).size() + facade.getWorldAsteroids(world).size()
+        + facade.getWorldPlanetoids(world).size());
+  }
+
+  @Test
+  public void testEntitiesPerClassAfterAddAndRemove() throws ModelException {
+    max_score += 4;
+    World world = facade.createWorld(5000, 5000);
+    List<Object> added = new ArrayList<>();
+    for (int i = 0; i < 120; i++) {
+      double x = 100 + 200 * (i % 20);
+      double y = 100 + 200 * (i / 20);
+      switch (i % 4) {
+      case 0:
+        Ship ship = facade.createShip(x, y, 10, 5, 20, 0, 1.0E20);
+        facade.addShipToWorld(world, ship);
+        added.add(ship);
+        break;
+      case 1:
+        Bullet bullet = facade.createBullet(x, y, 10, 5, 5);
+        facade.addBulletToWorld(world, bullet);
+        added.add(bullet);
+        break;
+      case 2:
+        Asteroid asteroid = facade.createAsteroid(x, y, 10, 5, 20);
+        facade.addAsteroidToWorld(world, asteroid);
+        added.add(asteroid);
+        break;
+      default:
+        Planetoid planetoid = facade.createPlanetoid(x, y, 10, 5, 20, 0);
+        facade.addPlanetoidToWorld(world, planetoid);
+        added.add(planetoid);
+      }
+      if (i % 10 == 0)
+        assertEntitiesPerClass(world);
+    }
+    assertEntitiesPerClass(world);
+    assertEquals(30, facade.getWorldPlanetoids(world).size());
+    for (int i = 0; i < added.size(); i += 3) {
+      Object entity = added.get(i);
+      if (entity instanceof Ship)
+        facade.removeShipFromWorld(world, (Ship) entity);
+      else if (entity instanceof Bullet)
+        facade.removeBulletFromWorld(world, (Bullet) entity);
+      else if (entity instanceof Asteroid)
+        facade.removeAsteroidFromWorld(world, (Asteroid) entity);
+      else
+        facade.removePlanetoidFromWorld(world, (Planetoid) entity);
+      assertEntitiesPerClass(world);
+    }
+    assertEquals(80, facade.getEntities(world).size());
+    Ship ship = facade.createShip(4900, 4900, 0, 0, 20, 0, 1.0E20);
+    facade.addShipToWorld(world, ship);
+    assertEntitiesPerClass(world);
+    assertTrue(facade.getWorldShips(world).contains(ship));
+    score += 4;
+  }
+
   @Test
   public void testGetEntityAt() throws ModelException {
     max_score += 2;
@@ -1563,6 +1654,35 @@ public class Part3TestFull {
     }
   }
 
+  @Test
+  public void testLoadProgram_IllTypedUnreachedStatement() throws ModelException {
+    try {
+      max_score += 5;
+      String code = "if 1.0 < 0.0 { " + "  print 4.0 + self; " + "}";
+      Program program = ProgramParser.parseProgramFromString(code, programFactory);
+      facade.loadProgramOnShip(ship1, program);
+      fail();
+    } catch (ModelException exc) {
+      score += 5;
+    }
+  }
+
+  @Test
+  public void testFunctionCall_ParameterCheckedAtRunTime() throws ModelException {
+    max_score += 3;
+    String code = "def f { " + "  return $1 + 1.0; " + "} " + "print f(2.0); " + "turn 0.5; " + "print f(self); ";
+    Program program = ProgramParser.parseProgramFromString(code, programFactory);
+    facade.loadProgramOnShip(ship1, program);
+    assertTrue(program.isWellTyped());
+    try {
+      facade.executeProgram(ship1, 1.0);
+      fail();
+    } catch (ModelException exc) {
+      assertEquals(0.5, facade.getShipOrientation(ship1), EPSILON);
+      score += 3;
+    }
+  }
+
   // Sequence Statement
 
   @Test
@@ -1670,6 +1790,318 @@ public class Part3TestFull {
     score += 3;
   }
 
+  @Test
+  public void testShipExpression_CachedUntilWorldChanges() throws ModelException {
+    max_score += 3;
+    String code = "while 0.0 < 1.0 { " + "  print ship; " + "  print ship; " + "  turn 0.1; " + "}";
+    Program program = ProgramParser.parseProgramFromString(code, programFactory);
+    facade.loadProgramOnShip(ship1, program);
+    assertNull(facade.executeProgram(ship1, 0.3));
+    assertEquals(2, program.getCache().getMisses());
+    assertEquals(2, program.getCache().getHits());
+    score += 3;
+  }
+
+  @Test
+  public void testAsteroidExpression_CacheInvalidatedByRemoval() throws ModelException {
+    max_score += 3;
+    Asteroid near = facade.createAsteroid(300, 120, 0, 0, 20);
+    Asteroid far = facade.createAsteroid(1500, 1500, 0, 0, 20);
+    facade.addAsteroidToWorld(filledWorld, near);
+    facade.addAsteroidToWorld(filledWorld, far);
+    String code = "print asteroid; " + "skip; " + "print asteroid; " + "skip; " + "print asteroid; ";
+    Program program = ProgramParser.parseProgramFromString(code, programFactory);
+    facade.loadProgramOnShip(ship1, program);
+    assertNull(facade.executeProgram(ship1, 0.1));
+    facade.removeAsteroidFromWorld(filledWorld, near);
+    assertNull(facade.executeProgram(ship1, 0.2));
+    facade.removeAsteroidFromWorld(filledWorld, far);
+    Object[] expecteds = { near, far, null };
+    assertArrayEquals(expecteds, facade.executeProgram(ship1, 0.2).toArray());
+    assertEquals(3, program.getCache().getMisses());
+    assertEquals(0, program.getCache().getHits());
+    score += 3;
+  }
+
+  @Test
+  public void testProgramCache_InstancePerShip() throws ModelException {
+    max_score += 3;
+    String code = "x := 1.0; " + "turn 0.1; " + "print x; " + "x := x + 1.0; " + "print x; ";
+    ProgramCache<Program> cache = new ProgramCache<>(programFactory, Program::instantiate, 2);
+    Program program1 = cache.parseString(code).getSuccessValue();
+    Program program2 = cache.parseString(code).getSuccessValue();
+    assertTrue(program1 != program2);
+    assertEquals(1, cache.getMisses());
+    assertEquals(1, cache.getHits());
+    facade.loadProgramOnShip(ship1, program1);
+    facade.loadProgramOnShip(ship2, program2);
+    assertNull(facade.executeProgram(ship2, 0.1));
+    assertArrayEquals(new Object[] { 1.0, 2.0 }, facade.executeProgram(ship1, 0.4).toArray());
+    assertArrayEquals(new Object[] { 1.0, 2.0 }, facade.executeProgram(ship2, 0.1).toArray());
+    assertTrue(cache.parseString("print 1.0;").isSuccess());
+    assertTrue(cache.parseString("print 2.0;").isSuccess());
+    assertEquals(2, cache.size());
+    cache.parseString(code);
+    assertEquals(4, cache.getMisses());
+    score += 3;
+  }
+
+  @Test
+  public void testProgramCache_LeastRecentlyUsedEvicted() throws ModelException {
+    max_score += 2;
+    ProgramCache<Program> cache = new ProgramCache<>(programFactory, Program::instantiate, 2);
+    cache.parseString("print 1.0; ");
+    cache.parseString("print 2.0; ");
+    cache.parseString("print 1.0; ");
+    cache.parseString("print 3.0; ");
+    assertEquals(2, cache.size());
+    cache.parseString("print 1.0; ");
+    assertEquals(2, cache.getHits());
+    assertEquals(3, cache.getMisses());
+    cache.parseString("print 2.0; ");
+    assertEquals(4, cache.getMisses());
+    cache.parseString("print 3.0; ");
+    assertEquals(5, cache.getMisses());
+    assertEquals(2, cache.size());
+    score += 2;
+  }
+
+  @Test
+  public void testProgramCache_InstancesShareNoMutableState() throws ModelException {
+    max_score += 3;
+    String code = "x := 0.0; " + "while x < 3.0 { " + "  x := x + 1.0; " + "  turn 0.1; " + "} " + "print x; "
+        + "print ship; ";
+    ProgramCache<Program> cache = new ProgramCache<>(programFactory, Program::instantiate, 2);
+    Program program1 = cache.parseString(code).getSuccessValue();
+    Program program2 = cache.parseString(code).getSuccessValue();
+    assertTrue(program1.getCache() != program2.getCache());
+    program1.setStepBudget(1);
+    facade.loadProgramOnShip(ship1, program1);
+    facade.loadProgramOnShip(ship2, program2);
+    assertNull(facade.executeProgram(ship1, 1.0));
+    assertEquals(1, program1.getSteps());
+    assertEquals(0, program2.getSteps());
+    assertEquals(0, program2.getCache().getMisses());
+    assertArrayEquals(new Object[] { 3.0, ship1 }, facade.executeProgram(ship2, 1.0).toArray());
+    assertEquals(3, program2.getSteps());
+    assertNull(facade.executeProgram(ship1, 1.0));
+    assertArrayEquals(new Object[] { 3.0, ship2 }, facade.executeProgram(ship1, 1.0).toArray());
+    Program program3 = cache.parseString(code).getSuccessValue();
+    ship3 = facade.createShip(1500, 1500, 0, 0, 50, 0, 1.0E20);
+    facade.addShipToWorld(filledWorld, ship3);
+    facade.loadProgramOnShip(ship3, program3);
+    assertArrayEquals(new Object[] { 3.0, ship2 }, facade.executeProgram(ship3, 1.0).toArray());
+    score += 3;
+  }
+
+  @Test
+  public void testProgramParser_Batch() throws ModelException {
+    max_score += 2;
+    ProgramParser<?, ?, ?, Program> parser = ProgramParser.createBatch(programFactory);
+    assertTrue(parser.parseString("x := 1.0; print x + 2.0; ").isSuccess());
+    ParseOutcome<Program> failure = parser.parseString("x := ; print x; ");
+    assertTrue(failure.isFail());
+    assertEquals(1, parser.getErrors().size());
+    Program program = parser.parseString("def f { return $1 + 1.0; } print f(2.0); ").getSuccessValue();
+    assertTrue(parser.getErrors().isEmpty());
+    assertEquals(1, failure.getFailValue().size());
+    facade.loadProgramOnShip(ship1, program);
+    assertArrayEquals(new Object[] { 3.0 }, facade.executeProgram(ship1, 0.0).toArray());
+    score += 2;
+  }
+
+  @Test
+  public void testProgramParser_BatchFallsBackToLL() throws ModelException {
+    max_score += 3;
+    ProgramParser<?, ?, ?, Program> single = ProgramParser.create(programFactory);
+    ProgramParser<?, ?, ?, Program> batch = ProgramParser.createBatch(programFactory);
+    String[] codes = { "print - 1.0 + 2.0 * 3.0; print -(1.0 + 2.0) * 3.0; print sqrt 4.0 + 5.0; ",
+        "print 1.0 + ; ",
+        "if 1.0 < 2.0 { if 2.0 < 1.0 { print 1.0; } else { print 2.0; } } ",
+        "while 1.0 < 2.0 { print 1.0; ",
+        "def f { return $1 * $1 + 1.0; } print f(f(2.0)) * -f(1.0); ",
+        "def f { return 1.0; } ",
+        "x := 1.0; print x + 1.0 * 2.0; print getdir * 2.0 + 1.0; " };
+    for (String code : codes) {
+      boolean success = single.parseString(code).isSuccess();
+      List<String> errors = new ArrayList<>(single.getErrors());
+      Program program = batch.parseString(code).getSuccessValue();
+      assertEquals(success, program != null);
+      assertEquals(errors, new ArrayList<>(batch.getErrors()));
+      if (success) {
+        facade.loadProgramOnShip(ship1, single.parseString(code).getSuccessValue());
+        List<Object> expecteds = facade.executeProgram(ship1, 0.0);
+        facade.loadProgramOnShip(ship2, program);
+        assertArrayEquals(expecteds.toArray(), facade.executeProgram(ship2, 0.0).toArray());
+      }
+      else
+        assertFalse(errors.isEmpty());
+    }
+    score += 3;
+  }
+
+  @Test
+  public void testProgramLoader_Directory() throws IOException {
+    max_score += 2;
+    Path directory = Files.createTempDirectory("programs");
+    try (ProgramLoader<Program> loader = new ProgramLoader<>(programFactory, 2)) {
+      for (int i = 0; i < 10; i++)
+        Files.write(directory.resolve("program" + i + ".txt"), ("print " + i + ".0; ").getBytes());
+      Files.write(directory.resolve("invalid.txt"), "x := ; ".getBytes());
+      Set<Path> valid = new HashSet<>();
+      Set<Path> invalid = new HashSet<>();
+      loader.loadDirectory(directory).forEach(result -> {
+        assertTrue(result.getLatency() > 0);
+        (result.getOutcome().isSuccess() ? valid : invalid).add(result.getPath().getFileName());
+      });
+      assertEquals(10, valid.size());
+      assertEquals(1, invalid.size());
+      assertTrue(invalid.contains(directory.getFileSystem().getPath("invalid.txt")));
+    } finally {
+      for (Path path : Files.list(directory).toArray(Path[]::new))
+        Files.delete(path);
+      Files.delete(directory);
+    }
+    score += 2;
+  }
+
+  @Test
+  public void testProgramLoader_MalformedFiles() throws IOException {
+    max_score += 2;
+    Path directory = Files.createTempDirectory("programs");
+    Path subdirectory = Files.createDirectory(directory.resolve("nested"));
+    try (ProgramLoader<Program> loader = new ProgramLoader<>(programFactory, 2)) {
+      Files.write(directory.resolve("binary.txt"), new byte[] { (byte) 0xC3, (byte) 0x28, 0, (byte) 0xFF, 10 });
+      Files.write(directory.resolve("empty.txt"), new byte[0]);
+      Files.write(directory.resolve("truncated.txt"), "while 0.0 < 1.0 { print ".getBytes());
+      for (int i = 0; i < 6; i++)
+        Files.write(directory.resolve("valid" + i + ".txt"), ("print " + i + ".0; ").getBytes());
+      Files.write(subdirectory.resolve("ignored.txt"), "print 1.0; ".getBytes());
+      Map<Path, Boolean> outcomes = new HashMap<>();
+      loader.loadDirectory(directory).forEach(result -> {
+        outcomes.put(result.getPath().getFileName(), result.getOutcome().isSuccess());
+        if (result.getOutcome().isFail())
+          assertFalse(result.getOutcome().getFailValue().isEmpty());
+      });
+      assertEquals(9, outcomes.size());
+      assertFalse(outcomes.get(directory.getFileSystem().getPath("binary.txt")));
+      assertFalse(outcomes.get(directory.getFileSystem().getPath("empty.txt")));
+      assertFalse(outcomes.get(directory.getFileSystem().getPath("truncated.txt")));
+      for (int i = 0; i < 6; i++)
+        assertTrue(outcomes.get(directory.getFileSystem().getPath("valid" + i + ".txt")));
+      List<Path> missing = List.of(directory.resolve("missing.txt"));
+      loader.load(missing).forEach(result -> assertTrue(result.getOutcome().isFail()));
+    } finally {
+      Files.delete(subdirectory.resolve("ignored.txt"));
+      Files.delete(subdirectory);
+      for (Path path : Files.list(directory).toArray(Path[]::new))
+        Files.delete(path);
+      Files.delete(directory);
+    }
+    score += 2;
+  }
+
+  @Test
+  public void testWhileStatement_StepBudget() throws ModelException {
+    max_score += 3;
+    String code = "x := 0.0; " + "while x < 25.0 { " + "  x := x + 1.0; " + "} " + "print x; ";
+    Program program = ProgramParser.parseProgramFromString(code, programFactory);
+    program.setStepBudget(10);
+    facade.loadProgramOnShip(ship1, program);
+    assertNull(facade.executeProgram(ship1, 0.0));
+    assertEquals(10, program.getSteps());
+    assertNull(facade.executeProgram(ship1, 0.0));
+    assertArrayEquals(new Object[] { 25.0 }, facade.executeProgram(ship1, 0.0).toArray());
+    assertEquals(25, program.getSteps());
+    score += 3;
+  }
+
+  @Test
+  public void testWhileStatement_RefuelledForEveryExecution() throws ModelException {
+    max_score += 3;
+    String code = "def f { " + "  i := 0.0; " + "  while i < 15.0 { " + "    i := i + 1.0; " + "  } " + "  return i; "
+        + "} " + "n := 0.0; " + "while n < 2.0 { " + "  n := n + 1.0; " + "  print f(); " + "} ";
+    Program program = ProgramParser.parseProgramFromString(code, programFactory);
+    program.setStepBudget(10);
+    facade.loadProgramOnShip(ship1, program);
+    assertNull(facade.executeProgram(ship1, 0.0));
+    assertTrue(program.getFuel() < 0);
+    assertNull(facade.executeProgram(ship1, 0.0));
+    assertTrue(program.getFuel() < 0);
+    assertArrayEquals(new Object[] { 15.0, 15.0 }, facade.executeProgram(ship1, 0.0).toArray());
+    assertTrue(program.getFuel() > 0);
+    score += 3;
+  }
+
+  @Test
+  public void testSkipStatement_FuelNotAccumulated() throws ModelException {
+    max_score += 2;
+    String code = "x := 0.0; " + "while x < 30.0 { " + "  x := x + 1.0; " + "  if 5.0 < x { " + "    skip; " + "  } "
+        + "} " + "print x; ";
+    Program program = ProgramParser.parseProgramFromString(code, programFactory);
+    program.setStepBudget(10);
+    facade.loadProgramOnShip(ship1, program);
+    assertNull(facade.executeProgram(ship1, 0.0));
+    assertEquals(5, program.getFuel());
+    assertNull(facade.executeProgram(ship1, 0.0));
+    assertEquals(10, program.getFuel());
+    assertNull(facade.executeProgram(ship1, 0.2));
+    assertEquals(6, program.getSteps());
+    assertNull(facade.executeProgram(ship1, 10.0));
+    assertEquals(16, program.getSteps());
+    assertEquals(0, program.getFuel());
+    score += 2;
+  }
+
+  @Test
+  public void testFunctionCall_StepBudgetExceeded() throws ModelException {
+    max_score += 2;
+    String code = "def f { " + "  while 0.0 < 1.0 { " + "    y := 1.0; " + "  } " + "  return 0.0; " + "} " + "print f(); ";
+    Program program = ProgramParser.parseProgramFromString(code, programFactory);
+    program.setStepBudget(100);
+    try {
+      facade.loadProgramOnShip(ship1, program);
+      facade.executeProgram(ship1, 0.0);
+      fail();
+    } catch (ModelException exc) {
+      assertEquals(200, program.getSteps());
+      score += 2;
+    }
+  }
+
+  @Test
+  public void testTurnStatement_ExecuteProgramsOfWorld() throws ModelException, BreakException {
+    max_score += 3;
+    String code = "turn 1.0; " + "print getdir; ";
+    facade.turn(ship1, 1.5);
+    facade.loadProgramOnShip(ship1, ProgramParser.parseProgramFromString(code, programFactory));
+    facade.loadProgramOnShip(ship2, ProgramParser.parseProgramFromString(code, programFactory));
+    Map<Ship, List<Object>> results = filledWorld.executePrograms(0.45);
+    assertArrayEquals(new Object[] { ship1, ship2 }, results.keySet().toArray());
+    assertArrayEquals(new Object[] { 1.5 }, results.get(ship1).toArray());
+    assertArrayEquals(new Object[] { 0.0 }, results.get(ship2).toArray());
+    assertEquals(2.5, facade.getShipOrientation(ship1), EPSILON);
+    assertEquals(1.0, facade.getShipOrientation(ship2), EPSILON);
+    score += 3;
+  }
+
+  @Test
+  public void testTurnStatement_ExecuteProgramsOfWorldWithFailure() throws ModelException, BreakException {
+    max_score += 3;
+    String failing = "def f { " + "  return $1 + 1.0; " + "} " + "turn 0.5; " + "print f(self); ";
+    String code = "turn 1.0; " + "print getdir; ";
+    facade.loadProgramOnShip(ship1, ProgramParser.parseProgramFromString(failing, programFactory));
+    facade.loadProgramOnShip(ship2, ProgramParser.parseProgramFromString(code, programFactory));
+    try {
+      filledWorld.executePrograms(0.45);
+      fail();
+    } catch (IllegalArgumentException exc) {
+      assertEquals(0.5, facade.getShipOrientation(ship1), EPSILON);
+      assertEquals(1.0, facade.getShipOrientation(ship2), EPSILON);
+      score += 3;
+    }
+  }
+
   @Test
   public void testTurnStatement_InvalidAngle() throws ModelException {
     max_score += 5;
@@ -2896,4 +3328,154 @@ public class Part3TestFull {
     }
   }
 
+  // Bytecode Programs
+
+  private List<Object> executeOnNewWorld(IProgramFactory<?, ?, ?, Program> factory, String code, double... durations)
+      throws ModelException {
+    World world = facade.createWorld(2000, 2000);
+    Ship ship = facade.createShip(100, 120, 10, 5, 50, 0, 1.0E20);
+    for (int i = 1; i < 10; i++)
+      facade.loadBulletOnShip(ship, facade.createBullet(100, 120, 0, 0, 10));
+    facade.addShipToWorld(world, ship);
+    facade.addAsteroidToWorld(world, facade.createAsteroid(600, 700, 0, 0, 30));
+    Program program = ProgramParser.parseProgramFromString(code, factory);
+    facade.loadProgramOnShip(ship, program);
+    List<Object> trace = new ArrayList<>();
+    for (double duration : durations) {
+      trace.add(facade.executeProgram(ship, duration));
+      trace.add(facade.getShipOrientation(ship));
+      trace.add(facade.isShipThrusterActive(ship));
+      trace.add(facade.getNbBulletsOnShip(ship));
+      trace.add(facade.getWorldBullets(world).size());
+    }
+    return trace;
+  }
+
+  private void assertBytecodeLikeInterpreted(String code, double... durations) throws ModelException {
+    IProgramFactory<?, ?, ?, Program> bytecodeFactory = new BytecodeProgramFactory<Object, Object, Object, Object>();
+    assertTrue(ProgramParser.parseProgramFromString(code, bytecodeFactory) instanceof BytecodeProgram);
+    List<Object> expecteds = executeOnNewWorld(programFactory, code, durations);
+    List<Object> results = executeOnNewWorld(bytecodeFactory, code, durations);
+    assertArrayEquals(expecteds.toArray(), results.toArray());
+  }
+
+  @Test
+  public void testBytecodeProgram_Break() throws ModelException {
+    max_score += 3;
+    assertBytecodeLikeInterpreted("a := 10.0; " + "while a < 20.5 { " + "  print a; " + "  while a < 15.0 { "
+        + "    a := a + 1.0; " + "    if 12.5 < a { " + "      break; " + "    } " + "  } " + "  if 18.5 < a { "
+        + "    break; " + "  } " + "  a := a + 2.0; " + "} " + "print a; ", 1.0);
+    score += 3;
+  }
+
+  @Test
+  public void testBytecodeProgram_WhileResumesAfterSuspension() throws ModelException {
+    max_score += 3;
+    assertBytecodeLikeInterpreted("a := 0.0; " + "while a < 5.0 { " + "  turn 0.1; " + "  print a; "
+        + "  a := a + 1.0; " + "} " + "print getdir; ", 0.1, 0.25, 0.05, 1.0);
+    score += 3;
+  }
+
+  @Test
+  public void testBytecodeProgram_FunctionCalls() throws ModelException {
+    max_score += 3;
+    assertBytecodeLikeInterpreted("def fac { " + "  if $1 < 1.5 { " + "    return 1.0; " + "  } " + "  else { "
+        + "    return $1 * fac($1 + -1.0); " + "  } " + "} " + "def dist { " + "  dx := $1 + -$3; "
+        + "  dy := $2 + -$4; " + "  return sqrt(dx * dx + dy * dy); " + "} " + "x := 2.0; " + "print fac(5.0); "
+        + "print dist(getx self, gety self, getx asteroid, gety asteroid); " + "print fac(x) + fac(x + 1.0); " + "print x; ", 0.0);
+    score += 3;
+  }
+
+  @Test
+  public void testBytecodeProgram_Actions() throws ModelException {
+    max_score += 3;
+    assertBytecodeLikeInterpreted("thrust; " + "turn 0.5; " + "fire; " + "print getdir; " + "thrust_off; "
+        + "while 0.0 < 1.0 { " + "  fire; " + "  turn -0.25; " + "  skip; " + "  print getdir; " + "} ", 0.1, 0.3,
+        0.45, 0.7);
+    score += 3;
+  }
+
+  // Offscreen Rendering
+
+  private World createRenderedWorld() throws ModelException {
+    World world = facade.createWorld(2000, 1000);
+    Ship ship = facade.createShip(500, 500, 100, 0, 50, 0, 1.0E20);
+    for (int i = 0; i < 3; i++)
+      facade.loadBulletOnShip(ship, facade.createBullet(500, 500, 0, 0, 10));
+    facade.addShipToWorld(world, ship);
+    facade.addBulletToWorld(world, facade.createBullet(1800, 100, 20, -10, 10));
+    facade.addAsteroidToWorld(world, facade.createAsteroid(1500, 700, -20, -10, 40));
+    facade.addPlanetoidToWorld(world, facade.createPlanetoid(200, 200, 10, 10, 60, 0));
+    Program program = ProgramParser.parseProgramFromString("while 0.0 < 1.0 { turn 0.2; fire; }", programFactory);
+    facade.loadProgramOnShip(ship, program);
+    return world;
+  }
+
+  @Test
+  public void testOffscreenRenderer_PngSequence() throws ModelException, IOException {
+    max_score += 3;
+    OffscreenRenderer renderer = new OffscreenRenderer(facade, createRenderedWorld(), 64, 32);
+    Path directory = Files.createTempDirectory("frames");
+    try {
+      renderer.writePngSequence(directory, "frame", 4, 0.1);
+      try (Stream<Path> files = Files.list(directory)) {
+        assertEquals(4, files.count());
+      }
+      for (int frame = 0; frame < 4; frame++) {
+        BufferedImage image = ImageIO.read(directory.resolve(String.format("frame%05d.png", frame)).toFile());
+        assertEquals(64, image.getWidth());
+        assertEquals(32, image.getHeight());
+      }
+    } finally {
+      try (Stream<Path> files = Files.list(directory)) {
+        for (Path file : (Iterable<Path>) files::iterator)
+          Files.delete(file);
+      }
+      Files.delete(directory);
+    }
+    score += 3;
+  }
+
+  @Test
+  public void testOffscreenRenderer_RgbStream() throws ModelException, IOException {
+    max_score += 3;
+    World world = createRenderedWorld();
+    OffscreenRenderer renderer = new OffscreenRenderer(facade, world, 50, 30);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    renderer.writeRgbStream(out, 5, 0.1);
+    assertEquals(5 * 3 * 50 * 30, out.size());
+    byte[] bytes = out.toByteArray();
+    byte[] first = Arrays.copyOfRange(bytes, 0, 3 * 50 * 30);
+    byte[] last = Arrays.copyOfRange(bytes, 4 * 3 * 50 * 30, 5 * 3 * 50 * 30);
+    assertFalse(Arrays.equals(first, last));
+    assertTrue(facade.getWorldBullets(world).size() > 1);
+    score += 3;
+  }
+
+  @Test
+  public void testOffscreenRenderer_RendersAgainAfterError() throws ModelException {
+    max_score += 2;
+    boolean[] failing = { true };
+    IFacade failingFacade = new asteroids.facade.Facade() {
+
+      @Override
+      public Set<? extends Asteroid> getWorldAsteroids(World world) throws ModelException {
+        if (failing[0])
+          throw new ModelException("Asteroids unavailable");
+        return super.getWorldAsteroids(world);
+      }
+    };
+    OffscreenRenderer renderer = new OffscreenRenderer(failingFacade, createRenderedWorld(), 40, 20);
+    try {
+      renderer.render();
+      fail();
+    } catch (ModelException exc) {
+    }
+    failing[0] = false;
+    BufferedImage image = renderer.render();
+    assertEquals(40, image.getWidth());
+    assertEquals(20, image.getHeight());
+    score += 2;
+  }
+
 }